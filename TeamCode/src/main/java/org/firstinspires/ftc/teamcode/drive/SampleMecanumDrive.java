@@ -14,27 +14,40 @@ import com.acmerobotics.roadrunner.followers.HolonomicPIDVAFollower;
 import com.acmerobotics.roadrunner.followers.TrajectoryFollower;
 import com.acmerobotics.roadrunner.geometry.Pose2d;
 import com.acmerobotics.roadrunner.profile.MotionProfile;
-import com.acmerobotics.roadrunner.profile.MotionProfileGenerator;
+import com.acmerobotics.roadrunner.profile.MotionProfileCache;
 import com.acmerobotics.roadrunner.profile.MotionState;
+import com.acmerobotics.roadrunner.trajectory.BakedTrajectory;
 import com.acmerobotics.roadrunner.trajectory.Trajectory;
 import com.acmerobotics.roadrunner.trajectory.TrajectoryBuilder;
+import com.acmerobotics.roadrunner.trajectory.TrajectoryReplanner;
+import com.acmerobotics.roadrunner.trajectory.TrajectoryStream;
 import com.acmerobotics.roadrunner.trajectory.constraints.DriveConstraints;
 import com.acmerobotics.roadrunner.trajectory.constraints.MecanumConstraints;
 import com.acmerobotics.roadrunner.util.NanoClock;
 import com.qualcomm.hardware.bosch.BNO055IMU;
 import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import com.qualcomm.robotcore.eventloop.opmode.OpModeManagerImpl;
+import com.qualcomm.robotcore.eventloop.opmode.OpModeManagerNotifier;
 import com.qualcomm.robotcore.hardware.DcMotor;
 import com.qualcomm.robotcore.hardware.DcMotorEx;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 import com.qualcomm.robotcore.hardware.PIDFCoefficients;
 import com.qualcomm.robotcore.hardware.configuration.typecontainers.MotorConfigurationType;
 
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
 import org.firstinspires.ftc.teamcode.util.DashboardUtil;
 import org.firstinspires.ftc.teamcode.util.LynxModuleUtil;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.firstinspires.ftc.teamcode.drive.DriveConstants.BASE_CONSTRAINTS;
 import static org.firstinspires.ftc.teamcode.drive.DriveConstants.MOTOR_VELO_PID;
@@ -56,10 +69,24 @@ public class SampleMecanumDrive extends MecanumDrive {
 
     public static double LATERAL_MULTIPLIER = 1;
 
+    public static double REPLAN_TIME_BUDGET = 0.005; // s
+
     public enum Mode {
         IDLE,
         TURN,
-        FOLLOW_TRAJECTORY
+        FOLLOW_TRAJECTORY,
+        WAIT_FOR_BUILD
+    }
+
+    /**
+     * Step of a trajectory sequence (see {@link #followSequenceAsync(List)}).
+     */
+    public interface TrajectoryFactory {
+        /**
+         * Builds the trajectory of this step starting at the (predicted) end pose of the previous step. Called on a
+         * background thread.
+         */
+        Trajectory build(Pose2d startPose);
     }
 
     private FtcDashboard dashboard;
@@ -69,10 +96,20 @@ public class SampleMecanumDrive extends MecanumDrive {
 
     private PIDFController turnController;
     private MotionProfile turnProfile;
+    private MotionProfileCache turnProfileCache;
     private double turnStart;
 
     private DriveConstraints constraints;
     private TrajectoryFollower follower;
+    private TrajectoryReplanner replanner;
+
+    private ExecutorService buildExecutor;
+    private OpModeManagerNotifier.Notifications opModeListener;
+    private Deque<TrajectoryFactory> sequence;
+    private Future<Trajectory> nextTrajectory;
+    private int buildWaits;
+    private double buildWaitTime;
+    private double lastWaitTimestamp;
 
     private List<Pose2d> poseHistory;
 
@@ -94,11 +131,44 @@ public class SampleMecanumDrive extends MecanumDrive {
 
         turnController = new PIDFController(HEADING_PID);
         turnController.setInputBounds(0, 2 * Math.PI);
+        turnProfileCache = new MotionProfileCache();
 
         constraints = new MecanumConstraints(BASE_CONSTRAINTS, TRACK_WIDTH);
+        replanner = new TrajectoryReplanner(constraints, REPLAN_TIME_BUDGET);
         follower = new HolonomicPIDVAFollower(TRANSLATIONAL_PID, TRANSLATIONAL_PID, HEADING_PID,
                 new Pose2d(0.5, 0.5, Math.toRadians(5.0)), 0.5);
 
+        // daemon threads so a drive that's never shut down (e.g., no OpMode manager to notify it) can't keep the
+        // process alive
+        buildExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "drive-trajectory-build");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sequence = new ArrayDeque<>();
+
+        // stop building trajectories when the OpMode stops (the manager holds its listeners weakly, so this one is
+        // kept in a field to live as long as the drive)
+        opModeListener = new OpModeManagerNotifier.Notifications() {
+            @Override
+            public void onOpModePreInit(OpMode opMode) {
+            }
+
+            @Override
+            public void onOpModePreStart(OpMode opMode) {
+            }
+
+            @Override
+            public void onOpModePostStop(OpMode opMode) {
+                shutdown();
+            }
+        };
+        OpModeManagerImpl opModeManager = OpModeManagerImpl.getOpModeManagerOfActivity(
+                AppUtil.getInstance().getActivity());
+        if (opModeManager != null) {
+            opModeManager.registerListener(opModeListener);
+        }
+
         poseHistory = new ArrayList<>();
 
         LynxModuleUtil.ensureMinimumFirmwareVersion(hardwareMap);
@@ -158,12 +228,131 @@ public class SampleMecanumDrive extends MecanumDrive {
         return new TrajectoryBuilder(startPose, startHeading, constraints);
     }
 
+    /**
+     * Builds the trajectory on the drive's background executor, so the caller (e.g., the loop following the current
+     * trajectory) isn't blocked while it generates.
+     */
+    public Future<Trajectory> buildAsync(TrajectoryBuilder builder) {
+        requireBuildExecutor();
+        return buildExecutor.submit(builder::build);
+    }
+
+    /**
+     * Cancels any pending trajectory builds and shuts down the background executor. Called automatically when the
+     * OpMode stops. Building in the background afterwards (e.g., {@link #buildAsync(TrajectoryBuilder)} or
+     * {@link #followSequenceAsync(List)}) throws {@link IllegalStateException}.
+     */
+    public void shutdown() {
+        cancelSequence();
+        buildExecutor.shutdownNow();
+    }
+
+    private void requireBuildExecutor() {
+        if (buildExecutor.isShutdown()) {
+            throw new IllegalStateException("The drive has been shut down (e.g., its OpMode stopped); "
+                    + "create a new drive to build trajectories in the background");
+        }
+    }
+
+    private void cancelSequence() {
+        sequence.clear();
+        if (nextTrajectory != null) {
+            nextTrajectory.cancel(true);
+            nextTrajectory = null;
+        }
+        if (mode == Mode.WAIT_FOR_BUILD) {
+            mode = Mode.IDLE;
+            setDriveSignal(new DriveSignal());
+        }
+    }
+
+    private void prebuildNext(Pose2d startPose) {
+        TrajectoryFactory factory = sequence.poll();
+        if (factory != null) {
+            requireBuildExecutor();
+        }
+        nextTrajectory = factory == null ? null : buildExecutor.submit(() -> factory.build(startPose));
+    }
+
+    // starts following the next trajectory of the sequence once it's built (otherwise holds still until it is)
+    private void advanceSequence() {
+        if (!nextTrajectory.isDone()) {
+            if (mode != Mode.WAIT_FOR_BUILD) {
+                mode = Mode.WAIT_FOR_BUILD;
+                buildWaits++;
+                lastWaitTimestamp = clock.seconds();
+            }
+            setDriveSignal(new DriveSignal());
+            return;
+        }
+
+        Trajectory trajectory;
+        try {
+            trajectory = nextTrajectory.get();
+        } catch (ExecutionException e) {
+            cancelSequence();
+            mode = Mode.IDLE;
+            setDriveSignal(new DriveSignal());
+            throw new RuntimeException("Failed to build the next trajectory in the sequence", e.getCause());
+        } catch (InterruptedException e) {
+            // unreachable since the future is done
+            Thread.currentThread().interrupt();
+            return;
+        }
+        follower.followTrajectory(trajectory);
+        mode = Mode.FOLLOW_TRAJECTORY;
+        prebuildNext(trajectory.end());
+    }
+
+    /**
+     * Follows a sequence of trajectories back to back. The first step is built immediately from the current pose
+     * estimate; while each trajectory is followed, the next one is built in the background starting from the planned
+     * end pose of the current one. Any time a trajectory finishes before its successor is built, the robot holds still
+     * in {@link Mode#WAIT_FOR_BUILD} until it is (see {@link #getBuildWaits()}); {@link #update()} keeps running
+     * meanwhile. Calling another follow or turn method cancels the rest of the sequence.
+     */
+    public void followSequenceAsync(List<TrajectoryFactory> steps) {
+        cancelSequence();
+        if (steps.isEmpty()) {
+            return;
+        }
+        if (steps.size() > 1) {
+            requireBuildExecutor();
+        }
+        Trajectory first = steps.get(0).build(getPoseEstimate());
+        follower.followTrajectory(first);
+        mode = Mode.FOLLOW_TRAJECTORY;
+        sequence.addAll(steps.subList(1, steps.size()));
+        prebuildNext(first.end());
+    }
+
+    public void followSequence(List<TrajectoryFactory> steps) {
+        followSequenceAsync(steps);
+        waitForIdle();
+    }
+
+    /**
+     * Returns the number of times a sequence trajectory was followed only after waiting for it to build.
+     */
+    public int getBuildWaits() {
+        return buildWaits;
+    }
+
+    /**
+     * Returns the total time spent waiting for sequence trajectories to build in seconds.
+     */
+    public double getBuildWaitTime() {
+        return buildWaitTime;
+    }
+
     public void turnAsync(double angle) {
+        cancelSequence();
+
         double heading = getPoseEstimate().getHeading();
 
         lastPoseOnTurn = getPoseEstimate();
 
-        turnProfile = MotionProfileGenerator.generateSimpleMotionProfile(
+        turnProfile = turnProfileCache.generateSimpleMotionProfile(
                 new MotionState(heading, 0, 0, 0),
                 new MotionState(heading + angle, 0, 0, 0),
                 constraints.maxAngVel,
@@ -181,6 +370,7 @@ public class SampleMecanumDrive extends MecanumDrive {
     }
 
     public void followTrajectoryAsync(Trajectory trajectory) {
+        cancelSequence();
         follower.followTrajectory(trajectory);
         mode = Mode.FOLLOW_TRAJECTORY;
     }
@@ -190,9 +380,50 @@ public class SampleMecanumDrive extends MecanumDrive {
         waitForIdle();
     }
 
+    public void followTrajectoryAsync(BakedTrajectory trajectory) {
+        cancelSequence();
+        follower.followTrajectory(trajectory);
+        mode = Mode.FOLLOW_TRAJECTORY;
+    }
+
+    public void followTrajectory(BakedTrajectory trajectory) {
+        followTrajectoryAsync(trajectory);
+        waitForIdle();
+    }
+
+    public void followTrajectoryAsync(TrajectoryStream stream) {
+        cancelSequence();
+        follower.followTrajectory(stream);
+        mode = Mode.FOLLOW_TRAJECTORY;
+    }
+
+    public void followTrajectory(TrajectoryStream stream) {
+        followTrajectoryAsync(stream);
+        waitForIdle();
+    }
+
+    public void replanAsync(Pose2d goal, double endTangent) {
+        Trajectory trajectory;
+        if (mode == Mode.FOLLOW_TRAJECTORY) {
+            // continue smoothly from the current reference without stopping
+            trajectory = replanner.replan(follower.getTrajectory(), follower.elapsedTime(), goal, endTangent);
+        } else {
+            Pose2d currentPose = getPoseEstimate();
+            trajectory = replanner.replan(currentPose, currentPose.getHeading(), new MotionState(0, 0, 0),
+                    goal, endTangent);
+        }
+        followTrajectoryAsync(trajectory);
+    }
+
+    public void replan(Pose2d goal, double endTangent) {
+        replanAsync(goal, endTangent);
+        waitForIdle();
+    }
+
     public Pose2d getLastError() {
         switch (mode) {
             case FOLLOW_TRAJECTORY:
+            case WAIT_FOR_BUILD:
                 return follower.getLastError();
             case TURN:
                 return new Pose2d(0, 0, turnController.getLastError());
@@ -214,6 +445,22 @@ public class SampleMecanumDrive extends MecanumDrive {
         Canvas fieldOverlay = packet.fieldOverlay();
 
         packet.put("mode", mode);
+        packet.put("turnCacheHits", turnProfileCache.getHits());
+        packet.put("turnCacheMisses", turnProfileCache.getMisses());
+
+        TrajectoryReplanner.Report replanReport = replanner.getLastReport();
+        if (replanReport != null) {
+            packet.put("replanTime", replanReport.getTime());
+            packet.put("replanResolution", replanReport.getResolution());
+        }
+
+        if (mode == Mode.WAIT_FOR_BUILD) {
+            double timestamp = clock.seconds();
+            buildWaitTime += timestamp - lastWaitTimestamp;
+            lastWaitTimestamp = timestamp;
+        }
+        packet.put("buildWaits", buildWaits);
+        packet.put("buildWaitTime", buildWaitTime);
 
         packet.put("x", currentPose.getX());
         packet.put("y", currentPose.getY());
@@ -265,16 +512,29 @@ public class SampleMecanumDrive extends MecanumDrive {
                 fieldOverlay.setStroke("#4CAF50");
                 DashboardUtil.drawSampledPath(fieldOverlay, trajectory.getPath());
                 double t = follower.elapsedTime();
-                DashboardUtil.drawRobot(fieldOverlay, trajectory.get(t));
+                BakedTrajectory baked = follower.getBakedTrajectory();
+                DashboardUtil.drawRobot(fieldOverlay, baked != null ? baked.get(t) : trajectory.get(t));
 
                 fieldOverlay.setStroke("#3F51B5");
                 DashboardUtil.drawPoseHistory(fieldOverlay, poseHistory);
 
                 if (!follower.isFollowing()) {
-                    mode = Mode.IDLE;
-                    setDriveSignal(new DriveSignal());
+                    if (nextTrajectory != null) {
+                        advanceSequence();
+                    } else {
+                        mode = Mode.IDLE;
+                        setDriveSignal(new DriveSignal());
+                    }
                 }
 
+                break;
+            }
+            case WAIT_FOR_BUILD: {
+                advanceSequence();
+
+                fieldOverlay.setStroke("#3F51B5");
+                DashboardUtil.drawPoseHistory(fieldOverlay, poseHistory);
+
                 break;
             }
         }
@@ -289,6 +549,10 @@ public class SampleMecanumDrive extends MecanumDrive {
         while (!Thread.currentThread().isInterrupted() && isBusy()) {
             update();
         }
+        if (Thread.currentThread().isInterrupted()) {
+            // the OpMode is stopping; don't leave builds running
+            cancelSequence();
+        }
     }
 
     public boolean isBusy() {
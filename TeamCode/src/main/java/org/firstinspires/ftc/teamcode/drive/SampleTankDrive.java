@@ -14,10 +14,12 @@ import com.acmerobotics.roadrunner.followers.TankPIDVAFollower;
 import com.acmerobotics.roadrunner.followers.TrajectoryFollower;
 import com.acmerobotics.roadrunner.geometry.Pose2d;
 import com.acmerobotics.roadrunner.profile.MotionProfile;
-import com.acmerobotics.roadrunner.profile.MotionProfileGenerator;
+import com.acmerobotics.roadrunner.profile.MotionProfileCache;
 import com.acmerobotics.roadrunner.profile.MotionState;
+import com.acmerobotics.roadrunner.trajectory.BakedTrajectory;
 import com.acmerobotics.roadrunner.trajectory.Trajectory;
 import com.acmerobotics.roadrunner.trajectory.TrajectoryBuilder;
+import com.acmerobotics.roadrunner.trajectory.TrajectoryStream;
 import com.acmerobotics.roadrunner.trajectory.constraints.DriveConstraints;
 import com.acmerobotics.roadrunner.trajectory.constraints.TankConstraints;
 import com.acmerobotics.roadrunner.util.NanoClock;
@@ -69,6 +71,7 @@ public class SampleTankDrive extends TankDrive {
 
     private PIDFController turnController;
     private MotionProfile turnProfile;
+    private MotionProfileCache turnProfileCache;
     private double turnStart;
 
     private DriveConstraints constraints;
@@ -91,6 +94,7 @@ public class SampleTankDrive extends TankDrive {
 
         turnController = new PIDFController(HEADING_PID);
         turnController.setInputBounds(0, 2 * Math.PI);
+        turnProfileCache = new MotionProfileCache();
 
         constraints = new TankConstraints(BASE_CONSTRAINTS, TRACK_WIDTH);
         follower = new TankPIDVAFollower(AXIAL_PID, CROSS_TRACK_PID,
@@ -160,7 +164,7 @@ public class SampleTankDrive extends TankDrive {
 
     public void turnAsync(double angle) {
         double heading = getPoseEstimate().getHeading();
-        turnProfile = MotionProfileGenerator.generateSimpleMotionProfile(
+        turnProfile = turnProfileCache.generateSimpleMotionProfile(
                 new MotionState(heading, 0, 0, 0),
                 new MotionState(heading + angle, 0, 0, 0),
                 constraints.maxAngVel,
@@ -187,6 +191,28 @@ public class SampleTankDrive extends TankDrive {
         waitForIdle();
     }
 
+    public void followTrajectoryAsync(BakedTrajectory trajectory) {
+        poseHistory.clear();
+        follower.followTrajectory(trajectory);
+        mode = Mode.FOLLOW_TRAJECTORY;
+    }
+
+    public void followTrajectory(BakedTrajectory trajectory) {
+        followTrajectoryAsync(trajectory);
+        waitForIdle();
+    }
+
+    public void followTrajectoryAsync(TrajectoryStream stream) {
+        poseHistory.clear();
+        follower.followTrajectory(stream);
+        mode = Mode.FOLLOW_TRAJECTORY;
+    }
+
+    public void followTrajectory(TrajectoryStream stream) {
+        followTrajectoryAsync(stream);
+        waitForIdle();
+    }
+
     public Pose2d getLastError() {
         switch (mode) {
             case FOLLOW_TRAJECTORY:
@@ -211,6 +237,8 @@ public class SampleTankDrive extends TankDrive {
         Canvas fieldOverlay = packet.fieldOverlay();
 
         packet.put("mode", mode);
+        packet.put("turnCacheHits", turnProfileCache.getHits());
+        packet.put("turnCacheMisses", turnProfileCache.getMisses());
 
         packet.put("x", currentPose.getX());
         packet.put("y", currentPose.getY());
@@ -257,7 +285,8 @@ public class SampleTankDrive extends TankDrive {
                 fieldOverlay.setStroke("4CAF50");
                 DashboardUtil.drawSampledPath(fieldOverlay, trajectory.getPath());
                 double t = follower.elapsedTime();
-                DashboardUtil.drawRobot(fieldOverlay, trajectory.get(t));
+                BakedTrajectory baked = follower.getBakedTrajectory();
+                DashboardUtil.drawRobot(fieldOverlay, baked != null ? baked.get(t) : trajectory.get(t));
 
                 fieldOverlay.setStroke("#3F51B5");
                 DashboardUtil.drawPoseHistory(fieldOverlay, poseHistory);
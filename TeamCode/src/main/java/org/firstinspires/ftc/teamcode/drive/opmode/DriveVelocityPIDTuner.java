@@ -9,7 +9,7 @@ import com.acmerobotics.dashboard.telemetry.MultipleTelemetry;
 import com.acmerobotics.roadrunner.control.PIDCoefficients;
 import com.acmerobotics.roadrunner.geometry.Pose2d;
 import com.acmerobotics.roadrunner.profile.MotionProfile;
-import com.acmerobotics.roadrunner.profile.MotionProfileGenerator;
+import com.acmerobotics.roadrunner.profile.MotionProfileCache;
 import com.acmerobotics.roadrunner.profile.MotionState;
 import com.acmerobotics.roadrunner.util.NanoClock;
 import com.qualcomm.robotcore.eventloop.opmode.Autonomous;
@@ -49,10 +49,13 @@ public class DriveVelocityPIDTuner extends LinearOpMode {
 
     private SampleMecanumDrive drive;
 
+    // the back and forth moves are the same every time (unless DISTANCE is changed)
+    private static final MotionProfileCache PROFILE_CACHE = new MotionProfileCache();
+
     private static MotionProfile generateProfile(boolean movingForward) {
         MotionState start = new MotionState(movingForward ? 0 : DISTANCE, 0, 0, 0);
         MotionState goal = new MotionState(movingForward ? DISTANCE : 0, 0, 0, 0);
-        return MotionProfileGenerator.generateSimpleMotionProfile(start, goal,
+        return PROFILE_CACHE.generateSimpleMotionProfile(start, goal,
                 DriveConstants.BASE_CONSTRAINTS.maxVel,
                 DriveConstants.BASE_CONSTRAINTS.maxAccel,
                 DriveConstants.BASE_CONSTRAINTS.maxJerk);
@@ -170,6 +173,7 @@ public class DriveVelocityPIDTuner extends LinearOpMode {
 
             // update telemetry
             telemetry.addData("targetVelocity", motionState.getV());
+            telemetry.addData("profileCacheHits", PROFILE_CACHE.getHits());
             for (int i = 0; i < velocities.size(); i++) {
                 telemetry.addData("velocity" + i, velocities.get(i));
                 telemetry.addData("error" + i, motionState.getV() - velocities.get(i));
@@ -7,7 +7,7 @@ import com.acmerobotics.dashboard.telemetry.TelemetryPacket;
 import com.acmerobotics.roadrunner.geometry.Pose2d;
 import com.acmerobotics.roadrunner.kinematics.Kinematics;
 import com.acmerobotics.roadrunner.profile.MotionProfile;
-import com.acmerobotics.roadrunner.profile.MotionProfileGenerator;
+import com.acmerobotics.roadrunner.profile.MotionProfileCache;
 import com.acmerobotics.roadrunner.profile.MotionState;
 import com.acmerobotics.roadrunner.util.NanoClock;
 import com.qualcomm.robotcore.eventloop.opmode.Autonomous;
@@ -41,10 +41,13 @@ public class ManualFeedforwardTuner extends LinearOpMode {
 
     private SampleMecanumDrive drive;
 
+    // the back and forth moves are the same every time (unless DISTANCE is changed)
+    private static final MotionProfileCache PROFILE_CACHE = new MotionProfileCache();
+
     private static MotionProfile generateProfile(boolean movingForward) {
         MotionState start = new MotionState(movingForward ? 0 : DISTANCE, 0, 0, 0);
         MotionState goal = new MotionState(movingForward ? DISTANCE : 0, 0, 0, 0);
-        return MotionProfileGenerator.generateSimpleMotionProfile(start, goal,
+        return PROFILE_CACHE.generateSimpleMotionProfile(start, goal,
                 DriveConstants.BASE_CONSTRAINTS.maxVel,
                 DriveConstants.BASE_CONSTRAINTS.maxAccel,
                 DriveConstants.BASE_CONSTRAINTS.maxJerk);
@@ -90,6 +93,7 @@ public class ManualFeedforwardTuner extends LinearOpMode {
 
             // update telemetry
             telemetry.addData("targetVelocity", motionState.getV());
+            telemetry.addData("profileCacheHits", PROFILE_CACHE.getHits());
 
             Pose2d poseVelo = Objects.requireNonNull(drive.getPoseVelocity(), "poseVelocity() must not be null. Ensure that the getWheelVelocities() method has been overridden in your localizer.");
             double currentVelo = poseVelo.getX();
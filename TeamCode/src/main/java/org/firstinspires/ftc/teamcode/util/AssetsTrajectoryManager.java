@@ -1,17 +1,30 @@
 package org.firstinspires.ftc.teamcode.util;
 
+import android.content.res.AssetFileDescriptor;
+import android.content.res.AssetManager;
+
 import androidx.annotation.Nullable;
 
 import com.acmerobotics.roadrunner.trajectory.Trajectory;
 import com.acmerobotics.roadrunner.trajectory.TrajectoryBuilder;
+import com.acmerobotics.roadrunner.trajectory.config.TrajectoryBinaryManager;
 import com.acmerobotics.roadrunner.trajectory.config.TrajectoryConfig;
 import com.acmerobotics.roadrunner.trajectory.config.TrajectoryConfigManager;
 import com.acmerobotics.roadrunner.trajectory.config.TrajectoryGroupConfig;
 
 import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
 
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 
 /**
  * Set of utilities for loading trajectories from assets (the plugin save location).
@@ -67,4 +80,58 @@ public class AssetsTrajectoryManager {
         }
         return builder.build();
     }
+
+    /**
+     * Loads a trajectory with the given name from its binary artifact (see {@link TrajectoryBinaryManager}) without
+     * parsing YAML or regenerating it. Uncompressed assets are memory-mapped; compressed ones are read into memory.
+     */
+    public static @Nullable Trajectory loadBinary(String name) {
+        AssetManager assets = AppUtil.getDefContext().getAssets();
+        String path = "trajectory/" + name + TrajectoryBinaryManager.FILE_EXTENSION;
+        try (AssetFileDescriptor descriptor = assets.openFd(path);
+             FileInputStream inputStream = descriptor.createInputStream()) {
+            return TrajectoryBinaryManager.load(inputStream.getChannel().map(
+                    FileChannel.MapMode.READ_ONLY, descriptor.getStartOffset(), descriptor.getLength()));
+        } catch (IOException e) {
+            // openFd() fails for compressed assets
+        }
+        try (InputStream inputStream = assets.open(path)) {
+            return TrajectoryBinaryManager.load(inputStream);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Loads and generates every trajectory in assets in parallel on the given executor (see
+     * {@link TrajectoryConfigManager#generateGroupParallel}). Hardware can be initialized while the trajectories are
+     * generated; each future holds the trajectory along with its generation time. The caller owns the executor (e.g.,
+     * {@code Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors())}) and should shut it down when
+     * the OpMode stops. Returns null if there is no group config.
+     */
+    public static @Nullable Map<String, Future<TrajectoryConfigManager.GeneratedTrajectory>> loadGroupParallel(
+            Executor executor) {
+        TrajectoryGroupConfig groupConfig = loadGroupConfig();
+        if (groupConfig == null) {
+            return null;
+        }
+        String[] files;
+        try {
+            files = AppUtil.getDefContext().getAssets().list("trajectory");
+        } catch (IOException e) {
+            return null;
+        }
+        if (files == null) {
+            return Collections.emptyMap();
+        }
+        Arrays.sort(files);
+        Map<String, Callable<TrajectoryConfig>> configLoaders = new LinkedHashMap<>();
+        for (String file : files) {
+            if (file.endsWith(".yaml") && !file.equals(TrajectoryConfigManager.GROUP_FILENAME)) {
+                String name = file.substring(0, file.length() - ".yaml".length());
+                configLoaders.put(name, () -> loadConfig(name));
+            }
+        }
+        return TrajectoryConfigManager.generateGroupParallel(groupConfig, configLoaders, executor);
+    }
 }
@@ -33,17 +33,14 @@ object GraphUtil {
         includeAcceleration: Boolean = true,
         resolution: Int = 1000
     ) {
-        val timeData = DoubleProgression.fromClosedInterval(
-            0.0, profile.duration(), resolution).toList().toDoubleArray()
-        val positionData = timeData.map { profile[it].x }.toDoubleArray()
-        val velocityData = timeData.map { profile[it].v }.toDoubleArray()
+        val timeProgression = DoubleProgression.fromClosedInterval(0.0, profile.duration(), resolution)
+        val timeData = timeProgression.toList().toDoubleArray()
+        val (positionData, velocityData, accelerationData) = profile.sample(timeProgression)
 
         val labels = mutableListOf("x(t)", "v(t)")
         val data = mutableListOf(positionData, velocityData)
 
         if (includeAcceleration) {
-            val accelerationData = timeData.map { profile[it].a }.toDoubleArray()
-
             labels.add("a(t)")
             data.add(accelerationData)
         }
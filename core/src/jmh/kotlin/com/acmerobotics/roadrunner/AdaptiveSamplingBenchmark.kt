@@ -0,0 +1,64 @@
+package com.acmerobotics.roadrunner
+
+import com.acmerobotics.roadrunner.geometry.Pose2d
+import com.acmerobotics.roadrunner.geometry.Vector2d
+import com.acmerobotics.roadrunner.path.Path
+import com.acmerobotics.roadrunner.path.PathBuilder
+import com.acmerobotics.roadrunner.trajectory.TrajectoryGenerator
+import com.acmerobotics.roadrunner.trajectory.constraints.AdaptiveConstraintSampler
+import com.acmerobotics.roadrunner.trajectory.constraints.DriveConstraints
+import com.acmerobotics.roadrunner.trajectory.constraints.MecanumConstraints
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import java.util.concurrent.TimeUnit
+import kotlin.math.PI
+
+/**
+ * Compares uniform and curvature-adaptive constraint sampling when generating dynamic trajectories for a twisty spline,
+ * a line-spline-line path, and a straight line with a linear heading turn.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class AdaptiveSamplingBenchmark {
+    @Param("spline", "mixed", "line")
+    var shape: String = "spline"
+
+    private val constraints = MecanumConstraints(DriveConstraints(30.0, 30.0, 0.0, PI, PI, 0.0), 15.0)
+    private val sampler = AdaptiveConstraintSampler()
+    private lateinit var path: Path
+
+    @Setup
+    fun setup() {
+        val builder = PathBuilder(Pose2d(0.0, 0.0, 0.0))
+        path = when (shape) {
+            "spline" -> builder
+                .splineTo(Vector2d(40.0, 30.0), 0.0)
+                .splineTo(Vector2d(80.0, -20.0), PI / 2)
+                .splineTo(Vector2d(100.0, 40.0), PI)
+            "mixed" -> builder
+                .lineTo(Vector2d(60.0, 0.0))
+                .splineTo(Vector2d(72.0, 12.0), PI / 2)
+                .lineTo(Vector2d(72.0, 72.0))
+            else -> builder.lineToLinearHeading(Pose2d(48.0, 48.0, PI))
+        }.build()
+    }
+
+    @Benchmark
+    fun uniform() = TrajectoryGenerator.generateTrajectory(path, constraints)
+
+    @Benchmark
+    fun adaptive() = TrajectoryGenerator.generateTrajectory(path, constraints, sampler)
+}
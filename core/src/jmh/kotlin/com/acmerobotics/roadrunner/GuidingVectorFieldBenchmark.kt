@@ -0,0 +1,53 @@
+package com.acmerobotics.roadrunner
+
+import com.acmerobotics.roadrunner.geometry.Pose2d
+import com.acmerobotics.roadrunner.geometry.Vector2d
+import com.acmerobotics.roadrunner.path.PathBuilder
+import com.acmerobotics.roadrunner.util.GuidingVectorField
+import com.acmerobotics.roadrunner.util.GuidingVectorFieldGrid
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import java.util.concurrent.TimeUnit
+
+/**
+ * Compares [GuidingVectorFieldGrid] lookups against projecting onto the path and measures the cost of precomputing
+ * the grid over the field.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class GuidingVectorFieldBenchmark {
+    private val path = PathBuilder(Pose2d(-48.0, -48.0))
+        .splineTo(Vector2d(0.0, 0.0), 0.0)
+        .splineTo(Vector2d(48.0, 24.0), 0.0)
+        .build()
+
+    private val gvf = GuidingVectorField(path, 0.1)
+
+    private lateinit var grid: GuidingVectorFieldGrid
+
+    @Setup
+    fun setup() {
+        grid = GuidingVectorFieldGrid(gvf)
+    }
+
+    @Benchmark
+    fun projectedGet() = gvf[10.0, 5.0]
+
+    @Benchmark
+    fun gridGet() = grid[10.0, 5.0]
+
+    @Benchmark
+    fun buildGrid() = GuidingVectorFieldGrid(gvf)
+}
@@ -0,0 +1,57 @@
+package com.acmerobotics.roadrunner
+
+import com.acmerobotics.roadrunner.geometry.Pose2d
+import com.acmerobotics.roadrunner.geometry.Vector2d
+import com.acmerobotics.roadrunner.path.Path
+import com.acmerobotics.roadrunner.path.PathBuilder
+import com.acmerobotics.roadrunner.trajectory.TrajectoryGenerator
+import com.acmerobotics.roadrunner.trajectory.constraints.DriveConstraints
+import com.acmerobotics.roadrunner.trajectory.constraints.MecanumConstraints
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import java.util.concurrent.TimeUnit
+import kotlin.math.PI
+
+/**
+ * Compares jerk-limited and acceleration-limited dynamic trajectory generation on typical (100-200 in) mecanum spline
+ * paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class JerkLimitedTrajectoryBenchmark {
+    // approximate path length in inches
+    @Param("100", "200")
+    var length: Int = 100
+
+    private val constraints = MecanumConstraints(DriveConstraints(30.0, 30.0, 60.0, PI, PI, 0.0), 15.0)
+    private lateinit var path: Path
+
+    @Setup
+    fun setup() {
+        val scale = length / 200.0
+        path = PathBuilder(Pose2d(0.0, 0.0, 0.0))
+            .splineTo(Vector2d(40.0 * scale, 30.0 * scale), 0.0)
+            .splineTo(Vector2d(80.0 * scale, -20.0 * scale), PI / 2)
+            .splineTo(Vector2d(100.0 * scale, 40.0 * scale), PI)
+            .build()
+    }
+
+    @Benchmark
+    fun accelerationLimited() = TrajectoryGenerator.generateTrajectory(path, constraints)
+
+    @Benchmark
+    fun jerkLimited() = TrajectoryGenerator.generateTrajectory(path, constraints, jerkLimited = true)
+}
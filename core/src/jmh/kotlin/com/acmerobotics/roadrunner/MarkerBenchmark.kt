@@ -0,0 +1,85 @@
+package com.acmerobotics.roadrunner
+
+import com.acmerobotics.roadrunner.profile.MotionConstraints
+import com.acmerobotics.roadrunner.profile.MotionProfile
+import com.acmerobotics.roadrunner.profile.MotionProfileGenerator
+import com.acmerobotics.roadrunner.profile.MotionState
+import com.acmerobotics.roadrunner.profile.SimpleMotionConstraints
+import com.acmerobotics.roadrunner.util.DoubleProgression
+import com.acmerobotics.roadrunner.util.epsilonEquals
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import org.openjdk.jmh.infra.Blackhole
+import java.util.concurrent.TimeUnit
+import kotlin.math.sin
+
+/**
+ * Compares resolving displacement marker times with [MotionProfile.timeAt] and [MotionProfile.timesAt] against the
+ * original bisection on a 120 in dynamic profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class MarkerBenchmark {
+    @Param("24", "96")
+    private var markers = 0
+
+    private lateinit var profile: MotionProfile
+    private lateinit var displacements: DoubleArray
+
+    @Setup
+    fun setup() {
+        profile = MotionProfileGenerator.generateMotionProfile(
+            MotionState(0.0, 0.0, 0.0),
+            MotionState(120.0, 0.0, 0.0),
+            object : MotionConstraints() {
+                override fun get(s: Double) = SimpleMotionConstraints(30.0 + 20.0 * sin(s / 10.0), 40.0)
+            }
+        )
+        displacements = DoubleProgression.fromClosedInterval(0.0, 120.0, markers).toList().toDoubleArray()
+    }
+
+    // the pre-inversion implementation of marker conversion
+    private fun bisect(s: Double): Double {
+        var tLo = 0.0
+        var tHi = profile.duration()
+        while (!(tLo epsilonEquals tHi)) {
+            val tMid = 0.5 * (tLo + tHi)
+            if (profile[tMid].x > s) {
+                tHi = tMid
+            } else {
+                tLo = tMid
+            }
+        }
+        return 0.5 * (tLo + tHi)
+    }
+
+    @Benchmark
+    fun bisection(blackhole: Blackhole) {
+        for (s in displacements) {
+            blackhole.consume(bisect(s))
+        }
+    }
+
+    @Benchmark
+    fun timeAt(blackhole: Blackhole) {
+        for (s in displacements) {
+            blackhole.consume(profile.timeAt(s))
+        }
+    }
+
+    @Benchmark
+    fun timesAt() = profile.timesAt(displacements)
+}
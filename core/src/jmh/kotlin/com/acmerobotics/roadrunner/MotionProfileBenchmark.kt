@@ -0,0 +1,96 @@
+package com.acmerobotics.roadrunner
+
+import com.acmerobotics.roadrunner.profile.MotionConstraints
+import com.acmerobotics.roadrunner.profile.MotionProfile
+import com.acmerobotics.roadrunner.profile.MotionProfileGenerator
+import com.acmerobotics.roadrunner.profile.MotionSegment
+import com.acmerobotics.roadrunner.profile.MotionState
+import com.acmerobotics.roadrunner.profile.SimpleMotionConstraints
+import com.acmerobotics.roadrunner.util.DoubleProgression
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import org.openjdk.jmh.infra.Blackhole
+import java.util.concurrent.TimeUnit
+import kotlin.math.max
+import kotlin.math.min
+import kotlin.math.sin
+
+/**
+ * Compares indexed [MotionProfile] sampling (including the allocation-free packed variants) against the original linear
+ * segment scan on a 120 in dynamic profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class MotionProfileBenchmark {
+    private lateinit var profile: MotionProfile
+    private lateinit var times: DoubleProgression
+    private val state = DoubleArray(4)
+
+    @Setup
+    fun setup() {
+        profile = MotionProfileGenerator.generateMotionProfile(
+            MotionState(0.0, 0.0, 0.0),
+            MotionState(120.0, 0.0, 0.0),
+            object : MotionConstraints() {
+                // emulates the curvature-dependent velocity limits of a spline path
+                override fun get(s: Double) = SimpleMotionConstraints(30.0 + 20.0 * sin(s / 10.0), 40.0)
+            }
+        )
+        times = DoubleProgression.fromClosedInterval(0.0, profile.duration(), 100)
+    }
+
+    // the pre-index implementation of MotionProfile.get()
+    private fun linearGet(segments: List<MotionSegment>, t: Double): MotionState {
+        var remainingTime = max(0.0, min(t, segments.sumByDouble { it.dt }))
+        for (segment in segments) {
+            if (remainingTime <= segment.dt) {
+                return segment[remainingTime]
+            }
+            remainingTime -= segment.dt
+        }
+        return segments.last().end()
+    }
+
+    @Benchmark
+    fun indexedGet(blackhole: Blackhole) {
+        for (t in times) {
+            blackhole.consume(profile[t])
+        }
+    }
+
+    @Benchmark
+    fun packedSampleInto(blackhole: Blackhole) {
+        for (i in 0 until times.size()) {
+            blackhole.consume(profile.sampleInto(times[i], state)[0])
+        }
+    }
+
+    @Benchmark
+    fun batchSample() = profile.sample(times)
+
+    @Benchmark
+    fun linearGet(blackhole: Blackhole) {
+        val segments = profile.segments
+        for (t in times) {
+            blackhole.consume(linearGet(segments, t))
+        }
+    }
+
+    @Benchmark
+    fun indexedDuration() = profile.duration()
+
+    @Benchmark
+    fun linearDuration() = profile.segments.sumByDouble { it.dt }
+}
@@ -0,0 +1,45 @@
+package com.acmerobotics.roadrunner
+
+import com.acmerobotics.roadrunner.profile.MotionConstraints
+import com.acmerobotics.roadrunner.profile.MotionProfileGenerator
+import com.acmerobotics.roadrunner.profile.MotionState
+import com.acmerobotics.roadrunner.profile.SimpleMotionConstraints
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import java.util.concurrent.TimeUnit
+import kotlin.math.sin
+
+/**
+ * Measures how dynamic profile generation scales with the constraint sampling resolution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class MotionProfileGeneratorBenchmark {
+    @Param("0.25", "0.1", "0.05", "0.025", "0.01")
+    var resolution: Double = 0.25
+
+    // cheap analytic constraints so the timings reflect the passes and merge rather than constraint evaluation
+    private val constraints = object : MotionConstraints() {
+        override fun get(s: Double) = SimpleMotionConstraints(30.0 + 20.0 * sin(s / 10.0), 40.0)
+    }
+
+    @Benchmark
+    fun generateMotionProfile() = MotionProfileGenerator.generateMotionProfile(
+        MotionState(0.0, 0.0, 0.0),
+        MotionState(120.0, 0.0, 0.0),
+        constraints,
+        resolution
+    )
+}
@@ -0,0 +1,93 @@
+package com.acmerobotics.roadrunner
+
+import com.acmerobotics.roadrunner.geometry.Pose2d
+import com.acmerobotics.roadrunner.geometry.Vector2d
+import com.acmerobotics.roadrunner.path.Path
+import com.acmerobotics.roadrunner.path.PathBuilder
+import com.acmerobotics.roadrunner.path.PathSegment
+import com.acmerobotics.roadrunner.util.DoubleProgression
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import org.openjdk.jmh.infra.Blackhole
+import java.util.concurrent.TimeUnit
+
+/**
+ * Compares indexed [Path] segment lookups against the original linear segment walk on paths with a varying number of
+ * spline segments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class PathBenchmark {
+    @Param("1", "8", "32")
+    private var segments = 0
+
+    private lateinit var path: Path
+    private lateinit var s: DoubleProgression
+
+    @Setup
+    fun setup() {
+        val builder = PathBuilder(Pose2d())
+        for (i in 1..segments) {
+            builder.splineTo(Vector2d(24.0 * i, if (i % 2 == 0) 0.0 else 24.0), 0.0)
+        }
+        path = builder.build()
+        s = DoubleProgression.fromClosedInterval(0.0, path.length(), 1000)
+    }
+
+    // the pre-index implementation of Path.segment()
+    private fun linearSegment(s: Double): Pair<PathSegment, Double> {
+        if (s <= 0.0) {
+            return path.segments.first() to 0.0
+        }
+        var remainingDisplacement = s
+        for (segment in path.segments) {
+            if (remainingDisplacement <= segment.length()) {
+                return segment to remainingDisplacement
+            }
+            remainingDisplacement -= segment.length()
+        }
+        return path.segments.last() to path.segments.last().length()
+    }
+
+    @Benchmark
+    fun indexedSequentialGet(blackhole: Blackhole) {
+        for (i in 0 until s.size()) {
+            blackhole.consume(path[s[i]])
+        }
+    }
+
+    @Benchmark
+    fun indexedRandomGet(blackhole: Blackhole) {
+        // strided to defeat the last segment hint
+        for (i in 0 until s.size()) {
+            blackhole.consume(path[s[(i * 389) % s.size()]])
+        }
+    }
+
+    @Benchmark
+    fun linearGet(blackhole: Blackhole) {
+        for (i in 0 until s.size()) {
+            val (segment, displacement) = linearSegment(s[i])
+            blackhole.consume(segment[displacement])
+        }
+    }
+
+    @Benchmark
+    fun indexedLength() = path.length()
+
+    @Benchmark
+    fun linearLength() = path.segments.sumByDouble { it.length() }
+}
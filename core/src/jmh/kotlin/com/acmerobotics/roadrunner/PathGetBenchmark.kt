@@ -0,0 +1,68 @@
+package com.acmerobotics.roadrunner
+
+import com.acmerobotics.roadrunner.path.Path
+import com.acmerobotics.roadrunner.path.PathSegment
+import com.acmerobotics.roadrunner.path.QuinticSpline
+import com.acmerobotics.roadrunner.util.DoubleProgression
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import org.openjdk.jmh.infra.Blackhole
+import java.util.concurrent.TimeUnit
+
+/**
+ * Compares [Path.get] throughput with the recursive, quadrature and Chebyshev spline parameterizations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class PathGetBenchmark {
+    @Param("recursive", "quadrature", "chebyshev")
+    private var parameterization = ""
+
+    private lateinit var path: Path
+    private lateinit var s: DoubleProgression
+
+    @Setup
+    fun setup() {
+        val knots = doubleArrayOf(
+            0.0, 0.0, 40.0, 0.0, 0.0, 0.0,
+            30.0, 30.0, 0.0, 40.0, 0.0, 0.0,
+            0.0, 60.0, -40.0, 0.0, 0.0, 0.0,
+            -30.0, 30.0, 0.0, -40.0, 0.0, 0.0
+        )
+        val splines = when (parameterization) {
+            "quadrature" -> QuinticSpline.fromKnots(knots, arcLengthTolerance = 1e-6)
+            "chebyshev" -> QuinticSpline.fromKnots(knots, chebyshevTolerance = 1e-6)
+            else -> QuinticSpline.fromKnots(knots)
+        }
+        path = Path(splines.map { PathSegment(it) })
+        s = DoubleProgression.fromClosedInterval(0.0, path.length(), 1000)
+    }
+
+    @Benchmark
+    fun get(blackhole: Blackhole) {
+        // strided to avoid sequential access patterns
+        for (i in 0 until s.size()) {
+            blackhole.consume(path[s[(i * 389) % s.size()]])
+        }
+    }
+
+    @Benchmark
+    fun reparam(blackhole: Blackhole) {
+        for (i in 0 until s.size()) {
+            blackhole.consume(path.reparam(s[(i * 389) % s.size()]))
+        }
+    }
+}
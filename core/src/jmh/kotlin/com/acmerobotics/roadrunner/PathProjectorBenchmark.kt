@@ -0,0 +1,73 @@
+package com.acmerobotics.roadrunner
+
+import com.acmerobotics.roadrunner.geometry.Pose2d
+import com.acmerobotics.roadrunner.geometry.Vector2d
+import com.acmerobotics.roadrunner.path.Path
+import com.acmerobotics.roadrunner.path.PathBuilder
+import com.acmerobotics.roadrunner.path.PathProjector
+import com.acmerobotics.roadrunner.util.DoubleProgression
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import java.util.concurrent.TimeUnit
+import kotlin.math.PI
+import kotlin.math.roundToInt
+
+/**
+ * Compares [PathProjector] queries against the original guess-based [Path.project] on a path that doubles back on
+ * itself (globally and warm started like [com.acmerobotics.roadrunner.followers.GVFFollower]) and measures the cost
+ * of building the index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class PathProjectorBenchmark {
+    private val path = PathBuilder(Pose2d())
+        .splineTo(Vector2d(40.0, 20.0), PI / 2)
+        .splineTo(Vector2d(0.0, 40.0), PI)
+        .splineTo(Vector2d(40.0, 60.0), 0.0)
+        .build()
+
+    private val queryPoint = Vector2d(24.0, 30.0)
+
+    @Setup
+    fun setup() {
+        path.projector
+    }
+
+    // the pre-index implementation of Path.project()
+    private fun guessProject(queryPoint: Vector2d, ds: Double = 0.25): Double {
+        val samples = (path.length() / ds).roundToInt()
+
+        val guesses = DoubleProgression.fromClosedInterval(0.0, path.length(), samples)
+
+        val results = guesses.map { path.fastProject(queryPoint, it) }
+
+        return results.minBy { path[it].vec().distTo(queryPoint) } ?: 0.0
+    }
+
+    @Benchmark
+    fun indexedProject() = path.projector.project(queryPoint)
+
+    @Benchmark
+    fun guessProject() = guessProject(queryPoint)
+
+    @Benchmark
+    fun warmStartedProject() = path.projector.projectNear(queryPoint, 60.0, 6.0, 8)
+
+    @Benchmark
+    fun fastProject() = path.fastProject(queryPoint, 60.0)
+
+    @Benchmark
+    fun buildIndex() = PathProjector(path)
+}
@@ -0,0 +1,109 @@
+package com.acmerobotics.roadrunner
+
+import com.acmerobotics.roadrunner.path.QuinticPolynomial
+import com.acmerobotics.roadrunner.path.QuinticSpline
+import org.apache.commons.math3.linear.LUDecomposition
+import org.apache.commons.math3.linear.MatrixUtils
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import org.openjdk.jmh.infra.Blackhole
+import java.util.concurrent.TimeUnit
+import kotlin.random.Random
+
+/**
+ * Measures the throughput of building many quintic splines: polynomial fitting with the original LU solve against the
+ * closed form, and complete splines from [QuinticSpline.Knot]s against [QuinticSpline.fromKnots].
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class QuinticSplineBatchBenchmark {
+    @Param("1000", "100000")
+    private var splines = 0
+
+    private lateinit var starts: DoubleArray
+    private lateinit var ends: DoubleArray
+
+    private val coeffMatrix = MatrixUtils.createRealMatrix(arrayOf(
+        doubleArrayOf(0.0, 0.0, 0.0, 0.0, 0.0, 1.0),
+        doubleArrayOf(0.0, 0.0, 0.0, 0.0, 1.0, 0.0),
+        doubleArrayOf(0.0, 0.0, 0.0, 2.0, 0.0, 0.0),
+        doubleArrayOf(1.0, 1.0, 1.0, 1.0, 1.0, 1.0),
+        doubleArrayOf(5.0, 4.0, 3.0, 2.0, 1.0, 0.0),
+        doubleArrayOf(20.0, 12.0, 6.0, 2.0, 0.0, 0.0)
+    ))
+
+    @Setup
+    fun setup() {
+        val random = Random(0)
+        starts = DoubleArray(6 * splines) { random.nextDouble(-72.0, 72.0) }
+        ends = DoubleArray(6 * splines) { random.nextDouble(-72.0, 72.0) }
+    }
+
+    // the pre-closed-form implementation of the QuinticPolynomial constructor
+    @Suppress("LongParameterList")
+    private fun luCoefficients(start: Double, startDeriv: Double, startSecondDeriv: Double, end: Double,
+                               endDeriv: Double, endSecondDeriv: Double) =
+        LUDecomposition(coeffMatrix).solver.solve(MatrixUtils.createRealMatrix(arrayOf(doubleArrayOf(
+            start, startDeriv, startSecondDeriv, end, endDeriv, endSecondDeriv
+        ))).transpose())
+
+    @Benchmark
+    fun luPolynomials(blackhole: Blackhole) {
+        for (i in 0 until splines) {
+            val k = 6 * i
+            blackhole.consume(luCoefficients(
+                starts[k], starts[k + 2], starts[k + 4], ends[k], ends[k + 2], ends[k + 4]
+            ))
+            blackhole.consume(luCoefficients(
+                starts[k + 1], starts[k + 3], starts[k + 5], ends[k + 1], ends[k + 3], ends[k + 5]
+            ))
+        }
+    }
+
+    @Benchmark
+    fun closedFormPolynomials(blackhole: Blackhole) {
+        for (i in 0 until splines) {
+            val k = 6 * i
+            blackhole.consume(QuinticPolynomial(
+                starts[k], starts[k + 2], starts[k + 4], ends[k], ends[k + 2], ends[k + 4]
+            ))
+            blackhole.consume(QuinticPolynomial(
+                starts[k + 1], starts[k + 3], starts[k + 5], ends[k + 1], ends[k + 3], ends[k + 5]
+            ))
+        }
+    }
+
+    @Benchmark
+    fun knotSplines(blackhole: Blackhole) {
+        for (i in 0 until splines) {
+            val k = 6 * i
+            blackhole.consume(QuinticSpline(
+                QuinticSpline.Knot(
+                    starts[k], starts[k + 1], starts[k + 2], starts[k + 3], starts[k + 4], starts[k + 5]
+                ),
+                QuinticSpline.Knot(ends[k], ends[k + 1], ends[k + 2], ends[k + 3], ends[k + 4], ends[k + 5]),
+                arcLengthTolerance = 1e-3
+            ).length())
+        }
+    }
+
+    @Benchmark
+    fun batchSplines(blackhole: Blackhole) {
+        for (spline in QuinticSpline.fromKnots(starts, ends, arcLengthTolerance = 1e-3)) {
+            blackhole.consume(spline.length())
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.acmerobotics.roadrunner
+
+import com.acmerobotics.roadrunner.path.QuinticSpline
+import com.acmerobotics.roadrunner.util.DoubleProgression
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import org.openjdk.jmh.infra.Blackhole
+import java.util.concurrent.TimeUnit
+
+/**
+ * Compares the Gauss-Legendre quadrature parameterization of [QuinticSpline] (at [tolerance]) against the recursive
+ * approximation in construction time (including the lazy parameterization) and [QuinticSpline.reparam] throughput
+ * and measures endpoint queries on fresh splines (which skip the parameterization).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class QuinticSplineBenchmark {
+    @Param("1e-3", "1e-6")
+    private var tolerance = 0.0
+
+    private val start = QuinticSpline.Knot(0.0, 0.0, 20.0, 40.0)
+    private val end = QuinticSpline.Knot(45.0, 35.0, 60.0, 10.0)
+
+    private lateinit var recursive: QuinticSpline
+    private lateinit var quadrature: QuinticSpline
+    private lateinit var s: DoubleProgression
+
+    @Setup
+    fun setup() {
+        recursive = QuinticSpline(start, end)
+        quadrature = QuinticSpline(start, end, arcLengthTolerance = tolerance)
+        s = DoubleProgression.fromClosedInterval(0.0, recursive.length(), 100)
+    }
+
+    @Benchmark
+    fun recursiveConstruction() = QuinticSpline(start, end).length()
+
+    @Benchmark
+    fun endpointQuery() = QuinticSpline(start, end).endDeriv()
+
+    @Benchmark
+    fun quadratureConstruction() = QuinticSpline(start, end, arcLengthTolerance = tolerance).length()
+
+    @Benchmark
+    fun recursiveReparam(blackhole: Blackhole) {
+        for (i in 0 until s.size()) {
+            blackhole.consume(recursive.reparam(s[i]))
+        }
+    }
+
+    @Benchmark
+    fun quadratureReparam(blackhole: Blackhole) {
+        for (i in 0 until s.size()) {
+            blackhole.consume(quadrature.reparam(s[i]))
+        }
+    }
+
+    @Benchmark
+    fun recursiveBatchReparam() = recursive.reparam(s)
+
+    @Benchmark
+    fun quadratureBatchReparam() = quadrature.reparam(s)
+}
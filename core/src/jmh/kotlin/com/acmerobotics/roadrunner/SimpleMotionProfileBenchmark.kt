@@ -0,0 +1,68 @@
+package com.acmerobotics.roadrunner
+
+import com.acmerobotics.roadrunner.profile.MotionProfile
+import com.acmerobotics.roadrunner.profile.MotionProfileCache
+import com.acmerobotics.roadrunner.profile.MotionProfileGenerator
+import com.acmerobotics.roadrunner.profile.MotionState
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import java.util.concurrent.TimeUnit
+
+/**
+ * Measures jerk-limited simple profile generation, including the peak velocity solve for moves too short to reach max
+ * velocity (e.g., the turns in `SampleMecanumDrive`). Sample mode reports the percentiles so the worst case (p1.0) is
+ * visible alongside the mean. [cachedTurn] measures the same turns served from a [MotionProfileCache].
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class SimpleMotionProfileBenchmark {
+    // displacement in rad; only the largest reaches max velocity
+    @Param("0.01", "0.1", "0.5", "1.5", "3.14", "10.0")
+    var distance: Double = 0.0
+
+    @Benchmark
+    fun turn() = MotionProfileGenerator.generateSimpleMotionProfile(
+        MotionState(0.0, 0.0, 0.0, 0.0),
+        MotionState(distance, 0.0, 0.0, 0.0),
+        Math.toRadians(180.0),
+        Math.toRadians(180.0),
+        Math.toRadians(720.0)
+    )
+
+    private val cache = MotionProfileCache()
+    private var heading = 0.0
+
+    @Benchmark
+    fun cachedTurn(): MotionProfile {
+        // a new start heading each time so the cached profile has to be shifted
+        heading += 0.1
+        return cache.generateSimpleMotionProfile(
+            MotionState(heading, 0.0, 0.0, 0.0),
+            MotionState(heading + distance, 0.0, 0.0, 0.0),
+            Math.toRadians(180.0),
+            Math.toRadians(180.0),
+            Math.toRadians(720.0)
+        )
+    }
+
+    @Benchmark
+    fun movingStart() = MotionProfileGenerator.generateSimpleMotionProfile(
+        MotionState(0.0, 1.0, 0.5, 0.0),
+        MotionState(distance, 0.0, 0.0, 0.0),
+        Math.toRadians(180.0),
+        Math.toRadians(180.0),
+        Math.toRadians(720.0)
+    )
+}
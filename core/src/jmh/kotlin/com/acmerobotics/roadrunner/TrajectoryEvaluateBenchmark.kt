@@ -0,0 +1,80 @@
+package com.acmerobotics.roadrunner
+
+import com.acmerobotics.roadrunner.geometry.Pose2d
+import com.acmerobotics.roadrunner.trajectory.BakedTrajectory
+import com.acmerobotics.roadrunner.trajectory.Trajectory
+import com.acmerobotics.roadrunner.trajectory.TrajectoryBuilder
+import com.acmerobotics.roadrunner.trajectory.TrajectoryState
+import com.acmerobotics.roadrunner.trajectory.constraints.DriveConstraints
+import com.acmerobotics.roadrunner.util.DoubleProgression
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import org.openjdk.jmh.infra.Blackhole
+import java.util.concurrent.TimeUnit
+import kotlin.math.PI
+
+/**
+ * Compares the fused [Trajectory.evaluate] against separate [Trajectory.get], [Trajectory.velocity], and
+ * [Trajectory.acceleration] calls (i.e., one follower update each) on a three segment trajectory and against
+ * [BakedTrajectory.evaluate] on the same trajectory baked at 5 ms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class TrajectoryEvaluateBenchmark {
+    private lateinit var trajectory: Trajectory
+    private lateinit var baked: BakedTrajectory
+    private lateinit var times: DoubleProgression
+    private val state = TrajectoryState()
+
+    @Setup
+    fun setup() {
+        trajectory = TrajectoryBuilder(Pose2d(), constraints = DriveConstraints(30.0, 30.0, 0.0, PI, PI, 0.0))
+            .splineToSplineHeading(Pose2d(30.0, 20.0, PI / 4), 0.0)
+            .splineToSplineHeading(Pose2d(50.0, 40.0, PI / 2), PI / 2)
+            .splineToSplineHeading(Pose2d(70.0, 60.0, PI), 0.0)
+            .build()
+        baked = trajectory.bake(0.005)
+        times = DoubleProgression.fromClosedInterval(0.0, trajectory.duration(), 100)
+    }
+
+    @Benchmark
+    fun separate(blackhole: Blackhole) {
+        for (i in 0 until times.size()) {
+            val t = times[i]
+            blackhole.consume(trajectory[t])
+            blackhole.consume(trajectory.velocity(t))
+            blackhole.consume(trajectory.acceleration(t))
+        }
+    }
+
+    @Benchmark
+    fun fused(blackhole: Blackhole) {
+        for (i in 0 until times.size()) {
+            blackhole.consume(trajectory.evaluate(times[i], state))
+        }
+    }
+
+    @Benchmark
+    fun baked(blackhole: Blackhole) {
+        for (i in 0 until times.size()) {
+            blackhole.consume(baked.evaluate(times[i], state))
+        }
+    }
+
+    @Benchmark
+    fun bake(blackhole: Blackhole) {
+        blackhole.consume(trajectory.bake(0.005))
+    }
+}
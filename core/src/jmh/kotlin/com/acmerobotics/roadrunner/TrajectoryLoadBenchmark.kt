@@ -0,0 +1,82 @@
+package com.acmerobotics.roadrunner
+
+import com.acmerobotics.roadrunner.geometry.Pose2d
+import com.acmerobotics.roadrunner.geometry.Vector2d
+import com.acmerobotics.roadrunner.trajectory.config.TrajectoryBinaryManager
+import com.acmerobotics.roadrunner.trajectory.config.TrajectoryConfig
+import com.acmerobotics.roadrunner.trajectory.config.TrajectoryConfig.HeadingInterpolationType
+import com.acmerobotics.roadrunner.trajectory.config.TrajectoryConfig.Waypoint
+import com.acmerobotics.roadrunner.trajectory.config.TrajectoryConfigManager
+import com.acmerobotics.roadrunner.trajectory.config.TrajectoryGroupConfig
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import org.openjdk.jmh.annotations.Warmup
+import org.openjdk.jmh.infra.Blackhole
+import java.io.File
+import java.util.concurrent.TimeUnit
+import kotlin.math.PI
+
+/**
+ * Compares loading a four spline trajectory from YAML (parsing the config and generating the trajectory) against
+ * loading the same trajectory from the binary format (memory-mapped or from an input stream).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class TrajectoryLoadBenchmark {
+    private lateinit var dir: File
+    private lateinit var yamlFile: File
+    private lateinit var binaryFile: File
+
+    @Setup
+    fun setup() {
+        dir = createTempDir()
+        val groupConfig = TrajectoryGroupConfig(
+            30.0, 30.0, PI, PI, 18.0, 18.0, TrajectoryGroupConfig.DriveType.MECANUM, 15.0, null, 1.0
+        )
+        val config = TrajectoryConfig(Pose2d(), 0.0, listOf(
+            Waypoint(Vector2d(30.0, 20.0), 0.0, 0.0, HeadingInterpolationType.TANGENT),
+            Waypoint(Vector2d(50.0, 40.0), 0.0, PI / 2, HeadingInterpolationType.TANGENT),
+            Waypoint(Vector2d(30.0, 60.0), 0.0, PI, HeadingInterpolationType.TANGENT),
+            Waypoint(Vector2d(0.0, 40.0), 0.0, -PI / 2, HeadingInterpolationType.TANGENT)
+        ), 0.25)
+        TrajectoryConfigManager.saveGroupConfig(groupConfig, dir)
+        yamlFile = File(dir, "benchmark.yaml")
+        TrajectoryConfigManager.saveConfig(config, yamlFile)
+
+        binaryFile = File(dir, "benchmark" + TrajectoryBinaryManager.FILE_EXTENSION)
+        TrajectoryBinaryManager.save(config.toTrajectory(groupConfig)!!, binaryFile)
+    }
+
+    @TearDown
+    fun tearDown() {
+        dir.deleteRecursively()
+    }
+
+    @Benchmark
+    fun yaml(blackhole: Blackhole) {
+        val config = TrajectoryConfigManager.loadConfig(yamlFile)!!
+        blackhole.consume(config.toTrajectory(TrajectoryConfigManager.loadGroupConfig(dir)!!))
+    }
+
+    @Benchmark
+    fun binaryMapped(blackhole: Blackhole) {
+        blackhole.consume(TrajectoryBinaryManager.load(binaryFile))
+    }
+
+    @Benchmark
+    fun binaryStream(blackhole: Blackhole) {
+        blackhole.consume(binaryFile.inputStream().use { TrajectoryBinaryManager.load(it) })
+    }
+}
@@ -4,10 +4,14 @@ import com.acmerobotics.roadrunner.drive.DriveSignal
 import com.acmerobotics.roadrunner.geometry.Pose2d
 import com.acmerobotics.roadrunner.kinematics.Kinematics
 import com.acmerobotics.roadrunner.path.Path
+import com.acmerobotics.roadrunner.path.PathProjector
 import com.acmerobotics.roadrunner.profile.SimpleMotionConstraints
 import com.acmerobotics.roadrunner.util.Angle
+import com.acmerobotics.roadrunner.util.BackgroundExecutor
 import com.acmerobotics.roadrunner.util.GuidingVectorField
+import com.acmerobotics.roadrunner.util.GuidingVectorFieldGrid
 import com.acmerobotics.roadrunner.util.NanoClock
+import java.util.concurrent.Executor
 import kotlin.math.atan2
 import kotlin.math.sqrt
 
@@ -20,14 +24,24 @@ import kotlin.math.sqrt
  * @param kOmega proportional heading gain
  * @param errorMapFunc error map function (see [GuidingVectorField])
  * @param clock clock
+ * @param trustRadius maximum change in projected displacement per update before falling back to a global projection
+ * (see [PathProjector.projectNear])
+ * @param maxProjectIterations maximum number of projection iterations per update
+ * @param gridCellSize if positive, [precompute] also samples the vector field over the field with this cell size and
+ * poses on the field are looked up in the grid when the surrounding nodes are consistent with the last projection (see
+ * [GuidingVectorFieldGrid.getExtendedNear])
  */
+@Suppress("LongParameterList")
 class GVFFollower @JvmOverloads constructor(
     private val constraints: SimpleMotionConstraints,
     admissibleError: Pose2d,
     private val kN: Double,
     private val kOmega: Double,
     private val errorMapFunc: (Double) -> Double = { it },
-    clock: NanoClock = NanoClock.system()
+    clock: NanoClock = NanoClock.system(),
+    private val trustRadius: Double = 6.0,
+    private val maxProjectIterations: Int = 8,
+    private val gridCellSize: Double = 0.0
 ) : PathFollower(admissibleError, clock) {
     private lateinit var gvf: GuidingVectorField
     private var lastUpdateTimestamp: Double = 0.0
@@ -36,16 +50,68 @@ class GVFFollower @JvmOverloads constructor(
 
     override var lastError: Pose2d = Pose2d()
 
+    /**
+     * Projection of the most recent update (with its iteration count and residual) or null if the grid answered it
+     * (see [GuidingVectorFieldGrid.getExtendedNear]).
+     */
+    var lastProjection: PathProjector.Projection? = null
+        private set
+
+    /**
+     * Number of updates of the current path that fell back to a global projection.
+     */
+    var projectionFallbacks: Int = 0
+        private set
+
+    /**
+     * Returns the vector field of [path] for [followPath] with the grid sampled on the calling thread and [executor]
+     * if [gridCellSize] is positive. Building the grid takes a while, so call this during init rather than when the
+     * path should start.
+     */
+    @JvmOverloads
+    fun precompute(path: Path, executor: Executor = BackgroundExecutor): GuidingVectorField {
+        val gvf = GuidingVectorField(path, kN, errorMapFunc)
+        if (gridCellSize > 0.0) {
+            gvf.precompute(cellSize = gridCellSize, executor = executor)
+        }
+        return gvf
+    }
+
+    /**
+     * Follow the given [path] with its vector field computed on demand (without a grid).
+     */
     override fun followPath(path: Path) {
-        gvf = GuidingVectorField(path, kN, errorMapFunc)
+        followPath(GuidingVectorField(path, kN, errorMapFunc))
+    }
+
+    /**
+     * Follow the path of [gvf] (e.g., a field returned by [precompute]).
+     */
+    fun followPath(gvf: GuidingVectorField) {
+        this.gvf = gvf
         lastUpdateTimestamp = clock.seconds()
         lastVel = 0.0
         lastProjDisplacement = 0.0
-        super.followPath(path)
+        lastProjection = null
+        projectionFallbacks = 0
+        super.followPath(gvf.path)
     }
 
     override fun internalUpdate(currentPose: Pose2d): DriveSignal {
-        val gvfResult = gvf.getExtended(currentPose.x, currentPose.y, lastProjDisplacement)
+        // the grid only answers when its nodes agree with each other and with the last projection
+        val gridResult = gvf.grid?.getExtendedNear(currentPose.x, currentPose.y, lastProjDisplacement, trustRadius)
+        val gvfResult = if (gridResult != null) {
+            lastProjection = null
+            gridResult
+        } else {
+            val point = currentPose.vec()
+            val projection = path.projector.projectNear(point, lastProjDisplacement, trustRadius, maxProjectIterations)
+            if (projection.fallback) {
+                projectionFallbacks++
+            }
+            lastProjection = projection
+            gvf.getExtended(point, projection.displacement)
+        }
 
         val desiredHeading = atan2(gvfResult.vector.y, gvfResult.vector.x)
         val headingError = Angle.normDelta(desiredHeading - currentPose.heading)
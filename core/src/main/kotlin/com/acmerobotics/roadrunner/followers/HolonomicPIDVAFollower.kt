@@ -3,9 +3,11 @@ package com.acmerobotics.roadrunner.followers
 import com.acmerobotics.roadrunner.control.PIDCoefficients
 import com.acmerobotics.roadrunner.control.PIDFController
 import com.acmerobotics.roadrunner.drive.DriveSignal
+import com.acmerobotics.roadrunner.geometry.MutablePose2d
 import com.acmerobotics.roadrunner.geometry.Pose2d
 import com.acmerobotics.roadrunner.kinematics.Kinematics
 import com.acmerobotics.roadrunner.trajectory.Trajectory
+import com.acmerobotics.roadrunner.trajectory.TrajectoryState
 import com.acmerobotics.roadrunner.util.NanoClock
 
 /**
@@ -34,6 +36,13 @@ class HolonomicPIDVAFollower @JvmOverloads constructor(
 
     override var lastError: Pose2d = Pose2d()
 
+    // scratch values reused by every update
+    private val target = TrajectoryState()
+    private val current = MutablePose2d()
+    private val targetRobotVel = MutablePose2d()
+    private val targetRobotAccel = MutablePose2d()
+    private val poseError = MutablePose2d()
+
     init {
         headingController.setInputBounds(-Math.PI, Math.PI)
     }
@@ -49,14 +58,13 @@ class HolonomicPIDVAFollower @JvmOverloads constructor(
     override fun internalUpdate(currentPose: Pose2d, currentRobotVel: Pose2d?): DriveSignal {
         val t = elapsedTime()
 
-        val targetPose = trajectory[t]
-        val targetVel = trajectory.velocity(t)
-        val targetAccel = trajectory.acceleration(t)
+        evaluate(t, target)
+        current.set(currentPose)
 
-        val targetRobotVel = Kinematics.fieldToRobotVelocity(targetPose, targetVel)
-        val targetRobotAccel = Kinematics.fieldToRobotAcceleration(targetPose, targetVel, targetAccel)
+        Kinematics.fieldToRobotVelocity(target.pose, target.velocity, targetRobotVel)
+        Kinematics.fieldToRobotAcceleration(target.pose, target.velocity, target.acceleration, targetRobotAccel)
 
-        val poseError = Kinematics.calculatePoseError(targetPose, currentPose)
+        Kinematics.calculatePoseError(target.pose, current, poseError)
 
         // you can pass the error directly to PIDFController by setting setpoint = error and measurement = 0
         axialController.targetPosition = poseError.x
@@ -72,14 +80,14 @@ class HolonomicPIDVAFollower @JvmOverloads constructor(
         val lateralCorrection = lateralController.update(0.0, currentRobotVel?.y)
         val headingCorrection = headingController.update(0.0, currentRobotVel?.heading)
 
-        val correctedVelocity = targetRobotVel + Pose2d(
-            axialCorrection,
-            lateralCorrection,
-            headingCorrection
+        val correctedVelocity = Pose2d(
+            targetRobotVel.x + axialCorrection,
+            targetRobotVel.y + lateralCorrection,
+            targetRobotVel.heading + headingCorrection
         )
 
-        lastError = poseError
+        lastError = poseError.toPose()
 
-        return DriveSignal(correctedVelocity, targetRobotAccel)
+        return DriveSignal(correctedVelocity, targetRobotAccel.toPose())
     }
 }
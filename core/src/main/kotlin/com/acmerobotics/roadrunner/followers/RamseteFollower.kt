@@ -1,8 +1,10 @@
 package com.acmerobotics.roadrunner.followers
 
 import com.acmerobotics.roadrunner.drive.DriveSignal
+import com.acmerobotics.roadrunner.geometry.MutablePose2d
 import com.acmerobotics.roadrunner.geometry.Pose2d
 import com.acmerobotics.roadrunner.kinematics.Kinematics
+import com.acmerobotics.roadrunner.trajectory.TrajectoryState
 import com.acmerobotics.roadrunner.util.NanoClock
 import com.acmerobotics.roadrunner.util.epsilonEquals
 import kotlin.math.cos
@@ -28,6 +30,12 @@ class RamseteFollower @JvmOverloads constructor(
 ) : TrajectoryFollower(admissibleError, timeout, clock) {
     override var lastError: Pose2d = Pose2d()
 
+    // scratch values reused by every update
+    private val target = TrajectoryState()
+    private val current = MutablePose2d()
+    private val targetRobotVel = MutablePose2d()
+    private val error = MutablePose2d()
+
     private fun sinc(x: Double) =
         if (x epsilonEquals 0.0) {
             1.0 - x * x / 6.0
@@ -38,16 +46,16 @@ class RamseteFollower @JvmOverloads constructor(
     override fun internalUpdate(currentPose: Pose2d, currentRobotVel: Pose2d?): DriveSignal {
         val t = elapsedTime()
 
-        val targetPose = trajectory[t]
-        val targetVel = trajectory.velocity(t)
+        evaluate(t, target)
+        current.set(currentPose)
 
-        val targetRobotVel = Kinematics.fieldToRobotVelocity(targetPose, targetVel)
+        Kinematics.fieldToRobotVelocity(target.pose, target.velocity, targetRobotVel)
 
         val targetV = targetRobotVel.x
         val targetOmega = targetRobotVel.heading
 
         // note: Ramsete operates on the "raw" field error, not the one returned by Kinematics.calculatePoseError()
-        val error = targetPose - currentPose
+        error.set(target.pose).sub(current)
 
         val k1 = 2 * zeta * sqrt(targetOmega * targetOmega + b * targetV * targetV)
         val k3 = k1
@@ -59,7 +67,7 @@ class RamseteFollower @JvmOverloads constructor(
                 (cos(currentPose.heading) * error.y - sin(currentPose.heading) * error.x) +
                 k3 * error.heading
 
-        lastError = error
+        lastError = error.toPose()
 
         // TODO: is Ramsete acceleration FF worth?
         return DriveSignal(Pose2d(v, 0.0, omega))
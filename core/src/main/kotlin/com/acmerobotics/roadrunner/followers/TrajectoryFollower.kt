@@ -2,8 +2,11 @@ package com.acmerobotics.roadrunner.followers
 
 import com.acmerobotics.roadrunner.drive.DriveSignal
 import com.acmerobotics.roadrunner.geometry.Pose2d
+import com.acmerobotics.roadrunner.trajectory.BakedTrajectory
 import com.acmerobotics.roadrunner.trajectory.Trajectory
 import com.acmerobotics.roadrunner.trajectory.TrajectoryMarker
+import com.acmerobotics.roadrunner.trajectory.TrajectoryState
+import com.acmerobotics.roadrunner.trajectory.TrajectoryStream
 import com.acmerobotics.roadrunner.util.Angle
 import com.acmerobotics.roadrunner.util.NanoClock
 import kotlin.math.abs
@@ -24,6 +27,9 @@ abstract class TrajectoryFollower @JvmOverloads constructor(
     private var admissible = false
     private var remainingMarkers = mutableListOf<TrajectoryMarker>()
     private var executedFinalUpdate = false
+    private var stream: TrajectoryStream? = null
+    private var pausedTime = 0.0
+    private var nextBakedMarker = 0
 
     /**
      * Trajectory being followed if [isFollowing] is true.
@@ -31,6 +37,12 @@ abstract class TrajectoryFollower @JvmOverloads constructor(
     lateinit var trajectory: Trajectory
         protected set
 
+    /**
+     * Baked version of [trajectory] providing the reference if a [BakedTrajectory] is being followed.
+     */
+    var bakedTrajectory: BakedTrajectory? = null
+        private set
+
     /**
      * Robot pose error computed in the last [update] call.
      */
@@ -50,11 +62,56 @@ abstract class TrajectoryFollower @JvmOverloads constructor(
         remainingMarkers.sortBy { it.time }
 
         executedFinalUpdate = false
+        stream = null
+        pausedTime = 0.0
+        bakedTrajectory = null
+    }
+
+    /**
+     * Follow the given baked [trajectory]. The reference is interpolated from its samples instead of evaluating the
+     * path and profile every update and the markers run at their precomputed sample indices.
+     */
+    fun followTrajectory(trajectory: BakedTrajectory) {
+        followTrajectory(trajectory.trajectory)
+        remainingMarkers.clear()
+        bakedTrajectory = trajectory
+        nextBakedMarker = 0
+    }
+
+    /**
+     * Follow the trajectory generated by [stream], starting as soon as its first window is ready. The reference never
+     * passes the final part of the stream: if generation falls behind, the follower brakes to the end of the latest
+     * window and holds there (without advancing [elapsedTime]) until the rest is available. Markers are run once the
+     * whole trajectory is generated.
+     */
+    fun followTrajectory(stream: TrajectoryStream) {
+        val snapshot = stream.poll(0.0)
+        followTrajectory(snapshot.trajectory)
+        if (!snapshot.complete) {
+            this.stream = stream
+        }
+    }
+
+    private fun updateStream(stream: TrajectoryStream) {
+        val snapshot = stream.poll(elapsedTime())
+        if (snapshot.trajectory !== trajectory) {
+            trajectory = snapshot.trajectory
+            remainingMarkers.addAll(trajectory.markers)
+            remainingMarkers.sortBy { it.time }
+        }
+        if (snapshot.complete) {
+            this.stream = null
+        } else {
+            val overrun = elapsedTime() - trajectory.duration()
+            if (overrun > 0.0) {
+                pausedTime += overrun
+            }
+        }
     }
 
     private fun internalIsFollowing(): Boolean {
         val timeRemaining = trajectory.duration() - elapsedTime()
-        return timeRemaining > 0 || (!admissible && timeRemaining > -timeout)
+        return stream != null || timeRemaining > 0 || (!admissible && timeRemaining > -timeout)
     }
 
     /**
@@ -63,9 +120,23 @@ abstract class TrajectoryFollower @JvmOverloads constructor(
     fun isFollowing() = !executedFinalUpdate || internalIsFollowing()
 
     /**
-     * Returns the elapsed time since the last [followTrajectory] call.
+     * Returns the elapsed time since the last [followTrajectory] call (excluding any time spent waiting for a
+     * [TrajectoryStream]).
      */
-    fun elapsedTime() = clock.seconds() - startTimestamp
+    fun elapsedTime() = clock.seconds() - startTimestamp - pausedTime
+
+    /**
+     * Writes the reference pose, velocity, and acceleration at [time] into [out] (from the baked trajectory if there is
+     * one) and returns [out].
+     */
+    protected fun evaluate(time: Double, out: TrajectoryState) =
+        bakedTrajectory?.evaluate(time, out) ?: trajectory.evaluate(time, out)
+
+    private fun runBakedMarkers(baked: BakedTrajectory, index: Int) {
+        while (nextBakedMarker < baked.markers.size && index >= baked.markerIndices[nextBakedMarker]) {
+            baked.markers[nextBakedMarker++].callback.onMarkerReached()
+        }
+    }
 
     /**
      * Run a single iteration of the trajectory follower.
@@ -75,11 +146,15 @@ abstract class TrajectoryFollower @JvmOverloads constructor(
      */
     @JvmOverloads
     fun update(currentPose: Pose2d, currentRobotVel: Pose2d? = null): DriveSignal {
+        stream?.let { updateStream(it) }
+
         while (remainingMarkers.size > 0 && elapsedTime() > remainingMarkers[0].time) {
             remainingMarkers.removeAt(0).callback.onMarkerReached()
         }
+        val baked = bakedTrajectory
+        baked?.let { runBakedMarkers(it, it.sampleIndex(elapsedTime())) }
 
-        val trajEndError = trajectory.end() - currentPose
+        val trajEndError = (baked?.end() ?: trajectory.end()) - currentPose
         admissible = abs(trajEndError.x) < admissibleError.x &&
                 abs(trajEndError.y) < admissibleError.y &&
                 abs(Angle.normDelta(trajEndError.heading)) < admissibleError.heading
@@ -90,6 +165,7 @@ abstract class TrajectoryFollower @JvmOverloads constructor(
                 marker.callback.onMarkerReached()
             }
             remainingMarkers.clear()
+            baked?.let { runBakedMarkers(it, Int.MAX_VALUE) }
             executedFinalUpdate = true
             DriveSignal()
         }
@@ -0,0 +1,48 @@
+package com.acmerobotics.roadrunner.geometry
+
+import com.acmerobotics.roadrunner.util.Angle
+import com.acmerobotics.roadrunner.util.epsilonEquals
+
+/**
+ * Mutable counterpart of [Pose2d] for allocation-free math in control loops. Operations modify the pose in place and
+ * return it to allow chaining.
+ */
+class MutablePose2d @JvmOverloads constructor(
+    var x: Double = 0.0,
+    var y: Double = 0.0,
+    var heading: Double = 0.0
+) {
+    constructor(pose: Pose2d) : this(pose.x, pose.y, pose.heading)
+
+    fun set(x: Double, y: Double, heading: Double): MutablePose2d {
+        this.x = x
+        this.y = y
+        this.heading = heading
+        return this
+    }
+
+    fun set(other: Pose2d) = set(other.x, other.y, other.heading)
+
+    fun set(other: MutablePose2d) = set(other.x, other.y, other.heading)
+
+    fun add(other: MutablePose2d) = set(x + other.x, y + other.y, heading + other.heading)
+
+    fun sub(other: MutablePose2d) = set(x - other.x, y - other.y, heading - other.heading)
+
+    fun scale(scalar: Double) = set(scalar * x, scalar * y, scalar * heading)
+
+    /**
+     * Writes the position into [out] and returns [out].
+     */
+    fun vec(out: MutableVector2d) = out.set(x, y)
+
+    fun toPose() = Pose2d(x, y, heading)
+
+    infix fun epsilonEquals(other: MutablePose2d) =
+        x epsilonEquals other.x && y epsilonEquals other.y && heading epsilonEquals other.heading
+
+    infix fun epsilonEqualsHeading(other: MutablePose2d) =
+        x epsilonEquals other.x && y epsilonEquals other.y && Angle.normDelta(heading - other.heading) epsilonEquals 0.0
+
+    override fun toString() = String.format("(%.3f, %.3f, %.3f°)", x, y, Math.toDegrees(heading))
+}
@@ -0,0 +1,50 @@
+package com.acmerobotics.roadrunner.geometry
+
+import com.acmerobotics.roadrunner.util.epsilonEquals
+import kotlin.math.cos
+import kotlin.math.sin
+import kotlin.math.sqrt
+
+/**
+ * Mutable counterpart of [Vector2d] for allocation-free math in control loops. Operations modify the vector in place
+ * and return it to allow chaining.
+ */
+class MutableVector2d @JvmOverloads constructor(
+    var x: Double = 0.0,
+    var y: Double = 0.0
+) {
+    constructor(vector: Vector2d) : this(vector.x, vector.y)
+
+    fun set(x: Double, y: Double): MutableVector2d {
+        this.x = x
+        this.y = y
+        return this
+    }
+
+    fun set(other: Vector2d) = set(other.x, other.y)
+
+    fun set(other: MutableVector2d) = set(other.x, other.y)
+
+    fun add(other: MutableVector2d) = set(x + other.x, y + other.y)
+
+    fun sub(other: MutableVector2d) = set(x - other.x, y - other.y)
+
+    fun scale(scalar: Double) = set(scalar * x, scalar * y)
+
+    fun rotate(angle: Double): MutableVector2d {
+        val cos = cos(angle)
+        val sin = sin(angle)
+        return set(x * cos - y * sin, x * sin + y * cos)
+    }
+
+    fun norm() = sqrt(x * x + y * y)
+
+    infix fun dot(other: MutableVector2d) = x * other.x + y * other.y
+
+    fun toVector() = Vector2d(x, y)
+
+    infix fun epsilonEquals(other: MutableVector2d) =
+        x epsilonEquals other.x && y epsilonEquals other.y
+
+    override fun toString() = String.format("(%.3f, %.3f)", x, y)
+}
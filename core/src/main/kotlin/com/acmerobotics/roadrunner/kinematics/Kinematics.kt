@@ -1,5 +1,6 @@
 package com.acmerobotics.roadrunner.kinematics
 
+import com.acmerobotics.roadrunner.geometry.MutablePose2d
 import com.acmerobotics.roadrunner.geometry.Pose2d
 import com.acmerobotics.roadrunner.geometry.Vector2d
 import com.acmerobotics.roadrunner.util.Angle
@@ -20,6 +21,21 @@ object Kinematics {
     fun fieldToRobotVelocity(fieldPose: Pose2d, fieldVel: Pose2d) =
         Pose2d(fieldVel.vec().rotated(-fieldPose.heading), fieldVel.heading)
 
+    /**
+     * Writes the robot pose velocity corresponding to [fieldPose] and [fieldVel] into [out] without allocating and
+     * returns [out] (which may alias either input).
+     */
+    @JvmStatic
+    fun fieldToRobotVelocity(fieldPose: MutablePose2d, fieldVel: MutablePose2d, out: MutablePose2d): MutablePose2d {
+        val cos = cos(fieldPose.heading)
+        val sin = sin(fieldPose.heading)
+        return out.set(
+            fieldVel.x * cos + fieldVel.y * sin,
+            -fieldVel.x * sin + fieldVel.y * cos,
+            fieldVel.heading
+        )
+    }
+
     /**
      * Returns the robot pose acceleration corresponding to [fieldPose], [fieldVel], and [fieldAccel].
      */
@@ -35,6 +51,27 @@ object Kinematics {
             0.0
         ) * fieldVel.heading
 
+    /**
+     * Writes the robot pose acceleration corresponding to [fieldPose], [fieldVel], and [fieldAccel] into [out] without
+     * allocating and returns [out] (which may alias any input).
+     */
+    @JvmStatic
+    fun fieldToRobotAcceleration(
+        fieldPose: MutablePose2d,
+        fieldVel: MutablePose2d,
+        fieldAccel: MutablePose2d,
+        out: MutablePose2d
+    ): MutablePose2d {
+        val cos = cos(fieldPose.heading)
+        val sin = sin(fieldPose.heading)
+        val omega = fieldVel.heading
+        return out.set(
+            fieldAccel.x * cos + fieldAccel.y * sin + (-fieldVel.x * sin + fieldVel.y * cos) * omega,
+            -fieldAccel.x * sin + fieldAccel.y * cos + (-fieldVel.x * cos - fieldVel.y * sin) * omega,
+            fieldAccel.heading
+        )
+    }
+
     /**
      * Returns the error between [targetFieldPose] and [currentFieldPose].
      */
@@ -45,6 +82,27 @@ object Kinematics {
             Angle.normDelta(targetFieldPose.heading - currentFieldPose.heading)
         )
 
+    /**
+     * Writes the error between [targetFieldPose] and [currentFieldPose] into [out] without allocating and returns [out]
+     * (which may alias either input).
+     */
+    @JvmStatic
+    fun calculatePoseError(
+        targetFieldPose: MutablePose2d,
+        currentFieldPose: MutablePose2d,
+        out: MutablePose2d
+    ): MutablePose2d {
+        val cos = cos(currentFieldPose.heading)
+        val sin = sin(currentFieldPose.heading)
+        val dx = targetFieldPose.x - currentFieldPose.x
+        val dy = targetFieldPose.y - currentFieldPose.y
+        return out.set(
+            dx * cos + dy * sin,
+            -dx * sin + dy * cos,
+            Angle.normDelta(targetFieldPose.heading - currentFieldPose.heading)
+        )
+    }
+
     /**
      * Computes the motor feedforward (i.e., open loop powers) for the given set of coefficients.
      */
@@ -98,4 +156,37 @@ object Kinematics {
             Angle.norm(fieldPose.heading + fieldPoseDelta.heading)
         )
     }
+
+    /**
+     * Performs a relative odometry update like [relativeOdometryUpdate], writing the new pose into [out] without
+     * allocating and returning [out] (which may alias either input).
+     */
+    @JvmStatic
+    fun relativeOdometryUpdate(
+        fieldPose: MutablePose2d,
+        robotPoseDelta: MutablePose2d,
+        out: MutablePose2d
+    ): MutablePose2d {
+        val dtheta = robotPoseDelta.heading
+        val sineTerm: Double
+        val cosTerm: Double
+        if (dtheta epsilonEquals 0.0) {
+            sineTerm = 1.0 - dtheta * dtheta / 6.0
+            cosTerm = dtheta / 2.0
+        } else {
+            sineTerm = sin(dtheta) / dtheta
+            cosTerm = (1 - cos(dtheta)) / dtheta
+        }
+
+        val deltaX = sineTerm * robotPoseDelta.x - cosTerm * robotPoseDelta.y
+        val deltaY = cosTerm * robotPoseDelta.x + sineTerm * robotPoseDelta.y
+
+        val cos = cos(fieldPose.heading)
+        val sin = sin(fieldPose.heading)
+        return out.set(
+            fieldPose.x + deltaX * cos - deltaY * sin,
+            fieldPose.y + deltaX * sin + deltaY * cos,
+            Angle.norm(fieldPose.heading + dtheta)
+        )
+    }
 }
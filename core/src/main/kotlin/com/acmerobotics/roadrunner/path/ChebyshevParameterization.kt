@@ -0,0 +1,265 @@
+package com.acmerobotics.roadrunner.path
+
+import com.acmerobotics.roadrunner.util.DoubleProgression
+import kotlin.math.PI
+import kotlin.math.abs
+import kotlin.math.ceil
+import kotlin.math.cos
+import kotlin.math.max
+import kotlin.math.min
+import kotlin.math.sqrt
+
+// arc length integrals use 5-point Gauss-Legendre quadrature on subintervals at most this wide in t
+private const val QUADRATURE_STEP = 1.0 / 64.0
+
+// deeper pieces would need a cell table of more than a million entries
+private const val MAX_DEPTH = 20
+
+private const val MAX_NEWTON_ITERATIONS = 50
+private const val NEWTON_TOLERANCE = 1e-12
+
+// 5-point Gauss-Legendre nodes and weights on [-1, 1]
+private val GAUSS_NODES = doubleArrayOf(
+    -0.9061798459386640, -0.5384693101056831, 0.0, 0.5384693101056831, 0.9061798459386640
+)
+private val GAUSS_WEIGHTS = doubleArrayOf(
+    0.2369268850561891, 0.4786286704993665, 0.5688888888888889, 0.4786286704993665, 0.2369268850561891
+)
+
+/**
+ * Arc length parameterization of the 2D curve `(x(t), y(t))` as a piecewise Chebyshev interpolant of t(s). Pieces
+ * start as the whole curve and are halved (in arc length) while the arc length error measured at the piece ends and
+ * midway between the interpolation nodes exceeds [tolerance], so they're only short where t(s) is hard to fit.
+ * Evaluating t(s) looks the piece up in a table over the shortest piece length followed by a polynomial evaluation, so
+ * it takes constant time. If a piece at [maxDepth] still misses the tolerance (e.g., t(s) behaves like the square root
+ * of s next to a stationary point of the curve), fitting stops and [converged] is false; the fit must not be used then.
+ *
+ * @param x x polynomial
+ * @param y y polynomial
+ * @param tolerance arc length accuracy target
+ * @param degree degree of the interpolant of each piece
+ * @param maxDepth maximum number of times a piece is halved
+ */
+internal class ChebyshevParameterization(
+    private val x: QuinticPolynomial,
+    private val y: QuinticPolynomial,
+    private val tolerance: Double,
+    private val degree: Int = 4,
+    private val maxDepth: Int = 10
+) {
+    // piece at the given depth (a fraction 2^-depth of the length) and index from the start of the curve with the
+    // Chebyshev interpolant expanded in powers of u in [-1, 1] across the piece as sum_j coeffs[j] u^j (Horner's method
+    // is cheaper than the Clenshaw recurrence and the expansion is well conditioned for low degrees)
+    private class Piece(val depth: Int, val index: Int, val coeffs: DoubleArray)
+
+    /**
+     * Total arc length.
+     */
+    val length: Double
+
+    /**
+     * True if every piece is within [tolerance] at its verification points.
+     */
+    val converged: Boolean
+
+    /**
+     * Maximum arc length error at the verification points of the pieces (only meaningful if [converged]).
+     */
+    var maxError = 0.0
+        private set
+
+    private val pieceStarts: DoubleArray
+    private val inversePieceLengths: DoubleArray
+    private val coeffs: DoubleArray
+
+    // index of the piece covering each cell of arc length cellLength
+    private val cellPieces: IntArray
+    private val inverseCellLength: Double
+
+    init {
+        require(tolerance > 0.0) { "The arc length tolerance must be positive" }
+        require(degree > 0) { "The interpolant degree must be positive" }
+        require(maxDepth in 0..MAX_DEPTH) { "The maximum depth must be in [0, $MAX_DEPTH]" }
+
+        length = integrate(0.0, 1.0)
+        val pieces = mutableListOf<Piece>()
+        converged = !fitPiece(0, 0, 0.0, pieces).isNaN()
+
+        val n = degree + 1
+        pieceStarts = DoubleArray(pieces.size) { pieces[it].index * pieceLength(pieces[it].depth) }
+        inversePieceLengths = DoubleArray(pieces.size) { 1.0 / pieceLength(pieces[it].depth) }
+        coeffs = DoubleArray(pieces.size * n)
+        pieces.forEachIndexed { i, piece -> piece.coeffs.copyInto(coeffs, i * n) }
+
+        val cellDepth = pieces.map { it.depth }.max() ?: 0
+        cellPieces = IntArray(1 shl cellDepth)
+        pieces.forEachIndexed { i, piece ->
+            val cells = 1 shl (cellDepth - piece.depth)
+            cellPieces.fill(i, piece.index * cells, (piece.index + 1) * cells)
+        }
+        inverseCellLength = 1.0 / pieceLength(cellDepth)
+    }
+
+    private fun pieceLength(depth: Int) = length / (1 shl depth)
+
+    private fun speed(t: Double): Double {
+        val dx = x.deriv(t)
+        val dy = y.deriv(t)
+        return sqrt(dx * dx + dy * dy)
+    }
+
+    private fun integrate(tLo: Double, tHi: Double): Double {
+        val steps = max(1, ceil((tHi - tLo) / QUADRATURE_STEP).toInt())
+        val step = (tHi - tLo) / steps
+        var sum = 0.0
+        for (i in 0 until steps) {
+            val mid = tLo + (i + 0.5) * step
+            for (k in GAUSS_NODES.indices) {
+                sum += GAUSS_WEIGHTS[k] * speed(mid + 0.5 * step * GAUSS_NODES[k])
+            }
+        }
+        return 0.5 * step * sum
+    }
+
+    // returns t such that the arc length from tPrev to t is ds (>= 0) with safeguarded Newton iterations
+    private fun solve(tPrev: Double, ds: Double): Double {
+        var lo = tPrev
+        var hi = 1.0
+        val speed = speed(tPrev)
+        var t = if (speed > 0.0) min(tPrev + ds / speed, 1.0) else 0.5 * (lo + hi)
+        for (i in 0 until MAX_NEWTON_ITERATIONS) {
+            val error = integrate(tPrev, t) - ds
+            if (abs(error) < NEWTON_TOLERANCE) {
+                break
+            }
+            if (error > 0.0) hi = t else lo = t
+            val currSpeed = speed(t)
+            val newtonT = if (currSpeed > 0.0) t - error / currSpeed else Double.NaN
+            t = if (newtonT > lo && newtonT < hi) newtonT else 0.5 * (lo + hi)
+        }
+        return t
+    }
+
+    // Chebyshev node k of degree + 1 nodes mapped to the piece; nodes are in decreasing order of u
+    private fun node(k: Int) = cos(PI * (k + 0.5) / (degree + 1))
+
+    // fits the piece at the given depth and index starting at curve parameter tStart, halving it while it misses the
+    // tolerance, and returns the curve parameter at its end (NaN if a piece at the maximum depth missed the tolerance)
+    private fun fitPiece(depth: Int, index: Int, tStart: Double, pieces: MutableList<Piece>): Double {
+        val sStart = index * pieceLength(depth)
+        val coeffs = fit(sStart, pieceLength(depth), tStart)
+        val (error, tEnd) = verify(coeffs, sStart, pieceLength(depth), tStart)
+        if (error <= tolerance) {
+            pieces.add(Piece(depth, index, coeffs))
+            maxError = max(maxError, error)
+            return tEnd
+        }
+        if (depth == maxDepth) {
+            return Double.NaN
+        }
+        val tMid = fitPiece(depth + 1, 2 * index, tStart, pieces)
+        return if (tMid.isNaN()) tMid else fitPiece(depth + 1, 2 * index + 1, tMid, pieces)
+    }
+
+    // returns the power coefficients of the interpolant of t(s) on [sStart, sStart + pieceLength]
+    private fun fit(sStart: Double, pieceLength: Double, tStart: Double): DoubleArray {
+        val n = degree + 1
+        val coeffs = DoubleArray(n)
+
+        // solve the nodes in increasing order of s so each solve continues from the previous one
+        val values = DoubleArray(n)
+        var sPrev = sStart
+        var tPrev = tStart
+        for (k in n - 1 downTo 0) {
+            val s = sStart + 0.5 * (node(k) + 1) * pieceLength
+            tPrev = solve(tPrev, s - sPrev)
+            sPrev = s
+            values[k] = tPrev
+        }
+
+        val cheb = DoubleArray(n)
+        for (j in 0 until n) {
+            var sum = 0.0
+            for (k in 0 until n) {
+                sum += values[k] * cos(PI * j * (k + 0.5) / n)
+            }
+            cheb[j] = (if (j == 0) 1.0 else 2.0) * sum / n
+        }
+
+        // expand sum_j cheb[j] T_j(u) in powers of u with T_0 = 1, T_1 = u, and T_{j+1} = 2 u T_j - T_{j-1}
+        var prevT = DoubleArray(n)
+        var currT = DoubleArray(n)
+        var nextT = DoubleArray(n)
+        currT[0] = 1.0
+        for (j in 0 until n) {
+            for (k in 0..j) {
+                coeffs[k] += cheb[j] * currT[k]
+            }
+            for (k in 0 until n) {
+                nextT[k] = (if (k > 0) (if (j == 0) 1.0 else 2.0) * currT[k - 1] else 0.0) - prevT[k]
+            }
+            val recycled = prevT
+            prevT = currT
+            currT = nextT
+            nextT = recycled
+        }
+        return coeffs
+    }
+
+    // returns the maximum arc length error of the interpolant at the ends of the piece and between consecutive nodes
+    // along with the curve parameter at the end of the piece
+    private fun verify(coeffs: DoubleArray, sStart: Double, pieceLength: Double, tStart: Double): Pair<Double, Double> {
+        val n = degree + 1
+        var error = 0.0
+        var sPrev = sStart
+        var tPrev = tStart
+        for (k in n downTo 0) {
+            // u between nodes k and k - 1 (or the piece ends)
+            val u = when (k) {
+                n -> -1.0
+                0 -> 1.0
+                else -> 0.5 * (node(k) + node(k - 1))
+            }
+            val s = sStart + 0.5 * (u + 1) * pieceLength
+            tPrev = solve(tPrev, s - sPrev)
+            sPrev = s
+            error = max(error, abs(evaluate(coeffs, 0, u) - tPrev) * speed(tPrev))
+        }
+        return error to tPrev
+    }
+
+    private fun evaluate(coeffs: DoubleArray, offset: Int, u: Double): Double {
+        var value = coeffs[offset + degree]
+        for (j in degree - 1 downTo 0) {
+            value = value * u + coeffs[offset + j]
+        }
+        return value
+    }
+
+    /**
+     * Returns the number of pieces.
+     */
+    fun size() = pieceStarts.size
+
+    /**
+     * Returns the depth of the shortest pieces.
+     */
+    fun depth() = Integer.numberOfTrailingZeros(cellPieces.size)
+
+    /**
+     * Returns the curve parameter at arc length [s].
+     */
+    fun reparam(s: Double): Double {
+        if (s <= 0.0) return 0.0
+        if (s >= length) return 1.0
+        val piece = cellPieces[min((s * inverseCellLength).toInt(), cellPieces.size - 1)]
+        val u = 2 * (s - pieceStarts[piece]) * inversePieceLengths[piece] - 1
+        val t = evaluate(coeffs, piece * (degree + 1), u)
+        return if (t < 0.0) 0.0 else if (t > 1.0) 1.0 else t
+    }
+
+    /**
+     * Returns the curve parameters at each arc length in [s].
+     */
+    fun reparam(s: DoubleProgression) = DoubleArray(s.size()) { reparam(s[it]) }
+}
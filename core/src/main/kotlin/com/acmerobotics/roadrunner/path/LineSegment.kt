@@ -8,7 +8,7 @@ import com.acmerobotics.roadrunner.geometry.Vector2d
  * @param start start vector
  * @param end end vector
  */
-class LineSegment(private val start: Vector2d, end: Vector2d) : ParametricCurve() {
+class LineSegment(internal val start: Vector2d, internal val end: Vector2d) : ParametricCurve() {
     private val diff = end - start
 
     override fun length() = diff.norm()
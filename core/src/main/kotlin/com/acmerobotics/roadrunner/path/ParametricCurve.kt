@@ -25,7 +25,9 @@ abstract class ParametricCurve {
      * Returns the second derivative [s] units along the curve.
      */
     @JvmOverloads
-    fun secondDeriv(s: Double, t: Double = reparam(s)): Vector2d {
+    fun secondDeriv(s: Double, t: Double = reparam(s)) = secondDerivAt(t)
+
+    private fun secondDerivAt(t: Double): Vector2d {
         val deriv = internalDeriv(t)
         val secondDeriv = internalSecondDeriv(t)
 
@@ -40,7 +42,9 @@ abstract class ParametricCurve {
      * Returns the third derivative [s] units along the curve.
      */
     @JvmOverloads
-    fun thirdDeriv(s: Double, t: Double = reparam(s)): Vector2d {
+    fun thirdDeriv(s: Double, t: Double = reparam(s)) = thirdDerivAt(t)
+
+    private fun thirdDerivAt(t: Double): Vector2d {
         val deriv = internalDeriv(t)
         val secondDeriv = internalSecondDeriv(t)
         val thirdDeriv = internalThirdDeriv(t)
@@ -74,25 +78,27 @@ abstract class ParametricCurve {
      */
     fun startThirdDeriv() = thirdDeriv(0.0, 0.0)
 
+    // the end values only depend on t so they don't require the length (which may trigger a lazy parameterization)
+
     /**
      * Returns the end vector.
      */
-    fun end() = get(length(), 1.0)
+    fun end() = internalGet(1.0)
 
     /**
      * Returns the end derivative.
      */
-    fun endDeriv() = deriv(length(), 1.0)
+    fun endDeriv() = internalDeriv(1.0) * paramDeriv(1.0)
 
     /**
      * Returns the end second derivative.
      */
-    fun endSecondDeriv() = secondDeriv(length(), 1.0)
+    fun endSecondDeriv() = secondDerivAt(1.0)
 
     /**
      * Returns the end third derivative.
      */
-    fun endThirdDeriv() = thirdDeriv(length(), 1.0)
+    fun endThirdDeriv() = thirdDerivAt(1.0)
 
     /**
      * Returns the angle of the tangent line [s] units along the curve.
@@ -6,7 +6,8 @@ import com.acmerobotics.roadrunner.util.DoubleProgression
 import com.acmerobotics.roadrunner.util.epsilonEquals
 import kotlin.math.max
 import kotlin.math.min
-import kotlin.math.roundToInt
+
+private const val DEFAULT_PROJECT_RESOLUTION = 0.25
 
 /**
  * Path composed of a list of parametric curves and heading interpolators.
@@ -20,23 +21,64 @@ class Path(val segments: List<PathSegment>) {
      */
     constructor(segment: PathSegment) : this(listOf(segment))
 
+    // cumulative end displacements of each segment
+    private val segmentEnds = DoubleArray(segments.size)
+
+    // index of the last segment looked up (only a search hint so unsynchronized access is harmless)
+    private var lastIndex = 0
+
+    init {
+        var length = 0.0
+        for (i in segments.indices) {
+            length += segments[i].length()
+            segmentEnds[i] = length
+        }
+    }
+
     /**
      * Returns the length of the path.
      */
-    fun length() = segments.sumByDouble { it.length() }
+    fun length() = if (segmentEnds.isEmpty()) 0.0 else segmentEnds[segmentEnds.size - 1]
+
+    private fun segmentStart(index: Int) = if (index == 0) 0.0 else segmentEnds[index - 1]
+
+    // returns the index of the first segment ending at or after s (0 < s <= length())
+    private fun segmentIndex(s: Double): Int {
+        // sequential lookups usually hit the last segment or the one after it
+        val hint = lastIndex
+        for (index in hint..min(hint + 1, segmentEnds.size - 1)) {
+            if (s <= segmentEnds[index] && s > segmentStart(index)) {
+                lastIndex = index
+                return index
+            }
+        }
+
+        var lo = 0
+        var hi = segmentEnds.size - 1
+        while (lo < hi) {
+            val mid = (lo + hi) ushr 1
+            if (s <= segmentEnds[mid]) {
+                hi = mid
+            } else {
+                lo = mid + 1
+            }
+        }
+        lastIndex = lo
+        return lo
+    }
 
+    /**
+     * Returns the segment [s] units along the path and the displacement along that segment.
+     */
     fun segment(s: Double): Pair<PathSegment, Double> {
         if (s <= 0.0) {
             return segments.first() to 0.0
         }
-        var remainingDisplacement = s
-        for (segment in segments) {
-            if (remainingDisplacement <= segment.length()) {
-                return segment to remainingDisplacement
-            }
-            remainingDisplacement -= segment.length()
+        if (s > length()) {
+            return segments.last() to segments.last().length()
         }
-        return segments.last() to segments.last().length()
+        val index = segmentIndex(s)
+        return segments[index] to s - segmentStart(index)
     }
 
     /**
@@ -143,20 +185,22 @@ class Path(val segments: List<PathSegment>) {
     }
 
     /**
-     * Project [queryPoint] onto the current path by applying [fastProject] with various
-     * guesses along the path.
+     * Spatial index for [project] (built on first use).
+     */
+    val projector: PathProjector by lazy { PathProjector(this, DEFAULT_PROJECT_RESOLUTION) }
+
+    /**
+     * Project [queryPoint] onto the current path globally using a [PathProjector]. Only the projector with the default
+     * resolution ([projector]) is kept with the path; other resolutions build a projector for the call, so callers
+     * projecting repeatedly at another resolution should keep their own [PathProjector].
      *
      * @param queryPoint query queryPoint
-     * @param ds spacing between guesses
+     * @param ds spacing between path samples of the projector
      */
-    fun project(queryPoint: Vector2d, ds: Double = 0.25): Double {
-        val samples = (length() / ds).roundToInt()
-
-        val guesses = DoubleProgression.fromClosedInterval(0.0, length(), samples)
-
-        val results = guesses.map { fastProject(queryPoint, it) }
-
-        return results.minBy { this[it].vec().distTo(queryPoint) } ?: 0.0
+    @JvmOverloads
+    fun project(queryPoint: Vector2d, ds: Double = DEFAULT_PROJECT_RESOLUTION): Double {
+        val projector = if (ds == DEFAULT_PROJECT_RESOLUTION) projector else PathProjector(this, ds)
+        return projector.project(queryPoint)
     }
 
     /**
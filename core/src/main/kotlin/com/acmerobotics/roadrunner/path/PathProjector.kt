@@ -0,0 +1,258 @@
+package com.acmerobotics.roadrunner.path
+
+import com.acmerobotics.roadrunner.geometry.Vector2d
+import com.acmerobotics.roadrunner.util.DoubleProgression
+import com.acmerobotics.roadrunner.util.EPSILON
+import kotlin.math.abs
+import kotlin.math.ceil
+import kotlin.math.floor
+import kotlin.math.max
+import kotlin.math.min
+import kotlin.math.sqrt
+
+private const val MAX_REFINE_ITERATIONS = 10
+
+/**
+ * Global projection onto a [Path] backed by a uniform grid of points sampled along the path. A query only visits the
+ * grid cells near the query point to find the closest samples and then refines the closest sample of each nearby
+ * branch of the path with a few safeguarded Newton iterations. The index is immutable once built, so a
+ * projector can be shared between threads.
+ *
+ * @param path path
+ * @param resolution spacing between path samples
+ */
+class PathProjector @JvmOverloads constructor(
+    val path: Path,
+    val resolution: Double = 0.25
+) {
+    private val length = path.length()
+    private val sampleS: DoubleArray
+    private val sampleX: DoubleArray
+    private val sampleY: DoubleArray
+
+    private val minX: Double
+    private val minY: Double
+    private val cellSize: Double
+    private val columns: Int
+    private val rows: Int
+
+    // samples in cell i are cellSamples[cellStarts[i] until cellStarts[i + 1]] (cells are stored row by row)
+    private val cellStarts: IntArray
+    private val cellSamples: IntArray
+
+    init {
+        require(resolution > 0.0) { "The projector resolution must be positive" }
+
+        val s = DoubleProgression.fromClosedInterval(0.0, length, max(2, ceil(length / resolution).toInt() + 1))
+        val t = path.reparam(s)
+        sampleS = DoubleArray(s.size()) { s[it] }
+        sampleX = DoubleArray(s.size())
+        sampleY = DoubleArray(s.size())
+        for (i in sampleS.indices) {
+            val point = path[sampleS[i], t[i]]
+            sampleX[i] = point.x
+            sampleY[i] = point.y
+        }
+
+        minX = sampleX.min()!!
+        minY = sampleY.min()!!
+        val width = sampleX.max()!! - minX
+        val height = sampleY.max()!! - minY
+        // roughly one cell per sample but never much finer than the samples themselves
+        cellSize = max(2 * resolution, sqrt(width * height / sampleS.size))
+        columns = floor(width / cellSize).toInt() + 1
+        rows = floor(height / cellSize).toInt() + 1
+
+        cellStarts = IntArray(columns * rows + 1)
+        for (i in sampleS.indices) {
+            cellStarts[cellIndex(i) + 1]++
+        }
+        for (i in 1 until cellStarts.size) {
+            cellStarts[i] += cellStarts[i - 1]
+        }
+        cellSamples = IntArray(sampleS.size)
+        val fill = cellStarts.copyOf()
+        for (i in sampleS.indices) {
+            cellSamples[fill[cellIndex(i)]++] = i
+        }
+    }
+
+    private fun column(x: Double) = floor((x - minX) / cellSize).toInt()
+
+    private fun row(y: Double) = floor((y - minY) / cellSize).toInt()
+
+    private fun cellIndex(sample: Int) =
+        min(row(sampleY[sample]), rows - 1) * columns + min(column(sampleX[sample]), columns - 1)
+
+    private fun squaredDistance(sample: Int, x: Double, y: Double): Double {
+        val dx = sampleX[sample] - x
+        val dy = sampleY[sample] - y
+        return dx * dx + dy * dy
+    }
+
+    // calls action for every sample in the cells at Chebyshev distance ring from (column, row)
+    private inline fun forEachSampleInRing(column: Int, row: Int, ring: Int, action: (Int) -> Unit) {
+        for (r in max(0, row - ring)..min(rows - 1, row + ring)) {
+            val edgeRow = r == row - ring || r == row + ring
+            val step = if (edgeRow || ring == 0) 1 else 2 * ring
+            var c = column - ring
+            while (c <= column + ring) {
+                if (c in 0 until columns) {
+                    val cell = r * columns + c
+                    for (k in cellStarts[cell] until cellStarts[cell + 1]) {
+                        action(cellSamples[k])
+                    }
+                }
+                c += step
+            }
+        }
+    }
+
+    // refines the projection starting at a sample with Newton's method on the derivative of the squared distance; the
+    // local minimum lies between the neighboring samples so steps leaving that bracket (common far from the path
+    // where the distance is barely convex) are replaced by bisection
+    private fun refine(queryPoint: Vector2d, initialS: Double, maxIterations: Int): Projection {
+        var lo = max(0.0, initialS - resolution)
+        var hi = min(initialS + resolution, length)
+        var s = initialS
+        var iterations = 0
+        while (true) {
+            val t = path.reparam(s)
+            val diff = queryPoint - path[s, t].vec()
+            // half the derivative of the squared distance is -g and half the second derivative is h
+            val g = diff dot path.deriv(s, t).vec()
+            val h = 1.0 - (diff dot path.secondDeriv(s, t).vec())
+            iterations++
+            if (g > 0.0) lo = s else hi = s
+            val newtonS = s + g / h
+            val nextS = if (h > 0.0 && newtonS > lo && newtonS < hi) newtonS else 0.5 * (lo + hi)
+            if (abs(nextS - s) < EPSILON || iterations >= maxIterations) {
+                return Projection(s, iterations, abs(g), false)
+            }
+            s = nextS
+        }
+    }
+
+    /**
+     * Result of a projection with its cost.
+     *
+     * @param displacement displacement along the path of the projected point
+     * @param iterations number of refinement iterations
+     * @param residual tangential component of the offset from the projected point to the query point (zero at an
+     * exact projection; NaN for fallbacks)
+     * @param fallback true if the local search failed and the point was projected globally
+     */
+    data class Projection(
+        val displacement: Double,
+        val iterations: Int,
+        val residual: Double,
+        val fallback: Boolean
+    )
+
+    /**
+     * Returns the number of path samples in the index.
+     */
+    fun size() = sampleS.size
+
+    /**
+     * Returns the displacement along the path of the point closest to [queryPoint].
+     */
+    fun project(queryPoint: Vector2d): Double {
+        val x = queryPoint.x
+        val y = queryPoint.y
+        val column = column(x)
+        val row = row(y)
+
+        // the first ring that intersects the grid
+        val firstRing = max(max(0, max(-column, column - (columns - 1))), max(-row, row - (rows - 1)))
+        val lastRing = firstRing + max(columns, rows)
+
+        // find the closest sample; every sample within the margin of it could lie on a branch of the path containing
+        // the actual projection, so the search continues until the rings are farther away than that
+        var closest = Double.POSITIVE_INFINITY
+        var ring = firstRing
+        while (ring <= lastRing) {
+            forEachSampleInRing(column, row, ring) {
+                closest = min(closest, squaredDistance(it, x, y))
+            }
+            if (closest.isFinite() && ring * cellSize >= sqrt(closest) + resolution) {
+                break
+            }
+            ring++
+        }
+
+        // refine the closest sample of each branch within the margin
+        val threshold = (sqrt(closest) + resolution) * (sqrt(closest) + resolution)
+        var bestS = 0.0
+        var bestDistance = Double.POSITIVE_INFINITY
+        for (r in firstRing..min(ring, lastRing)) {
+            forEachSampleInRing(column, row, r) {
+                val distance = squaredDistance(it, x, y)
+                val localMin = distance <= threshold &&
+                    (it == 0 || distance <= squaredDistance(it - 1, x, y)) &&
+                    (it == sampleS.size - 1 || distance < squaredDistance(it + 1, x, y))
+                if (localMin) {
+                    val s = refine(queryPoint, sampleS[it], MAX_REFINE_ITERATIONS).displacement
+                    val refinedDistance = path[s].vec() distTo queryPoint
+                    if (refinedDistance < bestDistance) {
+                        bestDistance = refinedDistance
+                        bestS = s
+                    }
+                    if (sqrt(distance) < bestDistance) {
+                        bestDistance = sqrt(distance)
+                        bestS = sampleS[it]
+                    }
+                }
+            }
+        }
+        return bestS
+    }
+
+    /**
+     * Projects [queryPoint] onto the part of the path within [trustRadius] of [projectGuess] (usually the previous
+     * projection of a moving point). Unlike [Path.fastProject], this never jumps to another branch of a path that
+     * approaches itself and the cost is bounded: the closest sample in the trust region is refined with at most
+     * [maxIterations] iterations. If the closest point lies on the border of the trust region (i.e., the projection
+     * may have left it), the point is projected globally instead and the result is marked as a fallback.
+     *
+     * @param queryPoint query point
+     * @param projectGuess expected displacement of the projection
+     * @param trustRadius maximum change in displacement from [projectGuess]
+     * @param maxIterations maximum number of refinement iterations
+     */
+    @JvmOverloads
+    fun projectNear(
+        queryPoint: Vector2d,
+        projectGuess: Double,
+        trustRadius: Double,
+        maxIterations: Int = MAX_REFINE_ITERATIONS
+    ): Projection {
+        require(trustRadius >= 0.0) { "The trust radius must be non-negative" }
+        require(maxIterations > 0) { "The projection needs at least one iteration" }
+
+        val x = queryPoint.x
+        val y = queryPoint.y
+        val spacing = length / (sampleS.size - 1)
+        val first = max(0, floor((projectGuess - trustRadius) / spacing).toInt())
+        val last = min(sampleS.size - 1, ceil((projectGuess + trustRadius) / spacing).toInt())
+        if (first > last) {
+            return Projection(project(queryPoint), 0, Double.NaN, true)
+        }
+
+        var closest = first
+        var closestDistance = squaredDistance(first, x, y)
+        for (i in first + 1..last) {
+            val distance = squaredDistance(i, x, y)
+            if (distance < closestDistance) {
+                closest = i
+                closestDistance = distance
+            }
+        }
+
+        val leftRegion = (closest == first && first > 0) || (closest == last && last < sampleS.size - 1)
+        if (leftRegion) {
+            return Projection(project(queryPoint), 0, Double.NaN, true)
+        }
+        return refine(queryPoint, sampleS[closest], maxIterations)
+    }
+}
@@ -0,0 +1,189 @@
+package com.acmerobotics.roadrunner.path
+
+import com.acmerobotics.roadrunner.util.DoubleProgression
+import kotlin.math.abs
+import kotlin.math.sqrt
+
+// minimum subdivision depth (keeps symmetric curves from passing the midpoint checks by coincidence)
+private const val MIN_DEPTH = 4
+
+// 5-point Gauss-Legendre nodes and weights on [-1, 1]
+private val GAUSS_NODES = doubleArrayOf(
+    -0.9061798459386640, -0.5384693101056831, 0.0, 0.5384693101056831, 0.9061798459386640
+)
+private val GAUSS_WEIGHTS = doubleArrayOf(
+    0.2369268850561891, 0.4786286704993665, 0.5688888888888889, 0.4786286704993665, 0.2369268850561891
+)
+
+/**
+ * Arc length parameterization of the 2D curve `(x(t), y(t))` computed with Gauss-Legendre quadrature. The parameter
+ * interval is subdivided until both the quadrature and a cubic Hermite interpolant of t(s) (matching the exact
+ * derivative dt/ds at the ends of each interval) are accurate to [tolerance] in arc length at the interval
+ * midpoints (after a few initial subdivisions). The interpolants are stored as coefficients in primitive arrays so
+ * [reparam] is a binary search followed by a cubic evaluation.
+ *
+ * @param x x polynomial
+ * @param y y polynomial
+ * @param tolerance arc length accuracy target
+ * @param maxDepth maximum subdivision depth
+ */
+internal class QuadratureParameterization(
+    private val x: QuinticPolynomial,
+    private val y: QuinticPolynomial,
+    private val tolerance: Double,
+    private val maxDepth: Int = 30
+) {
+    // interval i starts at (sKnots[i], tKnots[i]) and t(s) = t_i + c1 u + c2 u^2 + c3 u^3 with u = s - s_i inside it
+    private var sKnots = DoubleArray(16)
+    private var tKnots = DoubleArray(16)
+    private var c1 = DoubleArray(16)
+    private var c2 = DoubleArray(16)
+    private var c3 = DoubleArray(16)
+    private var size = 0
+
+    /**
+     * Total arc length.
+     */
+    val length: Double
+
+    init {
+        require(tolerance > 0.0) { "The arc length tolerance must be positive" }
+
+        length = subdivide(0.0, 1.0, 0.0, speed(0.0), speed(1.0), integrate(0.0, 1.0), 0)
+        sKnots = sKnots.copyOf(size)
+        tKnots = tKnots.copyOf(size)
+        c1 = c1.copyOf(size)
+        c2 = c2.copyOf(size)
+        c3 = c3.copyOf(size)
+    }
+
+    private fun speed(t: Double): Double {
+        val dx = x.deriv(t)
+        val dy = y.deriv(t)
+        return sqrt(dx * dx + dy * dy)
+    }
+
+    private fun integrate(tLo: Double, tHi: Double): Double {
+        val halfWidth = 0.5 * (tHi - tLo)
+        val mid = 0.5 * (tLo + tHi)
+        var sum = 0.0
+        for (i in GAUSS_NODES.indices) {
+            sum += GAUSS_WEIGHTS[i] * speed(mid + halfWidth * GAUSS_NODES[i])
+        }
+        return halfWidth * sum
+    }
+
+    // writes the interpolant of [tLo, tHi] (spanning arc length ds) to the arrays at index size without committing it;
+    // slopes at stationary points fall back to the secant
+    private fun fit(tLo: Double, tHi: Double, speedLo: Double, speedHi: Double, ds: Double) {
+        val dt = tHi - tLo
+        val secant = dt / ds
+        val m0 = if (speedLo > 0.0) 1.0 / speedLo else secant
+        val m1 = if (speedHi > 0.0) 1.0 / speedHi else secant
+        ensureCapacity()
+        tKnots[size] = tLo
+        c1[size] = m0
+        c2[size] = (3 * secant - 2 * m0 - m1) / ds
+        c3[size] = (m0 + m1 - 2 * secant) / (ds * ds)
+    }
+
+    private fun ensureCapacity() {
+        if (size == sKnots.size) {
+            val capacity = 2 * size
+            sKnots = sKnots.copyOf(capacity)
+            tKnots = tKnots.copyOf(capacity)
+            c1 = c1.copyOf(capacity)
+            c2 = c2.copyOf(capacity)
+            c3 = c3.copyOf(capacity)
+        }
+    }
+
+    private fun evaluate(index: Int, u: Double) = tKnots[index] + u * (c1[index] + u * (c2[index] + u * c3[index]))
+
+    // returns the arc length at the end of [tLo, tHi]
+    @Suppress("LongParameterList")
+    private fun subdivide(
+        tLo: Double,
+        tHi: Double,
+        sLo: Double,
+        speedLo: Double,
+        speedHi: Double,
+        ds: Double,
+        depth: Int
+    ): Double {
+        val tMid = 0.5 * (tLo + tHi)
+        val speedMid = speed(tMid)
+        val dsLo = integrate(tLo, tMid)
+        val dsHi = integrate(tMid, tHi)
+
+        fit(tLo, tHi, speedLo, speedHi, dsLo + dsHi)
+        val midError = abs(evaluate(size, dsLo) - tMid) * speedMid
+        val quadratureError = abs(dsLo + dsHi - ds)
+
+        val accurate = midError <= tolerance && quadratureError <= tolerance
+        return if (depth < MIN_DEPTH || (depth < maxDepth && !accurate)) {
+            val sMid = subdivide(tLo, tMid, sLo, speedLo, speedMid, dsLo, depth + 1)
+            subdivide(tMid, tHi, sMid, speedMid, speedHi, dsHi, depth + 1)
+        } else {
+            sKnots[size] = sLo
+            size++
+            sLo + dsLo + dsHi
+        }
+    }
+
+    // returns the index of the last interval starting at or before s
+    private fun intervalIndex(s: Double): Int {
+        var lo = 0
+        var hi = size - 1
+        while (lo < hi) {
+            val mid = (lo + hi + 1) ushr 1
+            if (sKnots[mid] <= s) {
+                lo = mid
+            } else {
+                hi = mid - 1
+            }
+        }
+        return lo
+    }
+
+    /**
+     * Returns the number of interpolation intervals.
+     */
+    fun size() = size
+
+    /**
+     * Returns the curve parameter at arc length [s].
+     */
+    fun reparam(s: Double): Double {
+        if (s <= 0.0) return 0.0
+        if (s >= length) return 1.0
+        val index = intervalIndex(s)
+        return evaluate(index, s - sKnots[index])
+    }
+
+    /**
+     * Returns the curve parameters at each arc length in [s].
+     */
+    fun reparam(s: DoubleProgression): DoubleArray {
+        val t = DoubleArray(s.size())
+        var index = 0
+        for (i in t.indices) {
+            val currS = s[i]
+            t[i] = when {
+                currS <= 0.0 -> 0.0
+                currS >= length -> 1.0
+                else -> {
+                    if (s.step >= 0.0) {
+                        while (index < size - 1 && sKnots[index + 1] <= currS) {
+                            index++
+                        }
+                    } else {
+                        index = intervalIndex(currS)
+                    }
+                    evaluate(index, currS - sKnots[index])
+                }
+            }
+        }
+        return t
+    }
+}
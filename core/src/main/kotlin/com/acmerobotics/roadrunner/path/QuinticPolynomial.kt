@@ -1,61 +1,41 @@
 package com.acmerobotics.roadrunner.path
 
-import org.apache.commons.math3.linear.LUDecomposition
-import org.apache.commons.math3.linear.MatrixUtils
-
-@Suppress("TopLevelPropertyNaming")
-private val COEFF_MATRIX = MatrixUtils.createRealMatrix(
-        arrayOf(
-                doubleArrayOf(0.0, 0.0, 0.0, 0.0, 0.0, 1.0),
-                doubleArrayOf(0.0, 0.0, 0.0, 0.0, 1.0, 0.0),
-                doubleArrayOf(0.0, 0.0, 0.0, 2.0, 0.0, 0.0),
-                doubleArrayOf(1.0, 1.0, 1.0, 1.0, 1.0, 1.0),
-                doubleArrayOf(5.0, 4.0, 3.0, 2.0, 1.0, 0.0),
-                doubleArrayOf(20.0, 12.0, 6.0, 2.0, 0.0, 0.0)
-        )
-)
-
 /**
- * Quintic polynomial interpolated according to the provided derivatives.
- *
- * @param start start value
- * @param startDeriv start derivative
- * @param startSecondDeriv start second derivative
- * @param end end value
- * @param endDeriv end derivative
- * @param endSecondDeriv end second derivative
+ * Quintic polynomial `a t^5 + b t^4 + c t^3 + d t^2 + e t + f` interpolated according to the provided derivatives.
+ * The coefficients are computed in closed form from the inverse of the (constant) interpolation matrix (the internal
+ * constructor takes the coefficients `a` through `f` directly).
  */
-class QuinticPolynomial(
-    start: Double,
-    startDeriv: Double,
-    startSecondDeriv: Double,
-    end: Double,
-    endDeriv: Double,
-    endSecondDeriv: Double
-) {
-    val a: Double
-    val b: Double
-    val c: Double
-    val d: Double
-    val e: Double
-    val f: Double
-
-    init {
-        val target =
-            MatrixUtils.createRealMatrix(arrayOf(doubleArrayOf(
-                start, startDeriv, startSecondDeriv, end, endDeriv, endSecondDeriv
-            ))).transpose()
+class QuinticPolynomial internal constructor(coefficients: DoubleArray) {
+    val a: Double = coefficients[0]
+    val b: Double = coefficients[1]
+    val c: Double = coefficients[2]
+    val d: Double = coefficients[3]
+    val e: Double = coefficients[4]
+    val f: Double = coefficients[5]
 
-        val solver = LUDecomposition(COEFF_MATRIX).solver
-        val coeff = solver.solve(target)
-
-        a = coeff.getEntry(0, 0)
-        b = coeff.getEntry(1, 0)
-        c = coeff.getEntry(2, 0)
-        d = coeff.getEntry(3, 0)
-        e = coeff.getEntry(4, 0)
-        f = coeff.getEntry(5, 0)
-    }
+    /**
+     * @param start start value
+     * @param startDeriv start derivative
+     * @param startSecondDeriv start second derivative
+     * @param end end value
+     * @param endDeriv end derivative
+     * @param endSecondDeriv end second derivative
+     */
+    constructor(
+        start: Double,
+        startDeriv: Double,
+        startSecondDeriv: Double,
+        end: Double,
+        endDeriv: Double,
+        endSecondDeriv: Double
+    ) : this(doubleArrayOf(
+        6 * (end - start) - 3 * (startDeriv + endDeriv) - 0.5 * (startSecondDeriv - endSecondDeriv),
+        -15 * (end - start) + 8 * startDeriv + 7 * endDeriv + 1.5 * startSecondDeriv - endSecondDeriv,
+        10 * (end - start) - 6 * startDeriv - 4 * endDeriv - 1.5 * startSecondDeriv + 0.5 * endSecondDeriv,
+        0.5 * startSecondDeriv,
+        startDeriv,
+        start
+    ))
 
     /**
      * Returns the value of the polynomial at [t].
@@ -12,29 +12,59 @@ import kotlin.math.sqrt
  * [this short paper](https://github.com/acmerobotics/road-runner/blob/master/doc/pdf/Quintic_Splines_for_FTC.pdf) for
  * some motivation and implementation details.
  *
- * @param start start waypoint
- * @param end end waypoint
+ * @param x x polynomial (i.e., x(t))
+ * @param y y polynomial (i.e., y(t))
  * @param maxDeltaK maximum change in curvature between arc length param segments
  * @param maxSegmentLength maximum length of a single param segment
  * @param maxDepth maximum stack depth
+ * @param arcLengthTolerance if positive, the spline is parameterized with Gauss-Legendre quadrature to this arc length
+ * accuracy instead of the recursive approximation ([maxDeltaK] and [maxSegmentLength] are ignored)
+ * @param chebyshevTolerance if positive, the spline is parameterized with a piecewise Chebyshev interpolant of t(s)
+ * to this arc length accuracy (evaluated in constant time; takes precedence over the other parameterizations) or with
+ * Gauss-Legendre quadrature to this accuracy if the interpolant can't reach it (see [chebyshevError])
  */
-class QuinticSpline(
-    start: Knot,
-    end: Knot,
-    private val maxDeltaK: Double = 0.01,
-    private val maxSegmentLength: Double = 0.25,
-    private val maxDepth: Int = 30
+@Suppress("LongParameterList")
+class QuinticSpline internal constructor(
+    val x: QuinticPolynomial,
+    val y: QuinticPolynomial,
+    internal val maxDeltaK: Double,
+    internal val maxSegmentLength: Double,
+    internal val maxDepth: Int,
+    internal val arcLengthTolerance: Double,
+    internal val chebyshevTolerance: Double
 ) : ParametricCurve() {
 
     /**
-     * X polynomial (i.e., x(t))
-     */
-    val x: QuinticPolynomial = QuinticPolynomial(start.x, start.dx, start.d2x, end.x, end.dx, end.d2x)
-
-    /**
-     * Y polynomial (i.e., y(t))
+     * Interpolates [start] and [end].
+     *
+     * @param start start waypoint
+     * @param end end waypoint
+     * @param maxDeltaK maximum change in curvature between arc length param segments
+     * @param maxSegmentLength maximum length of a single param segment
+     * @param maxDepth maximum stack depth
+     * @param arcLengthTolerance if positive, the spline is parameterized with Gauss-Legendre quadrature to this arc
+     * length accuracy instead of the recursive approximation ([maxDeltaK] and [maxSegmentLength] are ignored)
+     * @param chebyshevTolerance if positive, the spline is parameterized with a piecewise Chebyshev interpolant of t(s)
+     * to this arc length accuracy (evaluated in constant time; takes precedence over the other parameterizations) or
+     * with Gauss-Legendre quadrature to this accuracy if the interpolant can't reach it (see [chebyshevError])
      */
-    val y: QuinticPolynomial = QuinticPolynomial(start.y, start.dy, start.d2y, end.y, end.dy, end.d2y)
+    @JvmOverloads constructor(
+        start: Knot,
+        end: Knot,
+        maxDeltaK: Double = 0.01,
+        maxSegmentLength: Double = 0.25,
+        maxDepth: Int = 30,
+        arcLengthTolerance: Double = 0.0,
+        chebyshevTolerance: Double = 0.0
+    ) : this(
+        QuinticPolynomial(start.x, start.dx, start.d2x, end.x, end.dx, end.d2x),
+        QuinticPolynomial(start.y, start.dy, start.d2y, end.y, end.dy, end.d2y),
+        maxDeltaK,
+        maxSegmentLength,
+        maxDepth,
+        arcLengthTolerance,
+        chebyshevTolerance
+    )
 
     /**
      * Class for representing the end points of interpolated quintic splines.
@@ -67,14 +97,49 @@ class QuinticSpline(
         fun secondDeriv() = Vector2d(d2x, d2y)
     }
 
-    private var length: Double = 0.0
+    // arc length samples of the recursive approximation
+    private class ArcLengthSamples {
+        var length = 0.0
+        val s = mutableListOf(0.0)
+        val t = mutableListOf(0.0)
+    }
+
+    // the parameterization is computed on the first arc length query (at most once, even with concurrent queries) so
+    // splines only used for their endpoints or curvature (e.g., rejected candidates) never pay for it
+    private val samplesDelegate = lazy {
+        val samples = ArcLengthSamples()
+        parameterize(samples, 0.0, 1.0)
+        samples
+    }
+    private val samples by samplesDelegate
 
-    private val sSamples = mutableListOf(0.0)
-    private val tSamples = mutableListOf(0.0)
+    // quadrature is also the fallback of the Chebyshev interpolant
+    private val quadratureDelegate = lazy {
+        QuadratureParameterization(
+            x, y, if (chebyshevTolerance > 0.0) chebyshevTolerance else arcLengthTolerance, maxDepth
+        )
+    }
+    private val quadrature by quadratureDelegate
 
-    init {
-        parameterize(0.0, 1.0)
+    // null if the interpolant can't reach the tolerance
+    private val chebyshevDelegate = lazy {
+        ChebyshevParameterization(x, y, chebyshevTolerance).takeIf { it.converged }
     }
+    internal val chebyshev by chebyshevDelegate
+
+    /**
+     * Returns the arc length error of the Chebyshev parameterization measured at its verification points (computing
+     * the parameterization if necessary; at most [chebyshevTolerance]) or NaN if the spline isn't parameterized that
+     * way, including when the interpolant couldn't reach the tolerance (e.g., next to a stationary point of the
+     * spline) and quadrature is used instead.
+     */
+    fun chebyshevError() = (if (chebyshevTolerance > 0.0) chebyshev?.maxError else null) ?: Double.NaN
+
+    /**
+     * Returns true if the arc length parameterization has been computed.
+     */
+    internal fun isParameterized() = samplesDelegate.isInitialized() || quadratureDelegate.isInitialized() ||
+        chebyshevDelegate.isInitialized()
 
     private fun approxLength(v1: Vector2d, v2: Vector2d, v3: Vector2d): Double {
         val w1 = (v2 - v1) * 2.0
@@ -105,6 +170,7 @@ class QuinticSpline(
     }
 
     private fun parameterize(
+        samples: ArcLengthSamples,
         tLo: Double,
         tHi: Double,
         vLo: Vector2d = internalGet(tLo),
@@ -122,12 +188,12 @@ class QuinticSpline(
         val segmentLength = approxLength(vLo, vMid, vHi)
 
         if (deltaK > maxDeltaK || segmentLength > maxSegmentLength) {
-            parameterize(tLo, tMid, vLo, vMid, depth + 1)
-            parameterize(tMid, tHi, vMid, vHi, depth + 1)
+            parameterize(samples, tLo, tMid, vLo, vMid, depth + 1)
+            parameterize(samples, tMid, tHi, vMid, vHi, depth + 1)
         } else {
-            length += segmentLength
-            sSamples.add(length)
-            tSamples.add(tHi)
+            samples.length += segmentLength
+            samples.s.add(samples.length)
+            samples.t.add(tHi)
         }
     }
 
@@ -145,8 +211,15 @@ class QuinticSpline(
         tLo + (s - sLo) * (tHi - tLo) / (sHi - sLo)
 
     override fun reparam(s: Double): Double {
+        if (chebyshevTolerance > 0.0) return chebyshev?.reparam(s) ?: quadrature.reparam(s)
+        if (arcLengthTolerance > 0.0) return quadrature.reparam(s)
+
+        val samples = samples
+        val sSamples = samples.s
+        val tSamples = samples.t
+
         if (s <= 0.0) return 0.0
-        if (s >= length) return 1.0
+        if (s >= samples.length) return 1.0
 
         var lo = 0
         var hi = sSamples.size
@@ -171,6 +244,14 @@ class QuinticSpline(
     }
 
     override fun reparam(s: DoubleProgression): DoubleArray {
+        if (chebyshevTolerance > 0.0) return chebyshev?.reparam(s) ?: quadrature.reparam(s)
+        if (arcLengthTolerance > 0.0) return quadrature.reparam(s)
+
+        val samples = samples
+        val sSamples = samples.s
+        val tSamples = samples.t
+        val length = samples.length
+
         val t = DoubleArray(s.size())
         var i = 0
         var sampleIndex = 0
@@ -225,7 +306,94 @@ class QuinticSpline(
                 secondNumeratorSecondTerm / Math.pow(denominator, 3.5))
     }
 
-    override fun length() = length
+    override fun length() = when {
+        chebyshevTolerance > 0.0 -> chebyshev?.length ?: quadrature.length
+        arcLengthTolerance > 0.0 -> quadrature.length
+        else -> samples.length
+    }
 
     override fun toString() = "($x,$y)"
+
+    companion object {
+        private const val KNOT_SIZE = 6
+
+        /**
+         * Builds the splines connecting consecutive knots without allocating [Knot]s. [knots] holds the knots
+         * back to back as `x, y, dx, dy, d2x, d2y`, so n knots produce n - 1 splines. The parameters are passed to
+         * each spline (see [QuinticSpline]).
+         */
+        @JvmStatic
+        @JvmOverloads
+        fun fromKnots(
+            knots: DoubleArray,
+            maxDeltaK: Double = 0.01,
+            maxSegmentLength: Double = 0.25,
+            maxDepth: Int = 30,
+            arcLengthTolerance: Double = 0.0,
+            chebyshevTolerance: Double = 0.0
+        ): List<QuinticSpline> {
+            require(knots.size % KNOT_SIZE == 0) { "Knot data must contain $KNOT_SIZE values per knot" }
+            val count = knots.size / KNOT_SIZE - 1
+            return fromKnots(
+                knots, 0, knots, KNOT_SIZE, count,
+                maxDeltaK, maxSegmentLength, maxDepth, arcLengthTolerance, chebyshevTolerance
+            )
+        }
+
+        /**
+         * Builds independent splines from [starts] to [ends] (e.g., candidates in a search) without allocating
+         * [Knot]s. Both arrays hold one knot per spline as `x, y, dx, dy, d2x, d2y`. The parameters are passed to each
+         * spline (see [QuinticSpline]).
+         */
+        @JvmStatic
+        @JvmOverloads
+        fun fromKnots(
+            starts: DoubleArray,
+            ends: DoubleArray,
+            maxDeltaK: Double = 0.01,
+            maxSegmentLength: Double = 0.25,
+            maxDepth: Int = 30,
+            arcLengthTolerance: Double = 0.0,
+            chebyshevTolerance: Double = 0.0
+        ): List<QuinticSpline> {
+            require(starts.size % KNOT_SIZE == 0) { "Knot data must contain $KNOT_SIZE values per knot" }
+            require(starts.size == ends.size) { "Every start knot needs an end knot" }
+            val count = starts.size / KNOT_SIZE
+            return fromKnots(
+                starts, 0, ends, 0, count,
+                maxDeltaK, maxSegmentLength, maxDepth, arcLengthTolerance, chebyshevTolerance
+            )
+        }
+
+        private fun fromKnots(
+            starts: DoubleArray,
+            startOffset: Int,
+            ends: DoubleArray,
+            endOffset: Int,
+            count: Int,
+            maxDeltaK: Double,
+            maxSegmentLength: Double,
+            maxDepth: Int,
+            arcLengthTolerance: Double,
+            chebyshevTolerance: Double
+        ): List<QuinticSpline> {
+            val splines = ArrayList<QuinticSpline>(count)
+            for (i in 0 until count) {
+                val s = startOffset + i * KNOT_SIZE
+                val e = endOffset + i * KNOT_SIZE
+                splines.add(QuinticSpline(
+                    QuinticPolynomial(starts[s], starts[s + 2], starts[s + 4], ends[e], ends[e + 2], ends[e + 4]),
+                    QuinticPolynomial(
+                        starts[s + 1], starts[s + 3], starts[s + 5], ends[e + 1], ends[e + 3], ends[e + 5]
+                    ),
+                    maxDeltaK,
+                    maxSegmentLength,
+                    maxDepth,
+                    arcLengthTolerance,
+                    chebyshevTolerance
+                ))
+            }
+            return splines
+        }
+    }
 }
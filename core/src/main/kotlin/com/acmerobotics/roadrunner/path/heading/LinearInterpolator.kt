@@ -8,7 +8,7 @@ import com.acmerobotics.roadrunner.util.Angle
  * @param startHeading start heading
  * @param angle angle to sweep through (can be greater than a revolution)
  */
-class LinearInterpolator(private val startHeading: Double, private val angle: Double) : HeadingInterpolator() {
+class LinearInterpolator(internal val startHeading: Double, internal val angle: Double) : HeadingInterpolator() {
     override fun internalGet(s: Double, t: Double) =
         Angle.norm(startHeading + s / curve.length() * angle)
 
@@ -17,12 +17,12 @@ import com.acmerobotics.roadrunner.util.Angle
  */
 // note: the spline parameter is transformed linearly into a pseudo-arclength parameter
 class SplineInterpolator @JvmOverloads constructor(
-    private val startHeading: Double,
-    private val endHeading: Double,
-    private val startHeadingDeriv: Double? = null,
-    private val startHeadingSecondDeriv: Double? = null,
-    private val endHeadingDeriv: Double? = null,
-    private val endHeadingSecondDeriv: Double? = null
+    internal val startHeading: Double,
+    internal val endHeading: Double,
+    internal val startHeadingDeriv: Double? = null,
+    internal val startHeadingSecondDeriv: Double? = null,
+    internal val endHeadingDeriv: Double? = null,
+    internal val endHeadingSecondDeriv: Double? = null
 ) : HeadingInterpolator() {
     private val tangentInterpolator = TangentInterpolator()
     private lateinit var headingSpline: QuinticPolynomial
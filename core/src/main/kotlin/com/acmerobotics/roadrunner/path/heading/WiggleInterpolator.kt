@@ -17,9 +17,9 @@ private const val K = 0.5 // fraction of a period replaced by a path on either s
  * @param baseInterpolator base interpolator to add oscillations to (e.g., oscillations relative to the tangent)
  */
 class WiggleInterpolator(
-    private val amplitude: Double,
-    private val desiredPeriod: Double,
-    private val baseInterpolator: HeadingInterpolator = TangentInterpolator()
+    internal val amplitude: Double,
+    internal val desiredPeriod: Double,
+    internal val baseInterpolator: HeadingInterpolator = TangentInterpolator()
 ) : HeadingInterpolator() {
 
     private var period: Double = 0.0
@@ -1,44 +1,63 @@
 package com.acmerobotics.roadrunner.profile
 
-import kotlin.math.max
-import kotlin.math.min
+import com.acmerobotics.roadrunner.util.DoubleProgression
 
 /**
  * Trapezoidal motion profile composed of motion segments.
  *
- * @param segments profile motion segments
+ * @param packed packed profile storage
  */
-class MotionProfile(segments: List<MotionSegment>) {
-    internal val segments: MutableList<MotionSegment> = segments.toMutableList()
+class MotionProfile(val packed: PackedMotionProfile) {
+
+    /**
+     * @param segments profile motion segments
+     */
+    constructor(segments: List<MotionSegment>) : this(PackedMotionProfile(segments))
+
+    /**
+     * Profile motion segments in order (materialized from [packed] on first access).
+     */
+    val segments: List<MotionSegment> by lazy { List(packed.size()) { packed.segment(it) } }
 
     /**
      * Returns the [MotionState] at time [t].
      */
-    operator fun get(t: Double): MotionState {
-        var remainingTime = max(0.0, min(t, duration()))
-        for (segment in segments) {
-            if (remainingTime <= segment.dt) {
-                return segment[remainingTime]
-            }
-            remainingTime -= segment.dt
-        }
-        return segments.lastOrNull()?.end() ?: MotionState(0.0, 0.0)
-    }
+    operator fun get(t: Double) = packed[t]
+
+    /**
+     * Writes the motion state at time [t] into [out] without allocating (see [PackedMotionProfile.sampleInto]).
+     */
+    fun sampleInto(t: Double, out: DoubleArray) = packed.sampleInto(t, out)
+
+    /**
+     * Samples the profile at each time in [t] (see [PackedMotionProfile.sample]).
+     */
+    fun sample(t: DoubleProgression) = packed.sample(t)
+
+    /**
+     * Returns the time at which the profile reaches position [s] (see [PackedMotionProfile.timeAt]).
+     */
+    fun timeAt(s: Double) = packed.timeAt(s)
+
+    /**
+     * Returns the times at which the profile reaches each position in [s] (see [PackedMotionProfile.timesAt]).
+     */
+    fun timesAt(s: DoubleArray) = packed.timesAt(s)
 
     /**
      * Returns the duration of the motion profile.
      */
-    fun duration() = segments.sumByDouble { it.dt }
+    fun duration() = packed.duration()
 
     /**
      * Returns a reversed version of the motion profile.
      */
-    fun reversed() = MotionProfile(segments.map { it.reversed() }.reversed())
+    fun reversed() = MotionProfile(packed.reversed())
 
     /**
      * Returns a flipped version of the motion profile.
      */
-    fun flipped() = MotionProfile(segments.map { it.flipped() })
+    fun flipped() = MotionProfile(packed.flipped())
 
     /**
      * Returns the start [MotionState].
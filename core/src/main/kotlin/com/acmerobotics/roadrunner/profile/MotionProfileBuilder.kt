@@ -35,13 +35,14 @@ class MotionProfileBuilder(start: MotionState) {
      * Appends a [MotionProfile] to the current queue of control actions.
      */
     fun appendProfile(profile: MotionProfile): MotionProfileBuilder {
-        for (segment in profile.segments) {
-            if (segment.start.j epsilonEquals 0.0) {
+        val packed = profile.packed
+        for (i in 0 until packed.size()) {
+            if (packed.j[i] epsilonEquals 0.0) {
                 // constant acceleration
-                appendAccelerationControl(segment.start.a, segment.dt)
+                appendAccelerationControl(packed.a[i], packed.dt[i])
             } else {
                 // constant jerk
-                appendJerkControl(segment.start.j, segment.dt)
+                appendJerkControl(packed.j[i], packed.dt[i])
             }
         }
         return this
@@ -0,0 +1,133 @@
+package com.acmerobotics.roadrunner.profile
+
+import kotlin.math.roundToLong
+
+/**
+ * Bounded LRU cache of simple motion profiles (see [MotionProfileGenerator.generateSimpleMotionProfile]). Profiles are
+ * keyed on everything but the start position (rounded to multiples of [tolerance]) and cached profiles are shifted to
+ * the requested start position, so repeated moves like turns by the same angle from different headings are only
+ * generated once.
+ *
+ * @param capacity maximum number of cached profiles
+ * @param tolerance resolution of the key values; requests closer than this may share a profile
+ */
+class MotionProfileCache @JvmOverloads constructor(
+    val capacity: Int = 32,
+    val tolerance: Double = 1e-6
+) {
+    private data class Key(
+        val dx: Long,
+        val startV: Long,
+        val startA: Long,
+        val startJ: Long,
+        val goalV: Long,
+        val goalA: Long,
+        val goalJ: Long,
+        val maxVel: Long,
+        val maxAccel: Long,
+        val maxJerk: Long,
+        val overshoot: Boolean
+    )
+
+    // profile starting at 0 and the time it took to generate
+    private class CachedProfile(val profile: MotionProfile, val generationTime: Double)
+
+    private val entries = object : LinkedHashMap<Key, CachedProfile>(capacity, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<Key, CachedProfile>) = size > capacity
+    }
+
+    /**
+     * Number of requests served from the cache.
+     */
+    var hits = 0L
+        @Synchronized get
+        private set
+
+    /**
+     * Number of requests that generated a new profile.
+     */
+    var misses = 0L
+        @Synchronized get
+        private set
+
+    /**
+     * Total generation time (in seconds) avoided by cache hits, measured when each profile was generated.
+     */
+    var savedTime = 0.0
+        @Synchronized get
+        private set
+
+    init {
+        require(capacity > 0) { "Cache capacity must be positive" }
+        require(tolerance > 0.0) { "Cache tolerance must be positive" }
+    }
+
+    private fun quantize(value: Double) = (value / tolerance).roundToLong()
+
+    /**
+     * Returns the profile generated by [MotionProfileGenerator.generateSimpleMotionProfile] for these arguments,
+     * reusing a cached profile if possible.
+     */
+    @Suppress("LongParameterList")
+    @JvmOverloads
+    @Synchronized
+    fun generateSimpleMotionProfile(
+        start: MotionState,
+        goal: MotionState,
+        maxVel: Double,
+        maxAccel: Double,
+        maxJerk: Double = 0.0,
+        overshoot: Boolean = false
+    ): MotionProfile {
+        val key = Key(
+            quantize(goal.x - start.x),
+            quantize(start.v),
+            quantize(start.a),
+            quantize(start.j),
+            quantize(goal.v),
+            quantize(goal.a),
+            quantize(goal.j),
+            quantize(maxVel),
+            quantize(maxAccel),
+            quantize(maxJerk),
+            overshoot
+        )
+
+        val cached = entries[key]
+        if (cached != null) {
+            hits++
+            savedTime += cached.generationTime
+            return MotionProfile(cached.profile.packed.shifted(start.x))
+        }
+
+        misses++
+        val startTime = System.nanoTime()
+        val profile = MotionProfileGenerator.generateSimpleMotionProfile(
+            MotionState(0.0, start.v, start.a, start.j),
+            MotionState(goal.x - start.x, goal.v, goal.a, goal.j),
+            maxVel,
+            maxAccel,
+            maxJerk,
+            overshoot
+        )
+        entries[key] = CachedProfile(profile, (System.nanoTime() - startTime) / 1e9)
+        return MotionProfile(profile.packed.shifted(start.x))
+    }
+
+    /**
+     * Returns the number of cached profiles.
+     */
+    @Synchronized
+    fun size() = entries.size
+
+    /**
+     * Removes all cached profiles and resets the counters.
+     */
+    @Synchronized
+    fun clear() {
+        entries.clear()
+        hits = 0
+        misses = 0
+        savedTime = 0.0
+    }
+}
@@ -1,11 +1,15 @@
 package com.acmerobotics.roadrunner.profile
 
 import com.acmerobotics.roadrunner.util.DoubleProgression
+import com.acmerobotics.roadrunner.util.EPSILON
 import com.acmerobotics.roadrunner.util.MathUtil.solveQuadratic
 import com.acmerobotics.roadrunner.util.epsilonEquals
 import kotlin.math.abs
 import kotlin.math.ceil
+import kotlin.math.max
+import kotlin.math.min
 import kotlin.math.sqrt
+import kotlin.math.ulp
 
 /**
  * Motion profile generator with arbitrary start and end motion states and either dynamic constraints or jerk limiting.
@@ -136,38 +140,17 @@ object MotionProfileGenerator {
             } else {
                 // the profile never reaches maxV
                 // thus, we need to compute the peak velocity (0 < peak vel < max vel)
-                // we *could* construct a large polynomial expression (i.e., a nasty cubic) and solve it using Cardano's
-                // method, some kind of inclusion method like modified Anderson-Bjorck-King, or a host of other methods
-                // (see https://link.springer.com/content/pdf/bbm%3A978-3-642-05175-3%2F1.pdf for modified ABK)
-                // instead, however, we conduct a binary search as it's sufficiently performant for this use case,
-                // requires less code, and is overall significantly more comprehensible
-                var upperBound = maxVel
-                var lowerBound = 0.0
-                var iterations = 0
-                while (iterations < 1000) {
-                    val peakVel = (upperBound + lowerBound) / 2
-
+                // the end position is piecewise polynomial in the peak velocity so rather than solving a nasty cubic
+                // symbolically, we evaluate the accel/decel controls directly and bracket the root with modified
+                // Anderson-Bjorck (see https://link.springer.com/content/pdf/bbm%3A978-3-642-05175-3%2F1.pdf); only
+                // the final profile is ever built
+                val peakVel = PeakVelocitySolver(start, goal, maxVel, maxAccel, maxJerk).solve()
+                if (!peakVel.isNaN()) {
                     val searchAccelProfile = generateAccelProfile(start, peakVel, maxAccel, maxJerk)
                     val searchDecelProfile = generateAccelProfile(goal, peakVel, maxAccel, maxJerk)
                             .reversed()
 
-                    val searchProfile = searchAccelProfile + searchDecelProfile
-
-                    val error = goal.x - searchProfile.end().x
-
-                    if (error epsilonEquals 0.0) {
-                        return searchProfile
-                    }
-
-                    if (error > 0.0) {
-                        // we undershot so shift the lower bound up
-                        lowerBound = peakVel
-                    } else {
-                        // we overshot so shift the upper bound down
-                        upperBound = peakVel
-                    }
-
-                    iterations++
+                    return searchAccelProfile + searchDecelProfile
                 }
 
                 // constraints are not satisfiable
@@ -194,6 +177,150 @@ object MotionProfileGenerator {
         }
     }
 
+    // upper bound on the iterations of each peak velocity search; stalled interpolation falls back to bisection so the
+    // bracket still shrinks geometrically in the worst case
+    private const val PEAK_VEL_MAX_ITERATIONS = 100
+
+    /**
+     * Finds the peak velocity in `[0, maxVel]` for which the jerk-limited accel profile from [start] and the reversed
+     * decel profile into [goal] end exactly at the goal. Candidates are evaluated by integrating the controls directly
+     * into reusable buffers, so no intermediate profiles are built.
+     */
+    private class PeakVelocitySolver(
+        private val start: MotionState,
+        private val goal: MotionState,
+        private val maxVel: Double,
+        private val maxAccel: Double,
+        private val maxJerk: Double
+    ) {
+        private val accelJerks = DoubleArray(3)
+        private val accelDts = DoubleArray(3)
+        private val decelJerks = DoubleArray(3)
+        private val decelDts = DoubleArray(3)
+        private val decelEndAccels = DoubleArray(3)
+
+        /**
+         * Returns the peak velocity or `NaN` if there is no such velocity.
+         */
+        fun solve(): Double {
+            val loError = endError(0.0)
+            val hiError = endError(maxVel)
+            if (loError > 0.0 && hiError < 0.0) {
+                val peakVel = search(loError, hiError, true)
+                if (!peakVel.isNaN()) {
+                    return peakVel
+                }
+            }
+            // nonzero endpoint accelerations can make the error non-monotonic (or discontinuous); without a proper
+            // bracket we can only bisect
+            return search(Double.NaN, Double.NaN, false)
+        }
+
+        private fun search(startLoError: Double, startHiError: Double, interpolate: Boolean): Double {
+            var lo = 0.0
+            var hi = maxVel
+            var loError = startLoError
+            var hiError = startHiError
+
+            // side of the bracket kept by the last step (-1 for lo, 1 for hi)
+            var retained = 0
+            var width = hi - lo
+            var slowSteps = 0
+            for (i in 0 until PEAK_VEL_MAX_ITERATIONS) {
+                // fall back to bisection when regula falsi stalls
+                val bisect = !interpolate || slowSteps >= 2
+                val peakVel = if (bisect) {
+                    0.5 * (lo + hi)
+                } else {
+                    (lo * hiError - hi * loError) / (hiError - loError)
+                }
+
+                val error = endError(peakVel)
+                if (error epsilonEquals 0.0) {
+                    return peakVel
+                }
+
+                if (error > 0.0) {
+                    // we undershot so shift the lower bound up
+                    if (retained == 1 && !bisect) {
+                        // Anderson-Bjorck scaling of the stale endpoint
+                        val m = 1.0 - error / loError
+                        hiError *= if (m > 0.0) m else 0.5
+                    }
+                    lo = peakVel
+                    loError = error
+                    retained = 1
+                } else {
+                    // we overshot so shift the upper bound down
+                    if (retained == -1 && !bisect) {
+                        val m = 1.0 - error / hiError
+                        loError *= if (m > 0.0) m else 0.5
+                    }
+                    hi = peakVel
+                    hiError = error
+                    retained = -1
+                }
+
+                val newWidth = hi - lo
+                if (newWidth <= 0.5 * width) {
+                    width = newWidth
+                    slowSteps = 0
+                } else {
+                    slowSteps++
+                }
+                if (newWidth <= maxVel.ulp) {
+                    break
+                }
+            }
+
+            return Double.NaN
+        }
+
+        // returns goal.x minus the end position of generateAccelProfile(start) + generateAccelProfile(goal).reversed()
+        // (integrating the controls exactly as MotionProfileBuilder would) or NaN if either profile doesn't exist
+        private fun endError(peakVel: Double): Double {
+            val accelCount = jerkLimitedControls(start, peakVel, maxAccel, maxJerk, accelJerks, accelDts)
+            val decelCount = jerkLimitedControls(goal, peakVel, maxAccel, maxJerk, decelJerks, decelDts)
+            if (accelCount < 0 || decelCount < 0) {
+                return Double.NaN
+            }
+
+            // acceleration at the end of each decel segment (only these survive reversal)
+            var a = goal.a
+            for (i in 0 until decelCount) {
+                a += decelJerks[i] * decelDts[i]
+                decelEndAccels[i] = a
+            }
+
+            var x = start.x
+            var v = start.v
+            a = start.a
+            for (i in 0 until accelCount) {
+                val j = if (accelJerks[i] epsilonEquals 0.0) 0.0 else accelJerks[i]
+                val t = accelDts[i]
+                x += v * t + a / 2 * t * t + j / 6 * t * t * t
+                v += a * t + j / 2 * t * t
+                a += j * t
+            }
+            for (i in decelCount - 1 downTo 0) {
+                val j = decelJerks[i]
+                val t = decelDts[i]
+                if (j epsilonEquals 0.0) {
+                    // see MotionSegment.reversed() and MotionProfileBuilder.appendProfile()
+                    a = -decelEndAccels[i]
+                    x += v * t + a / 2 * t * t
+                    v += a * t
+                } else {
+                    x += v * t + a / 2 * t * t + j / 6 * t * t * t
+                    v += a * t + j / 2 * t * t
+                    a += j * t
+                }
+            }
+
+            return goal.x - x
+        }
+    }
+
     private fun generateAccelProfile(
         start: MotionState,
         maxVel: Double,
@@ -213,86 +340,113 @@ object MotionProfileGenerator {
             builder.build()
         } else {
             // jerk-limited
-            // compute the duration and velocity of the first segment
-            val (deltaT1, deltaV1) = if (start.a > maxAccel) {
-                // slow down and see where we are
-                val deltaT1 = (start.a - maxAccel) / maxJerk
-                val deltaV1 = start.a * deltaT1 - 0.5 * maxJerk * deltaT1 * deltaT1
-                Pair(deltaT1, deltaV1)
-            } else {
-                // otherwise accelerate
-                val deltaT1 = (maxAccel - start.a) / maxJerk
-                val deltaV1 = start.a * deltaT1 + 0.5 * maxJerk * deltaT1 * deltaT1
-                Pair(deltaT1, deltaV1)
+            val jerks = DoubleArray(3)
+            val dts = DoubleArray(3)
+            val count = jerkLimitedControls(start, maxVel, maxAccel, maxJerk, jerks, dts)
+            check(count >= 0) { "maxVel is unreachable from the start state" }
+            val builder = MotionProfileBuilder(start)
+            for (i in 0 until count) {
+                builder.appendJerkControl(jerks[i], dts[i])
             }
+            builder.build()
+        }
 
-            // compute the duration and velocity of the third segment
-            val deltaT3 = maxAccel / maxJerk
-            val deltaV3 = maxAccel * deltaT3 - 0.5 * maxJerk * deltaT3 * deltaT3
-
-            // compute the velocity change required in the second segment
-            val deltaV2 = maxVel - start.v - deltaV1 - deltaV3
-
-            if (deltaV2 < 0.0) {
-                // there is no constant acceleration phase
-                // the second case checks if we're going to exceed max vel
-                if (start.a > maxAccel || (start.v - maxVel) > (start.a * start.a) / (2 * maxJerk)) {
-                    // problem: we need to cut down on our acceleration but we can't cut our initial decel
-                    // solution: we'll lengthen our initial decel to -max accel and similarly with our final accel
-                    // if this results in an over correction, decel instead to a good accel
-                    val newDeltaT1 = (start.a + maxAccel) / maxJerk
-                    val newDeltaV1 = start.a * newDeltaT1 - 0.5 * maxJerk * newDeltaT1 * newDeltaT1
-
-                    val newDeltaV2 = maxVel - start.v - newDeltaV1 + deltaV3
-
-                    if (newDeltaV2 > 0.0) {
-                        // we decelerated too much
-                        val roots = solveQuadratic(-maxJerk, 2 * start.a,
-                                start.v - maxVel - start.a * start.a / (2 * maxJerk))
-                        val finalDeltaT1 = roots.filter { it >= 0.0 }.min()!!
-                        val finalDeltaT3 = finalDeltaT1 - start.a / maxJerk
-
-                        MotionProfileBuilder(start)
-                                .appendJerkControl(-maxJerk, finalDeltaT1)
-                                .appendJerkControl(maxJerk, finalDeltaT3)
-                                .build()
-                    } else {
-                        // we're almost good
-                        val newDeltaT2 = newDeltaV2 / -maxAccel
-
-                        MotionProfileBuilder(start)
-                                .appendJerkControl(-maxJerk, newDeltaT1)
-                                .appendJerkControl(0.0, newDeltaT2)
-                                .appendJerkControl(maxJerk, deltaT3)
-                                .build()
-                    }
-                } else {
-                    // cut out the constant accel phase and find a shorter delta t1 and delta t3
-                    val roots = solveQuadratic(maxJerk, 2 * start.a,
-                            start.v - maxVel + start.a * start.a / (2 * maxJerk))
-                    val newDeltaT1 = roots.filter { it >= 0.0 }.min()!!
-                    val newDeltaT3 = newDeltaT1 + start.a / maxJerk
-
-                    MotionProfileBuilder(start)
-                            .appendJerkControl(maxJerk, newDeltaT1)
-                            .appendJerkControl(-maxJerk, newDeltaT3)
-                            .build()
-                }
-            } else {
-                // there is a constant acceleration phase
-                val deltaT2 = deltaV2 / maxAccel
+    /**
+     * Computes the jerk controls that take [start] to [maxVel] with zero acceleration, writing the jerks and their
+     * durations into [jerks] and [dts] respectively. Returns the number of controls (at most three) or -1 if there
+     * is no solution.
+     */
+    @Suppress("LongParameterList")
+    private fun jerkLimitedControls(
+        start: MotionState,
+        maxVel: Double,
+        maxAccel: Double,
+        maxJerk: Double,
+        jerks: DoubleArray,
+        dts: DoubleArray
+    ): Int {
+        // compute the duration and velocity of the first segment
+        val deltaT1: Double
+        val deltaV1: Double
+        if (start.a > maxAccel) {
+            // slow down and see where we are
+            deltaT1 = (start.a - maxAccel) / maxJerk
+            deltaV1 = start.a * deltaT1 - 0.5 * maxJerk * deltaT1 * deltaT1
+        } else {
+            // otherwise accelerate
+            deltaT1 = (maxAccel - start.a) / maxJerk
+            deltaV1 = start.a * deltaT1 + 0.5 * maxJerk * deltaT1 * deltaT1
+        }
 
-                val builder = MotionProfileBuilder(start)
-                if (start.a > maxAccel) {
-                    builder.appendJerkControl(-maxJerk, deltaT1)
+        // compute the duration and velocity of the third segment
+        val deltaT3 = maxAccel / maxJerk
+        val deltaV3 = maxAccel * deltaT3 - 0.5 * maxJerk * deltaT3 * deltaT3
+
+        // compute the velocity change required in the second segment
+        val deltaV2 = maxVel - start.v - deltaV1 - deltaV3
+
+        return if (deltaV2 < 0.0) {
+            // there is no constant acceleration phase
+            // the second case checks if we're going to exceed max vel
+            if (start.a > maxAccel || (start.v - maxVel) > (start.a * start.a) / (2 * maxJerk)) {
+                // problem: we need to cut down on our acceleration but we can't cut our initial decel
+                // solution: we'll lengthen our initial decel to -max accel and similarly with our final accel
+                // if this results in an over correction, decel instead to a good accel
+                val newDeltaT1 = (start.a + maxAccel) / maxJerk
+                val newDeltaV1 = start.a * newDeltaT1 - 0.5 * maxJerk * newDeltaT1 * newDeltaT1
+
+                val newDeltaV2 = maxVel - start.v - newDeltaV1 + deltaV3
+
+                if (newDeltaV2 > 0.0) {
+                    // we decelerated too much
+                    val roots = solveQuadratic(-maxJerk, 2 * start.a,
+                            start.v - maxVel - start.a * start.a / (2 * maxJerk))
+                    val finalDeltaT1 = roots.filter { it >= 0.0 }.min() ?: return -1
+                    val finalDeltaT3 = finalDeltaT1 - start.a / maxJerk
+
+                    jerks[0] = -maxJerk
+                    dts[0] = finalDeltaT1
+                    jerks[1] = maxJerk
+                    dts[1] = finalDeltaT3
+                    2
                 } else {
-                    builder.appendJerkControl(maxJerk, deltaT1)
+                    // we're almost good
+                    val newDeltaT2 = newDeltaV2 / -maxAccel
+
+                    jerks[0] = -maxJerk
+                    dts[0] = newDeltaT1
+                    jerks[1] = 0.0
+                    dts[1] = newDeltaT2
+                    jerks[2] = maxJerk
+                    dts[2] = deltaT3
+                    3
                 }
-                builder.appendJerkControl(0.0, deltaT2)
-                        .appendJerkControl(-maxJerk, deltaT3)
-                        .build()
+            } else {
+                // cut out the constant accel phase and find a shorter delta t1 and delta t3
+                val roots = solveQuadratic(maxJerk, 2 * start.a,
+                        start.v - maxVel + start.a * start.a / (2 * maxJerk))
+                val newDeltaT1 = roots.filter { it >= 0.0 }.min() ?: return -1
+                val newDeltaT3 = newDeltaT1 + start.a / maxJerk
+
+                jerks[0] = maxJerk
+                dts[0] = newDeltaT1
+                jerks[1] = -maxJerk
+                dts[1] = newDeltaT3
+                2
             }
+        } else {
+            // there is a constant acceleration phase
+            val deltaT2 = deltaV2 / maxAccel
+
+            jerks[0] = if (start.a > maxAccel) -maxJerk else maxJerk
+            dts[0] = deltaT1
+            jerks[1] = 0.0
+            dts[1] = deltaT2
+            jerks[2] = -maxJerk
+            dts[2] = deltaT3
+            3
         }
+    }
 
     /**
      * Generates a motion profile with dynamic maximum velocity and acceleration. Uses the algorithm described in
@@ -333,188 +487,523 @@ object MotionProfileGenerator {
         val s = DoubleProgression.fromClosedInterval(0.0, length, samples)
         val constraintsList = constraints[s + start.x]
 
+        val count = max(0, min(s.size(), constraintsList.size) - 1)
+        val displacements = DoubleArray(count) { s[it] }
+        val dxs = DoubleArray(count) { s.step }
+
         // compute the forward states
-        val forwardStates = forwardPass(
-            MotionState(0.0, start.v, start.a),
-            s,
-            constraintsList
-        ).map { (motionState, dx) -> Pair(
-            MotionState(
-                motionState.x + start.x,
-                motionState.v,
-                motionState.a
-            ), dx) }
-            .toMutableList()
-
-        // compute the backward states
-        val backwardStates = forwardPass(
-            MotionState(0.0, goal.v, goal.a),
-            s,
-            constraintsList.reversed()
-        ).map { (motionState, dx) ->
-            Pair(afterDisplacement(motionState, dx), dx)
-        }.map { (motionState, dx) ->
-            Pair(
-                MotionState(
-                    goal.x - motionState.x,
-                    motionState.v,
-                    -motionState.a
-                ), dx
-            )
-        }.reversed().toMutableList()
-
-        // merge the forward and backward states
-        val finalStates = mutableListOf<Pair<MotionState, Double>>()
-
-        var i = 0
-        while (i < forwardStates.size && i < backwardStates.size) {
+        val forwardStates = forwardPass(start.v, displacements, dxs, constraintsList, false)
+        for (i in 0 until forwardStates.size) {
+            forwardStates.x[i] += start.x
+        }
+
+        // compute the backward states (in the forward direction of time)
+        val backwardStates = forwardPass(goal.v, displacements, dxs, constraintsList, true).toBackward(goal.x)
+
+        return mergePasses(forwardStates, backwardStates)
+    }
+
+    /**
+     * Generates a motion profile with dynamic maximum velocity and acceleration like the overload above but with
+     * constraints sampled at arbitrary positions (e.g., by an adaptive sampler) instead of an even resolution.
+     *
+     * @param start start motion state
+     * @param goal goal motion state
+     * @param s sample positions in order from `start.x` to `goal.x` (inclusive)
+     * @param constraints motion constraints at each sample position
+     */
+    @JvmStatic
+    fun generateMotionProfile(
+        start: MotionState,
+        goal: MotionState,
+        s: DoubleArray,
+        constraints: List<SimpleMotionConstraints>
+    ): MotionProfile {
+        require(s.size == constraints.size) { "Each sample position must have constraints" }
+
+        if (goal.x < start.x) {
+            return generateMotionProfile(
+                start.flipped(),
+                goal.flipped(),
+                DoubleArray(s.size) { -s[it] },
+                constraints
+            ).flipped()
+        }
+
+        val last = s.size - 1
+        val count = max(0, last)
+
+        // compute the forward states
+        val forwardDisplacements = DoubleArray(count) { s[it] - start.x }
+        val forwardDxs = DoubleArray(count) { s[it + 1] - s[it] }
+        val forwardStates = forwardPass(start.v, forwardDisplacements, forwardDxs, constraints, false)
+        for (i in 0 until forwardStates.size) {
+            forwardStates.x[i] += start.x
+        }
+
+        // compute the backward states (in the forward direction of time)
+        val backwardDisplacements = DoubleArray(count) { goal.x - s[last - it] }
+        val backwardDxs = DoubleArray(count) { s[last - it] - s[last - it - 1] }
+        val backwardStates = forwardPass(goal.v, backwardDisplacements, backwardDxs, constraints, true)
+            .toBackward(goal.x)
+
+        return mergePasses(forwardStates, backwardStates)
+    }
+
+    // merges the forward and backward pass states into the final profile
+    private fun mergePasses(forwardStates: StateBuffer, backwardStates: StateBuffer): MotionProfile {
+        // note: each list is consumed in order; the remainder of a split state is held in the pending variables
+        // below rather than inserted back into the list
+        val finalStates = StateBuffer(2 * (forwardStates.size + backwardStates.size))
+
+        var forwardIndex = 0
+        var forwardPending = false
+        var pendingForwardX = 0.0
+        var pendingForwardV = 0.0
+        var pendingForwardA = 0.0
+        var pendingForwardDx = 0.0
+
+        var backwardIndex = 0
+        var backwardPending = false
+        var pendingBackwardX = 0.0
+        var pendingBackwardV = 0.0
+        var pendingBackwardA = 0.0
+        var pendingBackwardDx = 0.0
+
+        while ((forwardPending || forwardIndex < forwardStates.size) &&
+            (backwardPending || backwardIndex < backwardStates.size)) {
             // retrieve the start states and displacement deltas
-            var (forwardStartState, forwardDx) = forwardStates[i]
-            var (backwardStartState, backwardDx) = backwardStates[i]
+            val forwardX: Double
+            val forwardV: Double
+            val forwardA: Double
+            var forwardDx: Double
+            if (forwardPending) {
+                forwardX = pendingForwardX
+                forwardV = pendingForwardV
+                forwardA = pendingForwardA
+                forwardDx = pendingForwardDx
+                forwardPending = false
+            } else {
+                forwardX = forwardStates.x[forwardIndex]
+                forwardV = forwardStates.v[forwardIndex]
+                forwardA = forwardStates.a[forwardIndex]
+                forwardDx = forwardStates.dx[forwardIndex]
+                forwardIndex++
+            }
 
-            // if there's a discrepancy in the displacements, split the the longer chunk in two and add the second
-            // to the corresponding list; this guarantees that segments are always aligned
+            val backwardX: Double
+            val backwardV: Double
+            val backwardA: Double
+            var backwardDx: Double
+            if (backwardPending) {
+                backwardX = pendingBackwardX
+                backwardV = pendingBackwardV
+                backwardA = pendingBackwardA
+                backwardDx = pendingBackwardDx
+                backwardPending = false
+            } else {
+                backwardX = backwardStates.x[backwardIndex]
+                backwardV = backwardStates.v[backwardIndex]
+                backwardA = backwardStates.a[backwardIndex]
+                backwardDx = backwardStates.dx[backwardIndex]
+                backwardIndex++
+            }
+
+            // if there's a discrepancy in the displacements, split the the longer chunk in two and hold onto the
+            // second part for the next iteration; this guarantees that segments are always aligned
             if (!(forwardDx epsilonEquals backwardDx)) {
                 if (forwardDx > backwardDx) {
                     // forward longer
-                    forwardStates.add(
-                        i + 1,
-                        Pair(afterDisplacement(forwardStartState, backwardDx), forwardDx - backwardDx)
-                    )
+                    pendingForwardX = forwardX + backwardDx
+                    pendingForwardV = velocityAfter(forwardV, forwardA, backwardDx)
+                    pendingForwardA = forwardA
+                    pendingForwardDx = forwardDx - backwardDx
+                    forwardPending = true
                     forwardDx = backwardDx
                 } else {
                     // backward longer
-                    backwardStates.add(
-                            i + 1,
-                            Pair(afterDisplacement(backwardStartState, forwardDx), backwardDx - forwardDx)
-                    )
+                    pendingBackwardX = backwardX + forwardDx
+                    pendingBackwardV = velocityAfter(backwardV, backwardA, forwardDx)
+                    pendingBackwardA = backwardA
+                    pendingBackwardDx = backwardDx - forwardDx
+                    backwardPending = true
                     backwardDx = forwardDx
                 }
             }
 
-            // compute the end states (after alignment)
-            val forwardEndState = afterDisplacement(forwardStartState, forwardDx)
-            val backwardEndState = afterDisplacement(backwardStartState, backwardDx)
+            // compute the end velocities (after alignment)
+            val forwardEndV = velocityAfter(forwardV, forwardA, forwardDx)
+            val backwardEndV = velocityAfter(backwardV, backwardA, backwardDx)
 
-            if (forwardStartState.v <= backwardStartState.v) {
+            if (forwardV <= backwardV) {
                 // forward start lower
-                if (forwardEndState.v <= backwardEndState.v) {
+                if (forwardEndV <= backwardEndV) {
                     // forward end lower
-                    finalStates.add(Pair(forwardStartState, forwardDx))
+                    finalStates.add(forwardX, forwardV, forwardA, forwardDx)
                 } else {
                     // backward end lower
-                    val intersection = intersection(
-                        forwardStartState,
-                        backwardStartState
-                    )
-                    finalStates.add(Pair(forwardStartState, intersection))
+                    val intersection = intersection(forwardV, forwardA, backwardV, backwardA)
+                    finalStates.add(forwardX, forwardV, forwardA, intersection)
                     finalStates.add(
-                        Pair(
-                            afterDisplacement(backwardStartState, intersection),
-                            backwardDx - intersection
-                        )
+                        backwardX + intersection,
+                        velocityAfter(backwardV, backwardA, intersection),
+                        backwardA,
+                        backwardDx - intersection
                     )
                 }
             } else {
                 // backward start lower
-                if (forwardEndState.v >= backwardEndState.v) {
+                if (forwardEndV >= backwardEndV) {
                     // backward end lower
-                    finalStates.add(Pair(backwardStartState, backwardDx))
+                    finalStates.add(backwardX, backwardV, backwardA, backwardDx)
                 } else {
                     // forward end lower
-                    val intersection = intersection(
-                        forwardStartState,
-                        backwardStartState
-                    )
-                    finalStates.add(Pair(backwardStartState, intersection))
+                    val intersection = intersection(forwardV, forwardA, backwardV, backwardA)
+                    finalStates.add(backwardX, backwardV, backwardA, intersection)
                     finalStates.add(
-                        Pair(
-                            afterDisplacement(forwardStartState, intersection),
-                            forwardDx - intersection
-                        )
+                        forwardX + intersection,
+                        velocityAfter(forwardV, forwardA, intersection),
+                        forwardA,
+                        forwardDx - intersection
                     )
                 }
             }
-            i++
         }
 
         // turn the final states into actual time-parameterized motion segments
-        val motionSegments = mutableListOf<MotionSegment>()
-        for ((state, stateDx) in finalStates) {
-            val dt = if (state.a epsilonEquals 0.0) {
-                stateDx / state.v
+        val size = finalStates.size
+        val dt = DoubleArray(size)
+        for (i in 0 until size) {
+            val v = finalStates.v[i]
+            val a = finalStates.a[i]
+            val stateDx = finalStates.dx[i]
+            dt[i] = if (a epsilonEquals 0.0) {
+                stateDx / v
             } else {
-                val discriminant = state.v * state.v + 2 * state.a * stateDx
+                val discriminant = v * v + 2 * a * stateDx
                 if (discriminant epsilonEquals 0.0) {
-                    -state.v / state.a
+                    -v / a
                 } else {
-                    (sqrt(discriminant) - state.v) / state.a
+                    (sqrt(discriminant) - v) / a
                 }
             }
-            motionSegments.add(MotionSegment(state, dt))
         }
 
-        return MotionProfile(motionSegments)
+        return MotionProfile(PackedMotionProfile(
+            finalStates.x.copyOf(size),
+            finalStates.v.copyOf(size),
+            finalStates.a.copyOf(size),
+            DoubleArray(size),
+            dt
+        ))
+    }
+
+    // upper bound on the refinement passes of jerk-limited dynamic profiles
+    private const val JERK_MAX_ITERATIONS = 100
+
+    /**
+     * Generates a motion profile with dynamic maximum velocity, acceleration, and jerk (see
+     * [SimpleMotionConstraints.maxJerk]). The velocity and acceleration limits are enforced with forward and backward
+     * passes over evenly spaced samples like [generateMotionProfile]. Afterwards, the velocity is lowered wherever the
+     * acceleration changes between consecutive sample intervals faster than the local jerk limit allows and the
+     * passes are repeated until the profile is consistent. The result has one constant-acceleration segment per
+     * sample interval, so the jerk limit applies to the acceleration steps between them (i.e., it bounds the jerk
+     * averaged over the resolution). The endpoint warning of [generateMotionProfile] applies here as well; if the
+     * refinement doesn't settle within a fixed number of passes, the last velocity- and acceleration-feasible profile
+     * is returned.
+     *
+     * @param start start motion state
+     * @param goal goal motion state
+     * @param constraints motion constraints
+     * @param resolution separation between constraint samples
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun generateJerkLimitedMotionProfile(
+        start: MotionState,
+        goal: MotionState,
+        constraints: MotionConstraints,
+        resolution: Double = 0.25
+    ): MotionProfile {
+        if (goal.x < start.x) {
+            return generateJerkLimitedMotionProfile(
+                start.flipped(),
+                goal.flipped(),
+                object : MotionConstraints() {
+                    override fun get(s: Double) = constraints[-s]
+                    override fun get(s: DoubleProgression) = constraints[-s]
+                },
+                resolution
+            ).flipped()
+        }
+
+        val length = goal.x - start.x
+        if (length epsilonEquals 0.0) {
+            return MotionProfile(listOf(MotionSegment(start, 0.0)))
+        }
+
+        val intervals = ceil(length / resolution).toInt()
+        val s = DoubleProgression.fromClosedInterval(0.0, length, intervals + 1)
+        val dx = s.step
+        val constraintsList = constraints[s + start.x]
+
+        // the passes work with u = v^2 / 2 (capped by the velocity constraints) as it changes linearly with
+        // displacement under constant acceleration
+        val u = DoubleArray(intervals + 1) { 0.5 * constraintsList[it].maxVel * constraintsList[it].maxVel }
+        u[0] = 0.5 * start.v * start.v
+        u[intervals] = min(u[intervals], 0.5 * goal.v * goal.v)
+        val maxAccels = DoubleArray(intervals) {
+            min(constraintsList[it].maxAccel, constraintsList[it + 1].maxAccel)
+        }
+        val maxJerks = DoubleArray(intervals + 1) { constraintsList[it].maxJerk }
+
+        val maxSteps = DoubleArray(intervals + 1)
+        val scratch = DoubleArray(intervals + 1)
+        val hull = IntArray(intervals + 1)
+        for (iteration in 0 until JERK_MAX_ITERATIONS) {
+            limitAcceleration(u, maxAccels, dx)
+            computeMaxAccelSteps(u, maxJerks, dx, maxSteps)
+            // alternate the sweep direction so corrections propagate both ways
+            val risingChanged = limitRisingAcceleration(u, maxSteps, start.a, goal.a, dx, iteration % 2 == 0)
+            val fallingChanged = limitFallingAcceleration(u, maxSteps, dx, scratch, hull)
+            if (!risingChanged && !fallingChanged) {
+                break
+            }
+        }
+        limitAcceleration(u, maxAccels, dx)
+
+        val x = DoubleArray(intervals) { start.x + s[it] }
+        val v = DoubleArray(intervals + 1) { sqrt(2.0 * u[it]) }
+        val a = DoubleArray(intervals) { (u[it + 1] - u[it]) / dx }
+        val dt = DoubleArray(intervals) { intervalTime(v[it], v[it + 1], dx) }
+
+        return MotionProfile(PackedMotionProfile(x, v.copyOf(intervals), a, DoubleArray(intervals), dt))
+    }
+
+    private fun intervalTime(v1: Double, v2: Double, dx: Double) = if (v1 + v2 > 0.0) 2.0 * dx / (v1 + v2) else 0.0
+
+    // lowers u in place to obey the acceleration limits with a forward and a backward pass (the start stays fixed)
+    private fun limitAcceleration(u: DoubleArray, maxAccels: DoubleArray, dx: Double) {
+        for (i in maxAccels.indices) {
+            u[i + 1] = min(u[i + 1], u[i] + maxAccels[i] * dx)
+        }
+        for (i in maxAccels.size - 1 downTo 1) {
+            u[i] = min(u[i], u[i + 1] + maxAccels[i] * dx)
+        }
+    }
+
+    // computes the largest acceleration step allowed at each sample (infinite without a jerk limit)
+    private fun computeMaxAccelSteps(u: DoubleArray, maxJerks: DoubleArray, dx: Double, maxSteps: DoubleArray) {
+        val last = u.size - 1
+        for (i in 0..last) {
+            if (maxJerks[i] <= 0.0) {
+                maxSteps[i] = Double.POSITIVE_INFINITY
+                continue
+            }
+            // time between the midpoints of the adjacent intervals
+            val v = sqrt(2.0 * u[i])
+            val prevDt = if (i == 0) 0.0 else intervalTime(sqrt(2.0 * u[i - 1]), v, dx)
+            val nextDt = if (i == last) 0.0 else intervalTime(v, sqrt(2.0 * u[i + 1]), dx)
+            maxSteps[i] = maxJerks[i] * 0.5 * (prevDt + nextDt)
+        }
+    }
+
+    /**
+     * Lowers u at the neighbors of each sample where the acceleration rises by more than the allowed step. Returns
+     * true if anything changed.
+     */
+    @Suppress("LongParameterList")
+    private fun limitRisingAcceleration(
+        u: DoubleArray,
+        maxSteps: DoubleArray,
+        startAccel: Double,
+        goalAccel: Double,
+        dx: Double,
+        forward: Boolean
+    ): Boolean {
+        val last = u.size - 1
+        var changed = false
+
+        fun lower(i: Int, du: Double) {
+            // the endpoints are fixed
+            if (i <= 0 || i >= last || du <= EPSILON * dx) {
+                return
+            }
+            u[i] = max(0.0, u[i] - du)
+            changed = true
+        }
+
+        for (k in 0..last) {
+            val i = if (forward) k else last - k
+            val prevAccel = if (i == 0) startAccel else (u[i] - u[i - 1]) / dx
+            val nextAccel = if (i == last) goalAccel else (u[i + 1] - u[i]) / dx
+            val step = nextAccel - prevAccel
+            if (step > maxSteps[i]) {
+                // pull down the faster neighbor(s); lowering u[i + 1] reduces the next acceleration while lowering
+                // u[i - 1] raises the previous one
+                val excess = (step - maxSteps[i]) * dx
+                val nextWeight = when {
+                    i + 1 >= last -> 0.0
+                    i - 1 <= 0 -> 1.0
+                    else -> {
+                        val rise = max(nextAccel, 0.0)
+                        val fall = max(-prevAccel, 0.0)
+                        if (rise + fall > 0.0) rise / (rise + fall) else 0.5
+                    }
+                }
+                lower(i + 1, excess * nextWeight)
+                lower(i - 1, excess * (1.0 - nextWeight))
+            }
+        }
+
+        return changed
+    }
+
+    /**
+     * Lowers u to the greatest profile below it whose acceleration never falls by more than the allowed step. If phi
+     * has second differences `maxSteps * dx`, that's the same as requiring u + phi to be convex, so it's computed
+     * exactly with a lower convex hull (independently between samples without a jerk limit). Returns true if anything
+     * changed.
+     */
+    private fun limitFallingAcceleration(
+        u: DoubleArray,
+        maxSteps: DoubleArray,
+        dx: Double,
+        phi: DoubleArray,
+        hull: IntArray
+    ): Boolean {
+        val last = u.size - 1
+        var changed = false
+        var runStart = 0
+        while (runStart < last) {
+            var runEnd = runStart + 1
+            while (runEnd < last && maxSteps[runEnd].isFinite()) {
+                runEnd++
+            }
+
+            phi[runStart] = 0.0
+            phi[runStart + 1] = 0.0
+            for (i in runStart + 1 until runEnd) {
+                phi[i + 1] = 2.0 * phi[i] - phi[i - 1] + maxSteps[i] * dx
+            }
+
+            // monotone chain lower hull of (i, u[i] + phi[i])
+            var size = 0
+            for (i in runStart..runEnd) {
+                while (size >= 2) {
+                    val h0 = hull[size - 2]
+                    val h1 = hull[size - 1]
+                    val cross = (h1 - h0) * (u[i] + phi[i] - u[h0] - phi[h0]) -
+                        (u[h1] + phi[h1] - u[h0] - phi[h0]) * (i - h0)
+                    if (cross > 0.0) {
+                        break
+                    }
+                    size--
+                }
+                hull[size++] = i
+            }
+
+            for (k in 0 until size - 1) {
+                val h0 = hull[k]
+                val h1 = hull[k + 1]
+                val w0 = u[h0] + phi[h0]
+                val slope = (u[h1] + phi[h1] - w0) / (h1 - h0)
+                for (i in h0 + 1 until h1) {
+                    val hullU = w0 + slope * (i - h0) - phi[i]
+                    if (hullU < u[i] - EPSILON * dx) {
+                        u[i] = max(0.0, hullU)
+                        changed = true
+                    }
+                }
+            }
+
+            runStart = runEnd
+        }
+        return changed
+    }
+
+    // fixed-capacity buffer of (x, v, a, dx) profile states (the capacity is always known up front)
+    private class StateBuffer(capacity: Int) {
+        val x = DoubleArray(capacity)
+        val v = DoubleArray(capacity)
+        val a = DoubleArray(capacity)
+        val dx = DoubleArray(capacity)
+        var size = 0
+
+        fun add(x: Double, v: Double, a: Double, dx: Double) {
+            this.x[size] = x
+            this.v[size] = v
+            this.a[size] = a
+            this.dx[size] = dx
+            size++
+        }
+
+        // maps the states of a pass run backward from the goal onto the forward time direction
+        fun toBackward(goalX: Double): StateBuffer {
+            val backward = StateBuffer(size)
+            for (i in size - 1 downTo 0) {
+                backward.add(goalX - (x[i] + dx[i]), velocityAfter(v[i], a[i], dx[i]), -a[i], dx[i])
+            }
+            return backward
+        }
     }
 
     // execute a forward pass that consists of applying maximum acceleration starting at min(last velocity, max vel)
-    // on a segment-by-segment basis
+    // on a segment-by-segment basis (the constraints are traversed back to front if reversed is true)
     private fun forwardPass(
-        start: MotionState,
-        displacements: DoubleProgression,
-        constraints: List<SimpleMotionConstraints>
-    ): List<Pair<MotionState, Double>> {
-        val forwardStates = mutableListOf<Pair<MotionState, Double>>()
-
-        val dx = displacements.step
-
-        var lastState = start
-        displacements
-            .zip(constraints)
-            .dropLast(1)
-            .forEach { (displacement, constraint) ->
-                // compute the segment constraints
-                val maxVel = constraint.maxVel
-                val maxAccel = constraint.maxAccel
-
-                lastState = if (lastState.v >= maxVel) {
-                    // the last velocity exceeds max vel so we just coast
-                    val state = MotionState(displacement, maxVel, 0.0)
-                    forwardStates.add(Pair(state, dx))
-                    afterDisplacement(state, dx)
+        startVel: Double,
+        displacements: DoubleArray,
+        dxs: DoubleArray,
+        constraints: List<SimpleMotionConstraints>,
+        reversed: Boolean
+    ): StateBuffer {
+        val count = dxs.size
+        val forwardStates = StateBuffer(2 * count)
+
+        var lastVel = startVel
+        for (i in 0 until count) {
+            val displacement = displacements[i]
+            val dx = dxs[i]
+            val constraint = constraints[if (reversed) constraints.size - 1 - i else i]
+
+            // compute the segment constraints
+            val maxVel = constraint.maxVel
+            val maxAccel = constraint.maxAccel
+
+            lastVel = if (lastVel >= maxVel) {
+                // the last velocity exceeds max vel so we just coast
+                forwardStates.add(displacement, maxVel, 0.0, dx)
+                velocityAfter(maxVel, 0.0, dx)
+            } else {
+                // compute the final velocity assuming max accel
+                val finalVel = sqrt(lastVel * lastVel + 2 * maxAccel * dx)
+                if (finalVel <= maxVel) {
+                    // we're still under max vel so we're good
+                    forwardStates.add(displacement, lastVel, maxAccel, dx)
+                    velocityAfter(lastVel, maxAccel, dx)
                 } else {
-                    // compute the final velocity assuming max accel
-                    val finalVel = sqrt(lastState.v * lastState.v + 2 * maxAccel * dx)
-                    if (finalVel <= maxVel) {
-                        // we're still under max vel so we're good
-                        val state = MotionState(displacement, lastState.v, maxAccel)
-                        forwardStates.add(Pair(state, dx))
-                        afterDisplacement(state, dx)
-                    } else {
-                        // we went over max vel so now we split the segment
-                        val accelDx = (maxVel * maxVel - lastState.v * lastState.v) / (2 * maxAccel)
-                        val accelState = MotionState(displacement, lastState.v, maxAccel)
-                        val coastState = MotionState(displacement + accelDx, maxVel, 0.0)
-                        forwardStates.add(Pair(accelState, accelDx))
-                        forwardStates.add(Pair(coastState, dx - accelDx))
-                        afterDisplacement(coastState, dx - accelDx)
-                    }
+                    // we went over max vel so now we split the segment
+                    val accelDx = (maxVel * maxVel - lastVel * lastVel) / (2 * maxAccel)
+                    forwardStates.add(displacement, lastVel, maxAccel, accelDx)
+                    forwardStates.add(displacement + accelDx, maxVel, 0.0, dx - accelDx)
+                    velocityAfter(maxVel, 0.0, dx - accelDx)
                 }
             }
+        }
 
         return forwardStates
     }
 
-    private fun afterDisplacement(state: MotionState, dx: Double): MotionState {
-        val discriminant = state.v * state.v + 2 * state.a * dx
+    private fun velocityAfter(v: Double, a: Double, dx: Double): Double {
+        val discriminant = v * v + 2 * a * dx
         return if (discriminant epsilonEquals 0.0) {
-            MotionState(state.x + dx, 0.0, state.a)
+            0.0
         } else {
-            MotionState(state.x + dx, sqrt(discriminant), state.a)
+            sqrt(discriminant)
         }
     }
 
-    private fun intersection(state1: MotionState, state2: MotionState): Double {
-        return (state1.v * state1.v - state2.v * state2.v) / (2 * state2.a - 2 * state1.a)
+    private fun intersection(v1: Double, a1: Double, v2: Double, a2: Double): Double {
+        return (v1 * v1 - v2 * v2) / (2 * a2 - 2 * a1)
     }
 }
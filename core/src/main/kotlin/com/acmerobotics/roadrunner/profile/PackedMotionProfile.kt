@@ -0,0 +1,271 @@
+package com.acmerobotics.roadrunner.profile
+
+import com.acmerobotics.roadrunner.util.DoubleProgression
+import com.acmerobotics.roadrunner.util.MathUtil
+import kotlin.math.max
+import kotlin.math.min
+
+/**
+ * Motion profile stored as parallel primitive arrays. Segment `i` starts in the state `(x[i], v[i], a[i], j[i])` and
+ * lasts `dt[i]`. Unlike [MotionProfile.get], [sampleInto] doesn't allocate, which keeps control loops garbage-free.
+ *
+ * @param x segment start positions
+ * @param v segment start velocities
+ * @param a segment start accelerations
+ * @param j segment jerks
+ * @param dt segment durations
+ */
+class PackedMotionProfile internal constructor(
+    internal val x: DoubleArray,
+    internal val v: DoubleArray,
+    internal val a: DoubleArray,
+    internal val j: DoubleArray,
+    internal val dt: DoubleArray
+) {
+    /**
+     * @param segments profile motion segments
+     */
+    constructor(segments: List<MotionSegment>) : this(
+        DoubleArray(segments.size) { segments[it].start.x },
+        DoubleArray(segments.size) { segments[it].start.v },
+        DoubleArray(segments.size) { segments[it].start.a },
+        DoubleArray(segments.size) { segments[it].start.j },
+        DoubleArray(segments.size) { segments[it].dt }
+    )
+
+    // cumulative end times of each segment
+    private val endTimes = DoubleArray(dt.size)
+
+    init {
+        require(x.size == dt.size && v.size == dt.size && a.size == dt.size && j.size == dt.size) {
+            "Packed profile arrays must have the same length"
+        }
+
+        var time = 0.0
+        for (i in endTimes.indices) {
+            time += dt[i]
+            endTimes[i] = time
+        }
+    }
+
+    /**
+     * Returns the number of segments.
+     */
+    fun size() = dt.size
+
+    /**
+     * Returns the duration of the motion profile.
+     */
+    fun duration() = if (endTimes.isEmpty()) 0.0 else endTimes[endTimes.size - 1]
+
+    /**
+     * Returns the start time of segment [index].
+     */
+    internal fun startTime(index: Int) = if (index == 0) 0.0 else endTimes[index - 1]
+
+    // returns the index of the first segment ending at or after t
+    internal fun segmentIndex(t: Double): Int {
+        var lo = 0
+        var hi = endTimes.size - 1
+        while (lo < hi) {
+            val mid = (lo + hi) ushr 1
+            if (t <= endTimes[mid]) {
+                hi = mid
+            } else {
+                lo = mid + 1
+            }
+        }
+        return lo
+    }
+
+    private fun clip(t: Double) = max(0.0, min(t, duration()))
+
+    // evaluates segment index at time t relative to its start (same arithmetic as MotionState.get())
+    private fun evaluateInto(index: Int, t: Double, out: DoubleArray) {
+        val x = x[index]
+        val v = v[index]
+        val a = a[index]
+        val j = j[index]
+        out[0] = x + v * t + a / 2 * t * t + j / 6 * t * t * t
+        out[1] = v + a * t + j / 2 * t * t
+        out[2] = a + j * t
+        out[3] = j
+    }
+
+    /**
+     * Writes the position, velocity, acceleration, and jerk at time [t] into the first four entries of [out] and
+     * returns [out].
+     */
+    fun sampleInto(t: Double, out: DoubleArray): DoubleArray {
+        if (dt.isEmpty()) {
+            out.fill(0.0, 0, 4)
+            return out
+        }
+        val clippedTime = clip(t)
+        val index = segmentIndex(clippedTime)
+        evaluateInto(index, clippedTime - startTime(index), out)
+        return out
+    }
+
+    /**
+     * Returns the [MotionState] at time [t].
+     */
+    operator fun get(t: Double): MotionState {
+        if (dt.isEmpty()) {
+            return MotionState(0.0, 0.0)
+        }
+        val clippedTime = clip(t)
+        val index = segmentIndex(clippedTime)
+        return segment(index)[clippedTime - startTime(index)]
+    }
+
+    /**
+     * Samples the profile at each time in [t]. The result contains four arrays holding the position, velocity,
+     * acceleration, and jerk samples respectively.
+     */
+    fun sample(t: DoubleProgression): Array<DoubleArray> {
+        val samples = Array(4) { DoubleArray(t.size()) }
+        if (dt.isEmpty()) {
+            return samples
+        }
+        val state = DoubleArray(4)
+        var index = segmentIndex(clip(t.start))
+        for (i in 0 until t.size()) {
+            val clippedTime = clip(t[i])
+            // increasing progressions walk forward from the last segment; anything else falls back to a search
+            if (t.step >= 0.0) {
+                while (clippedTime > endTimes[index] && index < endTimes.size - 1) {
+                    index++
+                }
+            } else {
+                index = segmentIndex(clippedTime)
+            }
+            evaluateInto(index, clippedTime - startTime(index), state)
+            for (k in 0 until 4) {
+                samples[k][i] = state[k]
+            }
+        }
+        return samples
+    }
+
+    // returns the index of the last segment starting at or before position s
+    private fun positionIndex(s: Double): Int {
+        var lo = 0
+        var hi = x.size - 1
+        while (lo < hi) {
+            val mid = (lo + hi + 1) ushr 1
+            if (x[mid] <= s) {
+                lo = mid
+            } else {
+                hi = mid - 1
+            }
+        }
+        return lo
+    }
+
+    // returns the last time in segment index (relative to its start) where the position is at most s
+    private fun segmentTimeAt(index: Int, s: Double): Double {
+        val duration = dt[index]
+        val x0 = x[index] - s
+        val v = v[index]
+        val a = a[index]
+        val j = j[index]
+        if (x0 + duration * (v + duration * (a / 2 + duration * j / 6)) <= 0.0) {
+            return duration
+        }
+
+        var time = 0.0
+        for (root in MathUtil.solveCubic(j / 6, a / 2, v, x0)) {
+            if (root in time..duration) {
+                time = root
+            }
+        }
+
+        // polish the closed-form root with a Newton step to recover the precision lost in the solve
+        val vel = v + time * (a + time * j / 2)
+        if (vel > 0.0) {
+            time -= (x0 + time * (v + time * (a / 2 + time * j / 6))) / vel
+        }
+        return max(0.0, min(time, duration))
+    }
+
+    /**
+     * Returns the time at which the profile reaches position [s] (the last such time if the profile dwells there),
+     * clipped to the duration of the profile. The position of the profile must be nondecreasing.
+     */
+    fun timeAt(s: Double): Double {
+        if (dt.isEmpty()) {
+            return 0.0
+        }
+        val index = positionIndex(s)
+        return startTime(index) + segmentTimeAt(index, s)
+    }
+
+    /**
+     * Returns the times at which the profile reaches each position in [s] (see [timeAt]). Increasing positions are
+     * resolved in a single pass over the segments.
+     */
+    fun timesAt(s: DoubleArray): DoubleArray {
+        val times = DoubleArray(s.size)
+        if (dt.isEmpty()) {
+            return times
+        }
+        var index = 0
+        for (i in s.indices) {
+            if (i > 0 && s[i] >= s[i - 1]) {
+                while (index < x.size - 1 && x[index + 1] <= s[i]) {
+                    index++
+                }
+            } else {
+                index = positionIndex(s[i])
+            }
+            times[i] = startTime(index) + segmentTimeAt(index, s[i])
+        }
+        return times
+    }
+
+    /**
+     * Returns segment [index] as a [MotionSegment].
+     */
+    fun segment(index: Int) = MotionSegment(MotionState(x[index], v[index], a[index], j[index]), dt[index])
+
+    /**
+     * Returns a reversed version of the motion profile.
+     */
+    fun reversed(): PackedMotionProfile {
+        val n = dt.size
+        val state = DoubleArray(4)
+        val x = DoubleArray(n)
+        val v = DoubleArray(n)
+        val a = DoubleArray(n)
+        val j = DoubleArray(n)
+        val dt = DoubleArray(n)
+        for (i in 0 until n) {
+            // see MotionSegment.reversed()
+            val source = n - 1 - i
+            evaluateInto(source, this.dt[source], state)
+            x[i] = state[0]
+            v[i] = state[1]
+            a[i] = -state[2]
+            j[i] = state[3]
+            dt[i] = this.dt[source]
+        }
+        return PackedMotionProfile(x, v, a, j, dt)
+    }
+
+    /**
+     * Returns a version of the motion profile shifted by [dx] (the other arrays are shared since they're immutable).
+     */
+    internal fun shifted(dx: Double) = PackedMotionProfile(DoubleArray(x.size) { x[it] + dx }, v, a, j, dt)
+
+    /**
+     * Returns a flipped (negated) version of the motion profile.
+     */
+    fun flipped() = PackedMotionProfile(
+        DoubleArray(x.size) { -x[it] },
+        DoubleArray(v.size) { -v[it] },
+        DoubleArray(a.size) { -a[it] },
+        DoubleArray(j.size) { -j[it] },
+        dt.copyOf()
+    )
+}
@@ -1,12 +1,14 @@
 package com.acmerobotics.roadrunner.profile
 
 /**
- * Constant velocity and acceleration constraints.
+ * Constant velocity, acceleration, and jerk constraints.
  *
  * @param maxVel constant maximum velocity
  * @param maxAccel constant maximum acceleration
+ * @param maxJerk constant maximum jerk (only used by jerk-limited profiles; 0 disables the limit)
  */
-data class SimpleMotionConstraints(
+data class SimpleMotionConstraints @JvmOverloads constructor(
     @JvmField var maxVel: Double,
-    @JvmField var maxAccel: Double
+    @JvmField var maxAccel: Double,
+    @JvmField var maxJerk: Double = 0.0
 )
@@ -0,0 +1,158 @@
+package com.acmerobotics.roadrunner.trajectory
+
+import com.acmerobotics.roadrunner.geometry.Pose2d
+import com.acmerobotics.roadrunner.util.Angle
+import kotlin.math.PI
+import kotlin.math.ceil
+import kotlin.math.max
+import kotlin.math.min
+
+// values stored for each sample: x, y, heading, heading change to the next sample, velocity, and acceleration
+private const val STRIDE = 10
+
+private const val TAU = 2 * PI
+
+/**
+ * [Trajectory] sampled at a fixed time step. The pose, velocity, and acceleration of every sample are stored together
+ * in a primitive array, so a query is an index computation followed by interpolation between two neighboring samples
+ * and takes constant time regardless of the underlying path and profile. The pose is interpolated with cubic Hermite
+ * polynomials matching the sampled velocities while the velocity and acceleration are interpolated linearly (so the
+ * velocity is off by up to a quarter of the acceleration jump times [dt] next to the profile acceleration jumps). The
+ * markers are resolved to sample indices when baking (rounding each marker time up to the next sample).
+ *
+ * @param trajectory source trajectory
+ * @param dt maximum time step between samples (the actual step divides the duration evenly)
+ */
+class BakedTrajectory @JvmOverloads constructor(
+    val trajectory: Trajectory,
+    dt: Double = 0.005
+) {
+    /**
+     * Time between consecutive samples.
+     */
+    val dt: Double
+
+    private val inverseDt: Double
+    private val duration = trajectory.duration()
+    private val samples: Int
+    private val values: DoubleArray
+    private val end = trajectory.end()
+
+    /**
+     * Trajectory markers sorted by time.
+     */
+    val markers = trajectory.markers.sortedBy { it.time }
+
+    /**
+     * Index of the first sample at or after each marker in [markers].
+     */
+    val markerIndices: IntArray
+
+    init {
+        require(dt > 0.0) { "The sample time step must be positive" }
+
+        samples = max(2, ceil(duration / dt).toInt() + 1)
+        this.dt = duration / (samples - 1)
+        inverseDt = if (this.dt > 0.0) 1.0 / this.dt else 0.0
+
+        values = DoubleArray(samples * STRIDE)
+        val state = TrajectoryState()
+        for (i in 0 until samples) {
+            trajectory.evaluate(i * this.dt, state)
+            val offset = i * STRIDE
+            values[offset] = state.pose.x
+            values[offset + 1] = state.pose.y
+            values[offset + 2] = state.pose.heading
+            values[offset + 4] = state.velocity.x
+            values[offset + 5] = state.velocity.y
+            values[offset + 6] = state.velocity.heading
+            values[offset + 7] = state.acceleration.x
+            values[offset + 8] = state.acceleration.y
+            values[offset + 9] = state.acceleration.heading
+        }
+        for (i in 0 until samples - 1) {
+            val offset = i * STRIDE
+            values[offset + 3] = Angle.normDelta(values[offset + STRIDE + 2] - values[offset + 2])
+        }
+
+        markerIndices = IntArray(markers.size) {
+            min(samples - 1, max(0, ceil(markers[it].time * inverseDt).toInt()))
+        }
+    }
+
+    fun duration() = duration
+
+    /**
+     * Returns the number of samples.
+     */
+    fun size() = samples
+
+    /**
+     * Returns the index of the last sample at or before [time] (clamped to the samples).
+     */
+    fun sampleIndex(time: Double): Int {
+        if (time <= 0.0) return 0
+        val index = (time * inverseDt).toInt()
+        return if (index >= samples) samples - 1 else index
+    }
+
+    // calls block with the offset of the sample at or before time and the interpolation fraction to the next one
+    private inline fun <T> interpolate(time: Double, block: (Int, Double) -> T): T {
+        if (time <= 0.0) return block(0, 0.0)
+        val scaled = time * inverseDt
+        val index = scaled.toInt()
+        return if (index >= samples - 1) {
+            block((samples - 2) * STRIDE, 1.0)
+        } else {
+            block(index * STRIDE, scaled - index)
+        }
+    }
+
+    private fun lerp(offset: Int, fraction: Double) =
+        values[offset] + fraction * (values[offset + STRIDE] - values[offset])
+
+    // cubic Hermite interpolation of the value at offset with the given change to the next sample and derivatives
+    // stored at offset + 4 (h01, h10, and h11 are the Hermite basis functions, using h00 + h01 = 1)
+    private fun hermite(offset: Int, delta: Double, h01: Double, h10: Double, h11: Double) =
+        values[offset] + delta * h01 + dt * (values[offset + 4] * h10 + values[offset + STRIDE + 4] * h11)
+
+    private inline fun <T> pose(offset: Int, fraction: Double, block: (Double, Double, Double) -> T): T {
+        val complement = 1.0 - fraction
+        val h01 = fraction * fraction * (3.0 - 2.0 * fraction)
+        val h10 = fraction * complement * complement
+        val h11 = -fraction * fraction * complement
+        val heading = hermite(offset + 2, values[offset + 3], h01, h10, h11)
+        return block(
+            hermite(offset, values[offset + STRIDE] - values[offset], h01, h10, h11),
+            hermite(offset + 1, values[offset + STRIDE + 1] - values[offset + 1], h01, h10, h11),
+            if (heading < 0.0) heading + TAU else if (heading >= TAU) heading - TAU else heading
+        )
+    }
+
+    operator fun get(time: Double) = interpolate(time) { offset, fraction ->
+        pose(offset, fraction) { x, y, heading -> Pose2d(x, y, heading) }
+    }
+
+    fun velocity(time: Double) = interpolate(time) { offset, fraction ->
+        Pose2d(lerp(offset + 4, fraction), lerp(offset + 5, fraction), lerp(offset + 6, fraction))
+    }
+
+    fun acceleration(time: Double) = interpolate(time) { offset, fraction ->
+        Pose2d(lerp(offset + 7, fraction), lerp(offset + 8, fraction), lerp(offset + 9, fraction))
+    }
+
+    /**
+     * Writes the interpolated pose, velocity, and acceleration at [time] into [out] and returns [out] (see
+     * [Trajectory.evaluate]).
+     */
+    fun evaluate(time: Double, out: TrajectoryState) = interpolate(time) { offset, fraction ->
+        pose(offset, fraction) { x, y, heading -> out.pose.set(x, y, heading) }
+        out.velocity.set(lerp(offset + 4, fraction), lerp(offset + 5, fraction), lerp(offset + 6, fraction))
+        out.acceleration.set(lerp(offset + 7, fraction), lerp(offset + 8, fraction), lerp(offset + 9, fraction))
+        out
+    }
+
+    fun start() = get(0.0)
+
+    fun end() = end
+}
@@ -25,9 +25,9 @@ abstract class BaseTrajectoryBuilder<T : BaseTrajectoryBuilder<T>> protected con
         PathBuilder(startPose, startTangent!!)
     }
 
-    private val temporalMarkers = mutableListOf<TemporalMarker>()
-    private val displacementMarkers = mutableListOf<DisplacementMarker>()
-    private val spatialMarkers = mutableListOf<SpatialMarker>()
+    protected val temporalMarkers = mutableListOf<TemporalMarker>()
+    protected val displacementMarkers = mutableListOf<DisplacementMarker>()
+    protected val spatialMarkers = mutableListOf<SpatialMarker>()
 
     /**
      * Adds a line segment with tangent heading interpolation.
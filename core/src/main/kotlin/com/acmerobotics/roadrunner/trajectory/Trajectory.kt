@@ -30,6 +30,51 @@ class Trajectory @JvmOverloads constructor(
             path.deriv(motionState.x) * motionState.a
     }
 
+    /**
+     * Writes the pose, velocity, and acceleration at [time] into [out] and returns [out]. Unlike calling [get],
+     * [velocity], and [acceleration] separately, the profile is sampled once, the path segment, curve parameter, and
+     * curve derivatives are shared between the three, and no poses are allocated.
+     */
+    fun evaluate(time: Double, out: TrajectoryState): TrajectoryState {
+        val motion = profile.sampleInto(time, out.motion)
+        val v = motion[1]
+        val a = motion[2]
+
+        val (segment, s) = path.segment(motion[0])
+        val t = segment.reparam(s)
+        val curve = segment.curve
+        val interpolator = segment.interpolator
+
+        // see ParametricCurve.deriv() and ParametricCurve.secondDeriv()
+        val internalDeriv = curve.internalDeriv(t)
+        val internalSecondDeriv = curve.internalSecondDeriv(t)
+        val paramDeriv = curve.paramDeriv(t)
+        val paramSecondDeriv = curve.paramSecondDeriv(t)
+        val dx = internalDeriv.x * paramDeriv
+        val dy = internalDeriv.y * paramDeriv
+        val d2x = internalSecondDeriv.x * paramDeriv * paramDeriv + internalDeriv.x * paramSecondDeriv
+        val d2y = internalSecondDeriv.y * paramDeriv * paramDeriv + internalDeriv.y * paramSecondDeriv
+
+        val headingDeriv = interpolator.deriv(s, t)
+        val headingSecondDeriv = interpolator.secondDeriv(s, t)
+        val position = curve.internalGet(t)
+
+        out.pose.set(position.x, position.y, interpolator[s, t])
+        out.velocity.set(dx * v, dy * v, headingDeriv * v)
+        out.acceleration.set(
+            d2x * v * v + dx * a,
+            d2y * v * v + dy * a,
+            headingSecondDeriv * v * v + headingDeriv * a
+        )
+        return out
+    }
+
+    /**
+     * Returns this trajectory sampled every [dt] seconds for constant-time lookups (see [BakedTrajectory]).
+     */
+    @JvmOverloads
+    fun bake(dt: Double = 0.005) = BakedTrajectory(this, dt)
+
     fun start() = path[0.0, 0.0]
 
     fun end() = path[path.length(), 1.0]
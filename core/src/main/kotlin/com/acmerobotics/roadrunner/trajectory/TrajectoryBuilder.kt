@@ -5,8 +5,11 @@ import com.acmerobotics.roadrunner.geometry.Vector2d
 import com.acmerobotics.roadrunner.path.Path
 import com.acmerobotics.roadrunner.profile.MotionState
 import com.acmerobotics.roadrunner.profile.SimpleMotionConstraints
+import com.acmerobotics.roadrunner.trajectory.constraints.AdaptiveConstraintSampler
 import com.acmerobotics.roadrunner.trajectory.constraints.TrajectoryConstraints
 import com.acmerobotics.roadrunner.util.Angle
+import com.acmerobotics.roadrunner.util.BackgroundExecutor
+import java.util.concurrent.Executor
 import kotlin.math.PI
 
 private fun zeroPosition(state: MotionState) = MotionState(0.0, state.v, state.a, state.j)
@@ -42,7 +45,8 @@ class TrajectoryBuilder private constructor(
     t: Double?,
     private val constraints: TrajectoryConstraints,
     private val start: MotionState,
-    private val resolution: Double
+    private val resolution: Double,
+    private val sampler: AdaptiveConstraintSampler?
 ) : BaseTrajectoryBuilder<TrajectoryBuilder>(startPose, startTangent, trajectory, t) {
     /**
      * Create a builder from a start pose and motion state. This is the recommended constructor for creating
@@ -53,7 +57,7 @@ class TrajectoryBuilder private constructor(
         startTangent: Double = startPose.heading,
         constraints: TrajectoryConstraints,
         resolution: Double = 0.25
-    ) : this(startPose, startTangent, null, null, constraints, MotionState(0.0, 0.0, 0.0), resolution)
+    ) : this(startPose, startTangent, null, null, constraints, MotionState(0.0, 0.0, 0.0), resolution, null)
 
     @JvmOverloads constructor(
         startPose: Pose2d,
@@ -71,7 +75,36 @@ class TrajectoryBuilder private constructor(
         t: Double,
         constraints: TrajectoryConstraints,
         resolution: Double = 0.25
-    ) : this(null, null, trajectory, t, constraints, zeroPosition(trajectory.profile[t]), resolution)
+    ) : this(null, null, trajectory, t, constraints, zeroPosition(trajectory.profile[t]), resolution, null)
+
+    /**
+     * Create a builder from a start pose and motion state that samples the constraints with [sampler] instead of at a
+     * fixed resolution.
+     */
+    @JvmOverloads constructor(
+        startPose: Pose2d,
+        startTangent: Double = startPose.heading,
+        constraints: TrajectoryConstraints,
+        sampler: AdaptiveConstraintSampler
+    ) : this(startPose, startTangent, null, null, constraints, MotionState(0.0, 0.0, 0.0), 0.0, sampler)
+
+    constructor(
+        startPose: Pose2d,
+        reversed: Boolean,
+        constraints: TrajectoryConstraints,
+        sampler: AdaptiveConstraintSampler
+    ) : this(startPose, Angle.norm(startPose.heading + if (reversed) PI else 0.0), constraints, sampler)
+
+    /**
+     * Create a builder from an active trajectory that samples the constraints with [sampler] instead of at a fixed
+     * resolution.
+     */
+    constructor(
+        trajectory: Trajectory,
+        t: Double,
+        constraints: TrajectoryConstraints,
+        sampler: AdaptiveConstraintSampler
+    ) : this(null, null, trajectory, t, constraints, zeroPosition(trajectory.profile[t]), 0.0, sampler)
 
     private val constraintsOverrideIntervals = mutableListOf<ConstraintsInterval>()
 
@@ -307,6 +340,27 @@ class TrajectoryBuilder private constructor(
         return this
     }
 
+    private fun mergedConstraints(): TrajectoryConstraints = MergedTrajectoryConstraints(constraints,
+        mutableListOf<ConstraintsInterval>().apply { addAll(constraintsOverrideIntervals) })
+
+    /**
+     * Constructs a [TrajectoryStream] that generates the trajectory in the background in windows of [window] so it can
+     * be followed before it's completely generated.
+     */
+    @JvmOverloads
+    fun buildStream(window: Double = 24.0, executor: Executor = BackgroundExecutor) = TrajectoryStream(
+        pathBuilder.build(),
+        mergedConstraints(),
+        start,
+        temporalMarkers.toList(),
+        displacementMarkers.toList(),
+        spatialMarkers.toList(),
+        window,
+        resolution,
+        sampler,
+        executor
+    )
+
     override fun buildTrajectory(
         path: Path,
         temporalMarkers: List<TemporalMarker>,
@@ -314,16 +368,29 @@ class TrajectoryBuilder private constructor(
         spatialMarkers: List<SpatialMarker>
     ): Trajectory {
         val goal = MotionState(path.length(), 0.0, 0.0)
-        return TrajectoryGenerator.generateTrajectory(
-            path,
-            MergedTrajectoryConstraints(constraints,
-                mutableListOf<ConstraintsInterval>().apply { addAll(constraintsOverrideIntervals) }),
-            start,
-            goal,
-            temporalMarkers,
-            displacementMarkers,
-            spatialMarkers,
-            resolution
-        )
+        val mergedConstraints = mergedConstraints()
+        return if (sampler == null) {
+            TrajectoryGenerator.generateTrajectory(
+                path,
+                mergedConstraints,
+                start,
+                goal,
+                temporalMarkers,
+                displacementMarkers,
+                spatialMarkers,
+                resolution
+            )
+        } else {
+            TrajectoryGenerator.generateTrajectory(
+                path,
+                mergedConstraints,
+                sampler,
+                start,
+                goal,
+                temporalMarkers,
+                displacementMarkers,
+                spatialMarkers
+            )
+        }
     }
 }
@@ -1,26 +1,27 @@
 package com.acmerobotics.roadrunner.trajectory
 
-import com.acmerobotics.roadrunner.geometry.Vector2d
 import com.acmerobotics.roadrunner.path.Path
 import com.acmerobotics.roadrunner.profile.*
+import com.acmerobotics.roadrunner.trajectory.constraints.AdaptiveConstraintSampler
 import com.acmerobotics.roadrunner.trajectory.constraints.DriveConstraints
 import com.acmerobotics.roadrunner.trajectory.constraints.TrajectoryConstraints
 import com.acmerobotics.roadrunner.util.DoubleProgression
-import com.acmerobotics.roadrunner.util.epsilonEquals
 
 /**
  * Trajectory generator for creating trajectories with dynamic and static constraints from paths.
  */
 object TrajectoryGenerator {
 
+    @Suppress("LongParameterList")
     private fun generateProfile(
         path: Path,
         constraints: TrajectoryConstraints,
         start: MotionState,
         goal: MotionState,
-        resolution: Double
+        resolution: Double,
+        jerkLimited: Boolean
     ): MotionProfile {
-        return MotionProfileGenerator.generateMotionProfile(start, goal, object : MotionConstraints() {
+        val motionConstraints = object : MotionConstraints() {
             override fun get(s: Double): SimpleMotionConstraints {
                 val t = path.reparam(s)
                 return constraints[
@@ -41,7 +42,24 @@ object TrajectoryGenerator {
                             path.secondDeriv(s, t)
                         ]
                     }
-        }, resolution)
+        }
+        return if (jerkLimited) {
+            MotionProfileGenerator.generateJerkLimitedMotionProfile(start, goal, motionConstraints, resolution)
+        } else {
+            MotionProfileGenerator.generateMotionProfile(start, goal, motionConstraints, resolution)
+        }
+    }
+
+    @Suppress("LongParameterList")
+    private fun generateProfile(
+        path: Path,
+        constraints: TrajectoryConstraints,
+        start: MotionState,
+        goal: MotionState,
+        sampler: AdaptiveConstraintSampler
+    ): MotionProfile {
+        val (s, constraintsList) = sampler.sample(path, constraints, start.x, goal.x)
+        return MotionProfileGenerator.generateMotionProfile(start, goal, s, constraintsList)
     }
 
     private fun generateSimpleProfile(
@@ -53,37 +71,29 @@ object TrajectoryGenerator {
             constraints.maxVel, constraints.maxAccel, constraints.maxJerk)
     }
 
-    // note: this assumes that the profile position is monotonic increasing
-    private fun displacementToTime(profile: MotionProfile, s: Double): Double {
-        var tLo = 0.0
-        var tHi = profile.duration()
-        while (!(tLo epsilonEquals tHi)) {
-            val tMid = 0.5 * (tLo + tHi)
-            if (profile[tMid].x > s) {
-                tHi = tMid
-            } else {
-                tLo = tMid
-            }
-        }
-        return 0.5 * (tLo + tHi)
-    }
-
-    private fun pointToTime(path: Path, profile: MotionProfile, point: Vector2d) =
-        displacementToTime(profile, path.project(point))
-
-    private fun convertMarkers(
+    internal fun convertMarkers(
         path: Path,
         profile: MotionProfile,
         temporalMarkers: List<TemporalMarker>,
         displacementMarkers: List<DisplacementMarker>,
         spatialMarkers: List<SpatialMarker>
     ): List<TrajectoryMarker> {
+        // resolve all displacement and spatial markers with a single inversion of the profile
+        val displacements = DoubleArray(displacementMarkers.size + spatialMarkers.size)
+        displacementMarkers.forEachIndexed { i, (displacement, _) ->
+            displacements[i] = displacement(path.length())
+        }
+        spatialMarkers.forEachIndexed { i, (point, _) ->
+            displacements[displacementMarkers.size + i] = path.project(point)
+        }
+        val times = profile.timesAt(displacements)
+
         return temporalMarkers.map { (time, callback) ->
             TrajectoryMarker(time(profile.duration()), callback) } +
-            displacementMarkers.map { (displacement, callback) ->
-                TrajectoryMarker(displacementToTime(profile, displacement(path.length())), callback) } +
-            spatialMarkers.map { (point, callback) ->
-                TrajectoryMarker(pointToTime(path, profile, point), callback) }
+            displacementMarkers.mapIndexed { i, (_, callback) ->
+                TrajectoryMarker(times[i], callback) } +
+            spatialMarkers.mapIndexed { i, (_, callback) ->
+                TrajectoryMarker(times[displacementMarkers.size + i], callback) }
     }
 
     /**
@@ -95,6 +105,8 @@ object TrajectoryGenerator {
      * @param temporalMarkers temporal markers
      * @param spatialMarkers spatial markers
      * @param resolution dynamic profile sampling resolution
+     * @param jerkLimited if true, the profile also obeys the sampled jerk limits (see
+     * [MotionProfileGenerator.generateJerkLimitedMotionProfile])
      */
     @Suppress("LongParameterList")
     @JvmOverloads
@@ -106,9 +118,37 @@ object TrajectoryGenerator {
         temporalMarkers: List<TemporalMarker> = emptyList(),
         displacementMarkers: List<DisplacementMarker> = emptyList(),
         spatialMarkers: List<SpatialMarker> = emptyList(),
-        resolution: Double = 0.25
+        resolution: Double = 0.25,
+        jerkLimited: Boolean = false
+    ): Trajectory {
+        val profile = generateProfile(path, constraints, start, goal, resolution, jerkLimited)
+        val markers = convertMarkers(path, profile, temporalMarkers, displacementMarkers, spatialMarkers)
+        return Trajectory(path, profile, markers)
+    }
+
+    /**
+     * Generate a dynamic constraint trajectory with constraints sampled by [sampler] instead of at a fixed resolution.
+     * @param path path
+     * @param constraints trajectory constraints
+     * @param sampler adaptive constraint sampler
+     * @param start start motion state
+     * @param goal goal motion state
+     * @param temporalMarkers temporal markers
+     * @param spatialMarkers spatial markers
+     */
+    @Suppress("LongParameterList")
+    @JvmOverloads
+    fun generateTrajectory(
+        path: Path,
+        constraints: TrajectoryConstraints,
+        sampler: AdaptiveConstraintSampler,
+        start: MotionState = MotionState(0.0, 0.0, 0.0),
+        goal: MotionState = MotionState(path.length(), 0.0, 0.0),
+        temporalMarkers: List<TemporalMarker> = emptyList(),
+        displacementMarkers: List<DisplacementMarker> = emptyList(),
+        spatialMarkers: List<SpatialMarker> = emptyList()
     ): Trajectory {
-        val profile = generateProfile(path, constraints, start, goal, resolution)
+        val profile = generateProfile(path, constraints, start, goal, sampler)
         val markers = convertMarkers(path, profile, temporalMarkers, displacementMarkers, spatialMarkers)
         return Trajectory(path, profile, markers)
     }
@@ -0,0 +1,154 @@
+package com.acmerobotics.roadrunner.trajectory
+
+import com.acmerobotics.roadrunner.geometry.Pose2d
+import com.acmerobotics.roadrunner.geometry.Vector2d
+import com.acmerobotics.roadrunner.path.PathBuilder
+import com.acmerobotics.roadrunner.profile.MotionState
+import com.acmerobotics.roadrunner.trajectory.constraints.TrajectoryConstraints
+import com.acmerobotics.roadrunner.util.NanoClock
+
+private const val BUDGET_SAFETY_FACTOR = 1.5
+
+/**
+ * Replans trajectories to a new goal in the middle of a motion within a time budget. Each replan starts with the
+ * finest of [resolutions] that is expected to fit in the remaining budget (based on the measured cost of previous
+ * replans) and keeps refining while the budget allows it, falling back to the coarsest resolution if nothing else
+ * fits. Note that the path itself is always built in full. As with any dynamic profile, the goal must be far enough
+ * away for the robot to stop from the current velocity.
+ *
+ * @param constraints trajectory constraints
+ * @param timeBudget time budget for each replan (in seconds)
+ * @param resolutions candidate constraint sampling resolutions
+ * @param clock clock
+ */
+class TrajectoryReplanner @JvmOverloads constructor(
+    private val constraints: TrajectoryConstraints,
+    val timeBudget: Double = 0.005,
+    resolutions: DoubleArray = doubleArrayOf(0.25, 0.5, 1.0, 2.0),
+    private val clock: NanoClock = NanoClock.system()
+) {
+    /**
+     * Summary of a replan.
+     *
+     * @param time total replan time (in seconds)
+     * @param pathTime time spent building the path (in seconds)
+     * @param resolution resolution of the returned trajectory
+     * @param attempts number of profiles generated
+     * @param overBudget true if the replan took longer than [timeBudget]
+     */
+    data class Report(
+        val time: Double,
+        val pathTime: Double,
+        val resolution: Double,
+        val attempts: Int,
+        val overBudget: Boolean
+    )
+
+    // finest first
+    private val resolutions = resolutions.sortedArray()
+
+    // smoothed time per constraint sample of previous replans (NaN until the first replan)
+    private var sampleTime = Double.NaN
+
+    /**
+     * Report of the most recent replan.
+     */
+    @Volatile
+    var lastReport: Report? = null
+        private set
+
+    init {
+        require(this.resolutions.isNotEmpty() && this.resolutions[0] > 0.0) { "Resolutions must be positive" }
+    }
+
+    // returns the index of the finest resolution before end expected to finish within remainingTime with some margin
+    // for timing noise (or -1 if none)
+    private fun finestFeasible(length: Double, remainingTime: Double, end: Int): Int {
+        if (sampleTime.isNaN()) {
+            return -1
+        }
+        for (i in 0 until end) {
+            if (BUDGET_SAFETY_FACTOR * (length / resolutions[i] + 1) * sampleTime <= remainingTime) {
+                return i
+            }
+        }
+        return -1
+    }
+
+    private fun plan(startTime: Double, pathBuilder: PathBuilder, start: MotionState): Trajectory {
+        val path = pathBuilder.build()
+        val pathTime = clock.seconds() - startTime
+        val length = path.length()
+
+        var index = finestFeasible(length, timeBudget - pathTime, resolutions.size)
+        if (index < 0) {
+            index = resolutions.size - 1
+        }
+        var attempts = 0
+        var trajectory: Trajectory
+        while (true) {
+            val attemptStart = clock.seconds()
+            trajectory = TrajectoryGenerator.generateTrajectory(
+                path,
+                constraints,
+                start,
+                resolution = resolutions[index]
+            )
+            attempts++
+
+            val attemptTime = clock.seconds() - attemptStart
+            val samples = length / resolutions[index] + 1
+            sampleTime = if (sampleTime.isNaN()) attemptTime / samples else 0.5 * (sampleTime + attemptTime / samples)
+
+            val next = finestFeasible(length, timeBudget - (clock.seconds() - startTime), index)
+            if (next < 0) {
+                break
+            }
+            index = next
+        }
+
+        val time = clock.seconds() - startTime
+        lastReport = Report(time, pathTime, resolutions[index], attempts, time > timeBudget)
+        return trajectory
+    }
+
+    /**
+     * Replans from [pose] moving along [tangent] in [state] (the displacement is ignored) to [goal] approached along
+     * [goalTangent] with spline heading interpolation.
+     */
+    fun replan(pose: Pose2d, tangent: Double, state: MotionState, goal: Pose2d, goalTangent: Double): Trajectory {
+        val startTime = clock.seconds()
+        return plan(
+            startTime,
+            PathBuilder(pose, tangent).splineToSplineHeading(goal, goalTangent),
+            MotionState(0.0, state.v, state.a)
+        )
+    }
+
+    /**
+     * Replans from [pose] moving along [tangent] in [state] (the displacement is ignored) to [goal] approached along
+     * [goalTangent] with tangent heading interpolation.
+     */
+    fun replan(pose: Pose2d, tangent: Double, state: MotionState, goal: Vector2d, goalTangent: Double): Trajectory {
+        val startTime = clock.seconds()
+        return plan(
+            startTime,
+            PathBuilder(pose, tangent).splineTo(goal, goalTangent),
+            MotionState(0.0, state.v, state.a)
+        )
+    }
+
+    /**
+     * Replans from [trajectory] at time [t] to [goal] approached along [goalTangent] with spline heading
+     * interpolation. Like [TrajectoryBuilder], the new path continues smoothly from the current one.
+     */
+    fun replan(trajectory: Trajectory, t: Double, goal: Pose2d, goalTangent: Double): Trajectory {
+        val startTime = clock.seconds()
+        val state = trajectory.profile[t]
+        return plan(
+            startTime,
+            PathBuilder(trajectory.path, state.x).splineToSplineHeading(goal, goalTangent),
+            MotionState(0.0, state.v, state.a)
+        )
+    }
+}
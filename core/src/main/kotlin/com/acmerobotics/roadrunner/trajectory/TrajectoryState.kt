@@ -0,0 +1,27 @@
+package com.acmerobotics.roadrunner.trajectory
+
+import com.acmerobotics.roadrunner.geometry.MutablePose2d
+
+/**
+ * Reusable holder for the target pose, velocity, and acceleration of a trajectory at some time (see
+ * [Trajectory.evaluate]).
+ */
+class TrajectoryState {
+    // profile position, velocity, acceleration, and jerk
+    internal val motion = DoubleArray(4)
+
+    /**
+     * Target pose.
+     */
+    val pose = MutablePose2d()
+
+    /**
+     * Target velocity.
+     */
+    val velocity = MutablePose2d()
+
+    /**
+     * Target acceleration.
+     */
+    val acceleration = MutablePose2d()
+}
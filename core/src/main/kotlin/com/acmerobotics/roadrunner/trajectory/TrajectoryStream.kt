@@ -0,0 +1,303 @@
+package com.acmerobotics.roadrunner.trajectory
+
+import com.acmerobotics.roadrunner.path.Path
+import com.acmerobotics.roadrunner.profile.MotionProfile
+import com.acmerobotics.roadrunner.profile.MotionProfileGenerator
+import com.acmerobotics.roadrunner.profile.MotionSegment
+import com.acmerobotics.roadrunner.profile.MotionState
+import com.acmerobotics.roadrunner.profile.SimpleMotionConstraints
+import com.acmerobotics.roadrunner.trajectory.constraints.AdaptiveConstraintSampler
+import com.acmerobotics.roadrunner.trajectory.constraints.TrajectoryConstraints
+import com.acmerobotics.roadrunner.util.BackgroundExecutor
+import com.acmerobotics.roadrunner.util.DoubleProgression
+import com.acmerobotics.roadrunner.util.EPSILON
+import java.util.concurrent.Executor
+import java.util.concurrent.locks.ReentrantLock
+import kotlin.concurrent.withLock
+import kotlin.math.ceil
+import kotlin.math.min
+import kotlin.math.sqrt
+
+/**
+ * Dynamic constraint trajectory generated incrementally in the background so following can start as soon as the
+ * first window of the profile is finished. Each window extends the profile by [window] and is published as a
+ * [Snapshot] that comes to rest at the end of the window. A snapshot is final (i.e., it matches the complete
+ * trajectory) up to its [Snapshot.horizon]; afterwards it only brakes for the artificial stop. Followers that run
+ * past the horizon before the next window is ready therefore slow down and wait at the window end instead of
+ * outrunning the generator (see [com.acmerobotics.roadrunner.followers.TrajectoryFollower.followTrajectory]). The
+ * goal is always the end of [path] at rest, and markers are only resolved once the whole profile is known. A stream
+ * supports a single follower.
+ *
+ * @param path path
+ * @param constraints trajectory constraints
+ * @param start start motion state
+ * @param temporalMarkers temporal markers
+ * @param displacementMarkers displacement markers
+ * @param spatialMarkers spatial markers
+ * @param window displacement added to the profile by each window
+ * @param resolution separation between constraint samples (ignored if [sampler] is not null)
+ * @param sampler optional adaptive constraint sampler
+ * @param executor executor running the background generation (one task per window; see [BackgroundExecutor])
+ */
+@Suppress("LongParameterList")
+class TrajectoryStream @JvmOverloads constructor(
+    val path: Path,
+    private val constraints: TrajectoryConstraints,
+    private val start: MotionState = MotionState(0.0, 0.0, 0.0),
+    private val temporalMarkers: List<TemporalMarker> = emptyList(),
+    private val displacementMarkers: List<DisplacementMarker> = emptyList(),
+    private val spatialMarkers: List<SpatialMarker> = emptyList(),
+    private val window: Double = 24.0,
+    private val resolution: Double = 0.25,
+    private val sampler: AdaptiveConstraintSampler? = null,
+    private val executor: Executor = BackgroundExecutor
+) {
+    /**
+     * Partially (or completely) generated trajectory.
+     *
+     * @param trajectory trajectory ending at rest at the end of the latest window
+     * @param horizon time up to which [trajectory] is final
+     * @param complete true if [trajectory] covers the whole path
+     */
+    class Snapshot internal constructor(
+        val trajectory: Trajectory,
+        val horizon: Double,
+        val complete: Boolean,
+        internal val epoch: Int,
+        internal val endIndex: Int
+    )
+
+    private val goalX = path.length()
+    private val uniformSamples = if (sampler == null) {
+        DoubleProgression.fromClosedInterval(start.x, goalX, ceil((goalX - start.x) / resolution).toInt())
+    } else {
+        null
+    }
+
+    // constraint samples generated so far (only accessed by the generation task)
+    private var sampleS = DoubleArray(0)
+    private val sampleConstraints = mutableListOf<SimpleMotionConstraints>()
+
+    // final part of the profile (only accessed by the generation task)
+    private val committed = mutableListOf<MotionSegment>()
+    private var committedDuration = 0.0
+    private var commitIndex = 0
+    private var commitState = MotionState(start.x, start.v)
+
+    // incremented on every rebase (written by the generation task under lock)
+    private var epoch = 0
+
+    private val lock = ReentrantLock()
+    private val published = lock.newCondition()
+    private var latest: Snapshot? = null
+    private var followed: Snapshot? = null
+    private var rebaseTarget: Snapshot? = null
+    private var running = true
+    private var failure: Exception? = null
+
+    init {
+        require(window > 0.0) { "The window must be positive" }
+        executor.execute(::generateWindow)
+    }
+
+    private fun appendSamples(s: DoubleArray, constraints: List<SimpleMotionConstraints>, from: Int) {
+        val size = sampleS.size
+        sampleS = sampleS.copyOf(size + s.size - from)
+        for (i in from until s.size) {
+            sampleS[size + i - from] = s[i]
+        }
+        sampleConstraints.addAll(constraints.subList(from, s.size))
+    }
+
+    // extends the constraint samples by one window (returns false if they already reach the goal)
+    private fun extendSamples(): Boolean {
+        val progression = uniformSamples
+        if (progression != null) {
+            val from = sampleS.size
+            if (from >= progression.size()) {
+                return false
+            }
+            val windowEnd = if (from == 0) progression[0] + window else sampleS[from - 1] + window
+            val to = min(progression.size(), progression.floorIndex(windowEnd) + 1).coerceAtLeast(from + 1)
+            val s = DoubleArray(to - from) { progression[from + it] }
+            appendSamples(s, s.map {
+                val t = path.reparam(it)
+                constraints[it, path[it, t], path.deriv(it, t), path.secondDeriv(it, t)]
+            }, 0)
+        } else {
+            val from = if (sampleS.isEmpty()) start.x else sampleS[sampleS.size - 1]
+            if (sampleS.isNotEmpty() && from >= goalX) {
+                return false
+            }
+            val (s, sampledConstraints) = sampler!!.sample(path, constraints, from, min(goalX, from + window))
+            appendSamples(s, sampledConstraints, if (sampleS.isEmpty()) 0 else 1)
+        }
+        return true
+    }
+
+    // returns the last window sample where the stop at the window end doesn't affect the profile anymore; from there
+    // on back, the backward pass from the stop coincides with the one from an unconstrained window end
+    private fun settledIndex(s: DoubleArray, constraints: List<SimpleMotionConstraints>): Int {
+        var stopVel = 0.0
+        for (i in s.size - 2 downTo 1) {
+            val constraint = constraints[i + 1]
+            stopVel = min(constraint.maxVel, sqrt(stopVel * stopVel + 2 * constraint.maxAccel * (s[i + 1] - s[i])))
+            if (stopVel == constraint.maxVel) {
+                return i
+            }
+        }
+        return 0
+    }
+
+    // restarts the committed profile from the end of the snapshot the follower is braking into
+    private fun rebase(target: Snapshot) {
+        committed.clear()
+        committed.addAll(target.trajectory.profile.segments)
+        committedDuration = target.trajectory.duration()
+        commitIndex = target.endIndex
+        commitState = MotionState(sampleS[target.endIndex], 0.0)
+    }
+
+    // generates the profile from the committed state to the end of the next window, commits its final part, and
+    // returns the resulting snapshot
+    private fun nextWindow(windowEpoch: Int): Snapshot {
+        val extended = extendSamples()
+        val endIndex = sampleS.size - 1
+        val complete = !extended || when (val progression = uniformSamples) {
+            null -> sampleS[endIndex] >= goalX
+            else -> endIndex == progression.size() - 1
+        }
+
+        val startIndex = commitIndex
+        val s = sampleS.copyOfRange(startIndex, endIndex + 1)
+        val windowConstraints = sampleConstraints.subList(startIndex, endIndex + 1)
+        val segments = if (s.size < 2) {
+            emptyList()
+        } else {
+            s[0] = commitState.x
+            MotionProfileGenerator.generateMotionProfile(
+                commitState,
+                MotionState(s[s.size - 1], 0.0, 0.0),
+                s,
+                windowConstraints
+            ).segments
+        }
+
+        // the profile is final up to the first segment starting at the settled sample
+        val settled = if (complete) 0 else settledIndex(s, windowConstraints)
+        val cut = if (complete) {
+            segments.size
+        } else {
+            segments.indexOfFirst { it.start.x >= s[settled] - EPSILON }.let { if (it < 0) segments.size else it }
+        }
+
+        val tail = segments.subList(cut, segments.size)
+        for (segment in segments.subList(0, cut)) {
+            committed.add(segment)
+            committedDuration += segment.dt
+        }
+        if (cut < segments.size) {
+            commitState = tail[0].start
+            commitIndex = startIndex + settled
+        } else {
+            commitIndex = endIndex
+        }
+
+        val profile = MotionProfile(committed + tail)
+        val markers = if (complete) {
+            TrajectoryGenerator.convertMarkers(
+                path,
+                profile,
+                temporalMarkers,
+                displacementMarkers,
+                spatialMarkers
+            )
+        } else {
+            emptyList()
+        }
+        val trajectory = Trajectory(path, profile, markers)
+        return Snapshot(trajectory, committedDuration, complete, windowEpoch, endIndex)
+    }
+
+    // generates and publishes the next window (only the publication holds the lock, so polling from the control loop
+    // never waits on generation)
+    private fun generateWindow() {
+        try {
+            val target = lock.withLock {
+                rebaseTarget?.also {
+                    epoch = it.epoch + 1
+                    rebaseTarget = null
+                }
+            }
+            if (target != null) {
+                // the follower is braking for the stop at the end of its snapshot; continue from there instead
+                rebase(target)
+            }
+            val snapshot = nextWindow(epoch)
+
+            lock.withLock {
+                if (rebaseTarget != null) {
+                    // the follower needs a rebase requested meanwhile; it discards this window with the committed state
+                    executor.execute(::generateWindow)
+                    return
+                }
+                check(snapshot.epoch == epoch) { "Stream rebased concurrently" }
+
+                latest = snapshot
+                published.signalAll()
+
+                if (snapshot.complete) {
+                    running = false
+                } else {
+                    executor.execute(::generateWindow)
+                }
+            }
+        } catch (e: Exception) {
+            lock.withLock {
+                failure = e
+                running = false
+                published.signalAll()
+            }
+        }
+    }
+
+    private fun checkFailure() {
+        failure?.let { throw IllegalStateException("Trajectory generation failed", it) }
+    }
+
+    /**
+     * Returns the snapshot to follow at [time] (relative to the start of the trajectory), blocking until the first
+     * window is ready. Newer snapshots are only handed out while [time] is within the horizon of the last returned
+     * one; otherwise the last snapshot stays in effect and the remaining windows are regenerated from its end.
+     */
+    fun poll(time: Double): Snapshot = lock.withLock {
+        while (latest == null && failure == null) {
+            published.await()
+        }
+        checkFailure()
+
+        val latest = latest!!
+        val current = followed
+        if (current == null || latest.epoch > current.epoch || (latest !== current && time <= current.horizon)) {
+            followed = latest
+        } else if (time > current.horizon && !current.complete && rebaseTarget == null && latest.epoch == epoch) {
+            rebaseTarget = current
+            if (!running) {
+                running = true
+                executor.execute(::generateWindow)
+            }
+        }
+        followed!!
+    }
+
+    /**
+     * Blocks until the whole trajectory is generated and returns it.
+     */
+    fun await(): Trajectory = lock.withLock {
+        while (failure == null && (running || latest?.complete != true)) {
+            published.await()
+        }
+        checkFailure()
+        latest!!.trajectory
+    }
+}
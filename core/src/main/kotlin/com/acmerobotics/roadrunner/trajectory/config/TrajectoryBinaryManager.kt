@@ -0,0 +1,284 @@
+package com.acmerobotics.roadrunner.trajectory.config
+
+import com.acmerobotics.roadrunner.geometry.Vector2d
+import com.acmerobotics.roadrunner.path.LineSegment
+import com.acmerobotics.roadrunner.path.ParametricCurve
+import com.acmerobotics.roadrunner.path.Path
+import com.acmerobotics.roadrunner.path.PathSegment
+import com.acmerobotics.roadrunner.path.QuinticPolynomial
+import com.acmerobotics.roadrunner.path.QuinticSpline
+import com.acmerobotics.roadrunner.path.heading.ConstantInterpolator
+import com.acmerobotics.roadrunner.path.heading.HeadingInterpolator
+import com.acmerobotics.roadrunner.path.heading.LinearInterpolator
+import com.acmerobotics.roadrunner.path.heading.SplineInterpolator
+import com.acmerobotics.roadrunner.path.heading.TangentInterpolator
+import com.acmerobotics.roadrunner.path.heading.WiggleInterpolator
+import com.acmerobotics.roadrunner.profile.MotionProfile
+import com.acmerobotics.roadrunner.profile.PackedMotionProfile
+import com.acmerobotics.roadrunner.trajectory.MarkerCallback
+import com.acmerobotics.roadrunner.trajectory.Trajectory
+import com.acmerobotics.roadrunner.trajectory.TrajectoryMarker
+import java.io.BufferedOutputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.io.FileOutputStream
+import java.io.InputStream
+import java.io.OutputStream
+import java.io.RandomAccessFile
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.nio.channels.FileChannel
+
+private const val MAGIC = 0x52525452 // "RRTR"
+
+private const val DOUBLE_BYTES = 8
+
+private const val CURVE_LINE: Byte = 0
+private const val CURVE_QUINTIC_SPLINE: Byte = 1
+
+private const val INTERPOLATOR_TANGENT: Byte = 0
+private const val INTERPOLATOR_CONSTANT: Byte = 1
+private const val INTERPOLATOR_LINEAR: Byte = 2
+private const val INTERPOLATOR_SPLINE: Byte = 3
+private const val INTERPOLATOR_WIGGLE: Byte = 4
+
+/**
+ * Class containing methods for saving (loading) fully generated trajectories to (from) a compact binary format. Unlike
+ * [TrajectoryConfigManager], loading doesn't parse YAML or regenerate the motion profile: the file holds the path
+ * segments (the polynomial coefficients of each curve along with its parameterization settings and the arguments of
+ * each heading interpolator), the packed profile segments, and the resolved marker times. Files are read through a
+ * [ByteBuffer], so they can be memory-mapped (see [load]).
+ *
+ * The format (big-endian) is the magic number `RRTR` and [VERSION] followed by the number of path segments and each
+ * segment (a curve tag and its values and an interpolator tag and its values), the number of profile segments and the
+ * profile arrays (start positions, velocities, accelerations, jerks, and durations), and the number of markers and
+ * their times. Marker callbacks can't be stored; pass them to [load] in order of increasing marker time.
+ *
+ * Spline arc length parameterizations aren't stored either: only their settings are, and [load] recomputes them (the
+ * path length is needed to build the trajectory), so loading still costs one parameterization per spline.
+ */
+object TrajectoryBinaryManager {
+    /**
+     * Version of the binary format written by [save]. Loading other versions fails.
+     */
+    const val VERSION = 1
+
+    @JvmField
+    val FILE_EXTENSION = ".traj"
+
+    private fun DataOutputStream.writeCurve(curve: ParametricCurve) {
+        when (curve) {
+            is LineSegment -> {
+                writeByte(CURVE_LINE.toInt())
+                writeDouble(curve.start.x)
+                writeDouble(curve.start.y)
+                writeDouble(curve.end.x)
+                writeDouble(curve.end.y)
+            }
+            is QuinticSpline -> {
+                writeByte(CURVE_QUINTIC_SPLINE.toInt())
+                for (polynomial in listOf(curve.x, curve.y)) {
+                    writeDouble(polynomial.a)
+                    writeDouble(polynomial.b)
+                    writeDouble(polynomial.c)
+                    writeDouble(polynomial.d)
+                    writeDouble(polynomial.e)
+                    writeDouble(polynomial.f)
+                }
+                writeDouble(curve.maxDeltaK)
+                writeDouble(curve.maxSegmentLength)
+                writeInt(curve.maxDepth)
+                writeDouble(curve.arcLengthTolerance)
+                writeDouble(curve.chebyshevTolerance)
+            }
+            else -> throw IllegalArgumentException("Unsupported curve type ${curve.javaClass.name}")
+        }
+    }
+
+    private fun DataOutputStream.writeInterpolator(interpolator: HeadingInterpolator) {
+        when (interpolator) {
+            is TangentInterpolator -> {
+                writeByte(INTERPOLATOR_TANGENT.toInt())
+                writeDouble(interpolator.offset)
+            }
+            is ConstantInterpolator -> {
+                writeByte(INTERPOLATOR_CONSTANT.toInt())
+                writeDouble(interpolator.heading)
+            }
+            is LinearInterpolator -> {
+                writeByte(INTERPOLATOR_LINEAR.toInt())
+                writeDouble(interpolator.startHeading)
+                writeDouble(interpolator.angle)
+            }
+            is SplineInterpolator -> {
+                // unspecified derivatives are stored as NaN
+                writeByte(INTERPOLATOR_SPLINE.toInt())
+                writeDouble(interpolator.startHeading)
+                writeDouble(interpolator.endHeading)
+                writeDouble(interpolator.startHeadingDeriv ?: Double.NaN)
+                writeDouble(interpolator.startHeadingSecondDeriv ?: Double.NaN)
+                writeDouble(interpolator.endHeadingDeriv ?: Double.NaN)
+                writeDouble(interpolator.endHeadingSecondDeriv ?: Double.NaN)
+            }
+            is WiggleInterpolator -> {
+                writeByte(INTERPOLATOR_WIGGLE.toInt())
+                writeDouble(interpolator.amplitude)
+                writeDouble(interpolator.desiredPeriod)
+                writeInterpolator(interpolator.baseInterpolator)
+            }
+            else -> throw IllegalArgumentException(
+                "Unsupported heading interpolator type ${interpolator.javaClass.name}"
+            )
+        }
+    }
+
+    private fun DataOutputStream.writeDoubles(values: DoubleArray) {
+        for (value in values) {
+            writeDouble(value)
+        }
+    }
+
+    /**
+     * Writes [trajectory] to [outputStream] (which is left open).
+     */
+    @JvmStatic
+    fun save(trajectory: Trajectory, outputStream: OutputStream) {
+        val out = DataOutputStream(BufferedOutputStream(outputStream))
+        out.writeInt(MAGIC)
+        out.writeInt(VERSION)
+
+        val segments = trajectory.path.segments
+        out.writeInt(segments.size)
+        for (segment in segments) {
+            out.writeCurve(segment.curve)
+            out.writeInterpolator(segment.interpolator)
+        }
+
+        val profile = trajectory.profile.packed
+        out.writeInt(profile.size())
+        out.writeDoubles(profile.x)
+        out.writeDoubles(profile.v)
+        out.writeDoubles(profile.a)
+        out.writeDoubles(profile.j)
+        out.writeDoubles(profile.dt)
+
+        val markers = trajectory.markers.sortedBy { it.time }
+        out.writeInt(markers.size)
+        for (marker in markers) {
+            out.writeDouble(marker.time)
+        }
+        out.flush()
+    }
+
+    /**
+     * Saves [trajectory] to [file].
+     */
+    @JvmStatic
+    fun save(trajectory: Trajectory, file: File) {
+        FileOutputStream(file).use { save(trajectory, it) }
+    }
+
+    /**
+     * Returns [trajectory] in the binary format.
+     */
+    @JvmStatic
+    fun toByteArray(trajectory: Trajectory): ByteArray {
+        val bytes = ByteArrayOutputStream()
+        save(trajectory, bytes)
+        return bytes.toByteArray()
+    }
+
+    private fun ByteBuffer.readCurve(): ParametricCurve =
+        when (val tag = get()) {
+            CURVE_LINE -> LineSegment(Vector2d(double, double), Vector2d(double, double))
+            CURVE_QUINTIC_SPLINE -> QuinticSpline(
+                QuinticPolynomial(readDoubles(6)),
+                QuinticPolynomial(readDoubles(6)),
+                double,
+                double,
+                int,
+                double,
+                double
+            )
+            else -> throw IllegalArgumentException("Unknown curve tag $tag")
+        }
+
+    private fun ByteBuffer.readNullableDouble() = double.let { if (it.isNaN()) null else it }
+
+    private fun ByteBuffer.readInterpolator(): HeadingInterpolator =
+        when (val tag = get()) {
+            INTERPOLATOR_TANGENT -> TangentInterpolator(double)
+            INTERPOLATOR_CONSTANT -> ConstantInterpolator(double)
+            INTERPOLATOR_LINEAR -> LinearInterpolator(double, double)
+            INTERPOLATOR_SPLINE -> SplineInterpolator(
+                double,
+                double,
+                readNullableDouble(),
+                readNullableDouble(),
+                readNullableDouble(),
+                readNullableDouble()
+            )
+            INTERPOLATOR_WIGGLE -> WiggleInterpolator(double, double, readInterpolator())
+            else -> throw IllegalArgumentException("Unknown heading interpolator tag $tag")
+        }
+
+    private fun ByteBuffer.readDoubles(size: Int): DoubleArray {
+        val values = DoubleArray(size)
+        asDoubleBuffer().get(values)
+        position(position() + size * DOUBLE_BYTES)
+        return values
+    }
+
+    /**
+     * Reads a trajectory from [buffer] starting at its position (which is advanced past the trajectory; the byte order
+     * of [buffer] is set to big-endian). The marker callbacks are paired with the stored marker times in order; there
+     * must be exactly one per stored marker so markers are never dropped silently.
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun load(buffer: ByteBuffer, markerCallbacks: List<MarkerCallback> = emptyList()): Trajectory {
+        buffer.order(ByteOrder.BIG_ENDIAN)
+        val magic = buffer.int
+        require(magic == MAGIC) { "Not a binary trajectory" }
+        val version = buffer.int
+        require(version == VERSION) { "Unsupported binary trajectory version $version (expected $VERSION)" }
+
+        val segments = List(buffer.int) { PathSegment(buffer.readCurve(), buffer.readInterpolator()) }
+
+        val profileSize = buffer.int
+        val profile = PackedMotionProfile(
+            buffer.readDoubles(profileSize),
+            buffer.readDoubles(profileSize),
+            buffer.readDoubles(profileSize),
+            buffer.readDoubles(profileSize),
+            buffer.readDoubles(profileSize)
+        )
+
+        val markerTimes = buffer.readDoubles(buffer.int)
+        require(markerCallbacks.size == markerTimes.size) {
+            "Expected ${markerTimes.size} marker callbacks but got ${markerCallbacks.size}"
+        }
+        val markers = markerCallbacks.mapIndexed { i, callback -> TrajectoryMarker(markerTimes[i], callback) }
+
+        return Trajectory(Path(segments), MotionProfile(profile), markers)
+    }
+
+    /**
+     * Loads a trajectory from [file] by memory-mapping it (see [load]).
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun load(file: File, markerCallbacks: List<MarkerCallback> = emptyList()): Trajectory =
+        RandomAccessFile(file, "r").use {
+            load(it.channel.map(FileChannel.MapMode.READ_ONLY, 0, it.length()), markerCallbacks)
+        }
+
+    /**
+     * Loads a trajectory from [inputStream] (see [load]).
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun load(inputStream: InputStream, markerCallbacks: List<MarkerCallback> = emptyList()): Trajectory =
+        load(ByteBuffer.wrap(inputStream.readBytes()), markerCallbacks)
+}
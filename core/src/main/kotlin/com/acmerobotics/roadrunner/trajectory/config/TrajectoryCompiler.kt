@@ -0,0 +1,110 @@
+package com.acmerobotics.roadrunner.trajectory.config
+
+import java.io.File
+import java.util.concurrent.Executor
+import java.util.concurrent.Executors
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.FutureTask
+import kotlin.system.exitProcess
+
+/**
+ * Class containing methods for compiling the trajectory configurations in a directory (every `*.yaml` file besides
+ * [TrajectoryConfigManager.GROUP_FILENAME]) into binary artifacts ahead of time (see [TrajectoryBinaryManager]). Each
+ * trajectory is generated in its own task, so the configurations are compiled in parallel. [main] is the entry point
+ * of the TeamCode `compileTrajectories` Gradle task.
+ */
+object TrajectoryCompiler {
+    /**
+     * Outcome of compiling a single trajectory configuration.
+     *
+     * @param name trajectory name (the configuration file name without the extension)
+     * @param output compiled artifact (null if the compilation failed)
+     * @param error cause of the failure (null if the compilation succeeded)
+     * @param time compilation time in seconds
+     */
+    class Result(
+        val name: String,
+        val output: File?,
+        val error: Throwable?,
+        val time: Double
+    )
+
+    // any exception means the configuration is invalid and is reported with the result
+    @Suppress("TooGenericExceptionCaught")
+    private fun compile(file: File, groupConfig: TrajectoryGroupConfig, outputDir: File): Result {
+        val name = file.nameWithoutExtension
+        val startTime = System.nanoTime()
+        return try {
+            val config = TrajectoryConfigManager.loadConfig(file)
+                ?: throw IllegalArgumentException("Empty trajectory config")
+            val trajectory = config.toTrajectory(groupConfig)
+                ?: throw IllegalArgumentException("Unable to build the trajectory")
+            require(trajectory.duration().isFinite()) { "The trajectory duration is not finite" }
+
+            val output = File(outputDir, name + TrajectoryBinaryManager.FILE_EXTENSION)
+            TrajectoryBinaryManager.save(trajectory, output)
+            Result(name, output, null, (System.nanoTime() - startTime) / 1e9)
+        } catch (e: Exception) {
+            Result(name, null, e, (System.nanoTime() - startTime) / 1e9)
+        }
+    }
+
+    /**
+     * Compiles every trajectory configuration in [inputDir] into [outputDir] (replacing any artifacts already there)
+     * and returns the results in order of file name. Invalid configurations don't stop the others from compiling;
+     * check [Result.error].
+     *
+     * @param inputDir directory containing the configurations and their group configuration
+     * @param outputDir directory receiving the artifacts
+     * @param executor executor compiling the configurations (one task per configuration)
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun compile(inputDir: File, outputDir: File, executor: Executor = ForkJoinPool.commonPool()): List<Result> {
+        val groupConfig = requireNotNull(TrajectoryConfigManager.loadGroupConfig(inputDir)) {
+            "$inputDir has no ${TrajectoryConfigManager.GROUP_FILENAME}"
+        }
+        val files = inputDir.listFiles { file ->
+            file.isFile && file.extension == "yaml" && file.name != TrajectoryConfigManager.GROUP_FILENAME
+        }.orEmpty().sortedBy { it.name }
+
+        outputDir.mkdirs()
+        // remove the artifacts of deleted or renamed configurations
+        outputDir.listFiles { file -> file.name.endsWith(TrajectoryBinaryManager.FILE_EXTENSION) }
+            ?.forEach { it.delete() }
+
+        val tasks = files.map { file ->
+            FutureTask { compile(file, groupConfig, outputDir) }.also { executor.execute(it) }
+        }
+        return tasks.map { it.get() }
+    }
+
+    /**
+     * Compiles the configurations in the directory given by the first argument into the directory given by the
+     * second argument using one thread per processor. Exits with a nonzero status if any configuration is invalid.
+     */
+    @JvmStatic
+    fun main(args: Array<String>) {
+        require(args.size == 2) { "Usage: TrajectoryCompiler <input directory> <output directory>" }
+
+        val executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors())
+        val results = try {
+            compile(File(args[0]), File(args[1]), executor)
+        } finally {
+            executor.shutdown()
+        }
+
+        for (result in results) {
+            if (result.error == null) {
+                println(String.format("%s: compiled in %.1f ms", result.name, result.time * 1e3))
+            } else {
+                System.err.println("${result.name}: ${result.error}")
+            }
+        }
+        val failures = results.count { it.error != null }
+        if (failures > 0) {
+            System.err.println("$failures of ${results.size} trajectories are invalid")
+            exitProcess(1)
+        }
+    }
+}
@@ -2,12 +2,17 @@ package com.acmerobotics.roadrunner.trajectory.config
 
 import com.acmerobotics.roadrunner.trajectory.Trajectory
 import com.acmerobotics.roadrunner.trajectory.TrajectoryBuilder
+import com.acmerobotics.roadrunner.util.BackgroundExecutor
 import com.fasterxml.jackson.annotation.JsonInclude
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory
 import com.fasterxml.jackson.module.kotlin.registerKotlinModule
 import java.io.File
 import java.io.InputStream
+import java.util.concurrent.Callable
+import java.util.concurrent.Executor
+import java.util.concurrent.Future
+import java.util.concurrent.FutureTask
 
 /**
  * Class containing methods for saving (loading) trajectory configurations to (from) YAML files.
@@ -18,6 +23,19 @@ object TrajectoryConfigManager {
 
     private val MAPPER = ObjectMapper(YAMLFactory())
 
+    /**
+     * Trajectory generated by [loadGroupParallel].
+     *
+     * @param name trajectory name (the config file name without the extension)
+     * @param trajectory generated trajectory
+     * @param time time taken to load the config and generate the trajectory in seconds
+     */
+    class GeneratedTrajectory(
+        val name: String,
+        val trajectory: Trajectory,
+        val time: Double
+    )
+
     init {
         MAPPER.registerKotlinModule()
         MAPPER.setSerializationInclusion(JsonInclude.Include.NON_NULL)
@@ -77,7 +95,7 @@ object TrajectoryConfigManager {
     @JvmStatic
     fun loadBuilder(file: File): TrajectoryBuilder? {
         val config = loadConfig(file) ?: return null
-        return config.toTrajectoryBuilder(loadGroupConfig(file) ?: return null)
+        return config.toTrajectoryBuilder(loadGroupConfig(file.parentFile) ?: return null)
     }
 
     /**
@@ -85,4 +103,51 @@ object TrajectoryConfigManager {
      */
     @JvmStatic
     fun load(file: File) = loadBuilder(file)?.build()
+
+    /**
+     * Generates the trajectories of a group in parallel. Each config is loaded by the callable of the same name and
+     * turned into a trajectory with [groupConfig] in its own task on [executor] (see [BackgroundExecutor]). The
+     * returned futures (in the order of [configLoaders]) throw if the config can't be loaded or the trajectory can't be
+     * generated.
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun generateGroupParallel(
+        groupConfig: TrajectoryGroupConfig,
+        configLoaders: Map<String, Callable<TrajectoryConfig?>>,
+        executor: Executor = BackgroundExecutor
+    ): Map<String, Future<GeneratedTrajectory>> =
+        configLoaders.mapValuesTo(LinkedHashMap()) { (name, loader) ->
+            val task = FutureTask {
+                val startTime = System.nanoTime()
+                val config = loader.call() ?: throw IllegalArgumentException("Unable to load trajectory config $name")
+                val trajectory = config.toTrajectory(groupConfig)
+                    ?: throw IllegalArgumentException("Unable to generate trajectory $name")
+                GeneratedTrajectory(name, trajectory, (System.nanoTime() - startTime) / 1e9)
+            }
+            executor.execute(task)
+            task
+        }
+
+    /**
+     * Loads and generates every trajectory in [dir] (all `*.yaml` files besides [GROUP_FILENAME]) in parallel (see
+     * [generateGroupParallel]). The futures are keyed by trajectory name in alphabetical order. Returns null if [dir]
+     * has no group config.
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun loadGroupParallel(
+        dir: File,
+        executor: Executor = BackgroundExecutor
+    ): Map<String, Future<GeneratedTrajectory>>? {
+        val groupConfig = loadGroupConfig(dir) ?: return null
+        val files = dir.listFiles { file ->
+            file.isFile && file.extension == "yaml" && file.name != GROUP_FILENAME
+        }.orEmpty().sortedBy { it.name }
+        return generateGroupParallel(
+            groupConfig,
+            files.associate { file -> file.nameWithoutExtension to Callable { loadConfig(file) } },
+            executor
+        )
+    }
 }
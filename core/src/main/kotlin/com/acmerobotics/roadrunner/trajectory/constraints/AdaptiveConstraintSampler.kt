@@ -0,0 +1,128 @@
+package com.acmerobotics.roadrunner.trajectory.constraints
+
+import com.acmerobotics.roadrunner.path.Path
+import com.acmerobotics.roadrunner.profile.SimpleMotionConstraints
+import kotlin.math.abs
+import kotlin.math.ceil
+import kotlin.math.max
+
+/**
+ * Samples trajectory constraints along a path with a spacing that adapts to the path instead of a fixed resolution.
+ * Each path segment starts out with samples at most [maxResolution] apart and intervals are halved (down to
+ * [minResolution]) while the constraints change by more than [tolerance] (relative) across them or the path turns by
+ * more than [maxTurn] (the tangent plus heading rotation estimated from the curvature and heading derivative).
+ * Straight constant-heading stretches thus cost a few samples while tight turns are sampled more finely than the
+ * default uniform resolution. The sampler holds no per-call state, so a single instance can be shared by concurrent
+ * generations.
+ *
+ * @param minResolution minimum separation between samples
+ * @param maxResolution maximum separation between samples
+ * @param tolerance maximum relative change in the sampled velocity and acceleration limits between samples
+ * @param maxTurn maximum rotation (in radians) between samples
+ * @param listener optional listener told the number of samples taken by each call to [sample] (including the calls
+ * made by [com.acmerobotics.roadrunner.trajectory.TrajectoryBuilder] and
+ * [com.acmerobotics.roadrunner.trajectory.TrajectoryGenerator]); it's called on the generating thread
+ */
+class AdaptiveConstraintSampler @JvmOverloads constructor(
+    val minResolution: Double = 0.125,
+    val maxResolution: Double = 2.0,
+    val tolerance: Double = 0.005,
+    val maxTurn: Double = 0.1,
+    private val listener: SampleCountListener? = null
+) {
+    init {
+        require(minResolution > 0.0 && maxResolution >= minResolution) { "Invalid sampler resolutions" }
+    }
+
+    private class Sample(val s: Double, val constraints: SimpleMotionConstraints, val turnRate: Double)
+
+    private fun evaluate(path: Path, constraints: TrajectoryConstraints, s: Double): Sample {
+        val t = path.reparam(s)
+        val deriv = path.deriv(s, t)
+        val secondDeriv = path.secondDeriv(s, t)
+        // the path is parametrized by arc length so the curvature is just the cross product of the derivatives
+        val curvature = deriv.x * secondDeriv.y - deriv.y * secondDeriv.x
+        return Sample(
+            s,
+            constraints[s, path[s, t], deriv, secondDeriv],
+            abs(curvature) + abs(deriv.heading)
+        )
+    }
+
+    private fun relativeChange(a: Double, b: Double): Double {
+        val scale = max(abs(a), abs(b))
+        return if (scale == 0.0) 0.0 else abs(a - b) / scale
+    }
+
+    private fun shouldSplit(first: Sample, second: Sample): Boolean {
+        val length = second.s - first.s
+        if (length < 2 * minResolution) {
+            return false
+        }
+        return relativeChange(first.constraints.maxVel, second.constraints.maxVel) > tolerance ||
+            relativeChange(first.constraints.maxAccel, second.constraints.maxAccel) > tolerance ||
+            max(first.turnRate, second.turnRate) * length > maxTurn
+    }
+
+    // appends the samples strictly after first up to and including second
+    private fun refine(
+        path: Path,
+        constraints: TrajectoryConstraints,
+        first: Sample,
+        second: Sample,
+        samples: MutableList<Sample>
+    ) {
+        if (shouldSplit(first, second)) {
+            val mid = evaluate(path, constraints, 0.5 * (first.s + second.s))
+            refine(path, constraints, first, mid, samples)
+            refine(path, constraints, mid, second, samples)
+        } else {
+            samples.add(second)
+        }
+    }
+
+    /**
+     * Samples [constraints] along [path] from displacement [start] to [end] (inclusive). Returns the sample positions
+     * and the corresponding constraints (the number of samples is the size of either, which is also passed to the
+     * listener).
+     */
+    fun sample(
+        path: Path,
+        constraints: TrajectoryConstraints,
+        start: Double,
+        end: Double
+    ): Pair<DoubleArray, List<SimpleMotionConstraints>> {
+        // every path segment boundary is a sample so features of short segments aren't skipped over
+        val knots = mutableListOf(start)
+        var segmentEnd = 0.0
+        for (segment in path.segments) {
+            segmentEnd += segment.length()
+            if (segmentEnd > start && segmentEnd < end) {
+                knots.add(segmentEnd)
+            }
+        }
+        knots.add(end)
+
+        val samples = mutableListOf<Sample>()
+        var last = evaluate(path, constraints, start)
+        samples.add(last)
+        for (i in 1 until knots.size) {
+            val knotStart = knots[i - 1]
+            val knotLength = knots[i] - knotStart
+            if (knotLength <= 0.0) {
+                continue
+            }
+            // at least two intervals per knot span so curvature inside it is observed
+            val intervals = max(2, ceil(knotLength / maxResolution).toInt())
+            for (j in 1..intervals) {
+                val s = if (j == intervals) knots[i] else knotStart + knotLength * j / intervals
+                val next = evaluate(path, constraints, s)
+                refine(path, constraints, last, next, samples)
+                last = next
+            }
+        }
+
+        listener?.onSampled(samples.size)
+        return DoubleArray(samples.size) { samples[it].s } to samples.map { it.constraints }
+    }
+}
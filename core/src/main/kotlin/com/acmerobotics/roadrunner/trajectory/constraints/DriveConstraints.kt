@@ -11,7 +11,7 @@ import com.acmerobotics.roadrunner.util.epsilonEquals
  *
  * @param maxVel maximum robot velocity
  * @param maxAccel maximum robot acceleration
- * @param maxJerk maximum robot jerk (ignored by dynamic profiles)
+ * @param maxJerk maximum robot jerk (ignored by dynamic profiles unless they're jerk-limited)
  * @param maxAngVel maximum angular velocity
  * @param maxAngAccel maximum angular acceleration (ignored by trajectories)
  * @param maxAngJerk maximum angular jerk (ignored by trajectories)
@@ -31,6 +31,6 @@ open class DriveConstraints(
             maxVels.add(maxAngVel / Math.abs(deriv.heading))
         }
 
-        return SimpleMotionConstraints(maxVels.min() ?: 0.0, maxAccel)
+        return SimpleMotionConstraints(maxVels.min() ?: 0.0, maxAccel, maxJerk)
     }
 }
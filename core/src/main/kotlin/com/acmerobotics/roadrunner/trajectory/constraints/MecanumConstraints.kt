@@ -37,6 +37,7 @@ open class MecanumConstraints @JvmOverloads constructor(
 
         val superConstraints = super.get(s, pose, deriv, secondDeriv)
 
-        return SimpleMotionConstraints(min(superConstraints.maxVel, maxTrajVel), superConstraints.maxAccel)
+        return SimpleMotionConstraints(min(superConstraints.maxVel, maxTrajVel), superConstraints.maxAccel,
+            superConstraints.maxJerk)
     }
 }
@@ -0,0 +1,6 @@
+package com.acmerobotics.roadrunner.trajectory.constraints;
+
+// TODO: migrate this back to Kotlin when SAM/fun interfaces are ready
+public interface SampleCountListener {
+    void onSampled(int sampleCount);
+}
@@ -35,6 +35,6 @@ open class SwerveConstraints @JvmOverloads constructor(
         val superConstraints = super.get(s, pose, deriv, secondDeriv)
 
         return SimpleMotionConstraints(min(superConstraints.maxVel, maxTrajVel),
-            superConstraints.maxAccel)
+            superConstraints.maxAccel, superConstraints.maxJerk)
     }
 }
@@ -32,6 +32,7 @@ open class TankConstraints(
 
         val superConstraints = super.get(s, pose, deriv, secondDeriv)
 
-        return SimpleMotionConstraints(min(superConstraints.maxVel, maxTrajVel), superConstraints.maxAccel)
+        return SimpleMotionConstraints(min(superConstraints.maxVel, maxTrajVel), superConstraints.maxAccel,
+            superConstraints.maxJerk)
     }
 }
@@ -0,0 +1,27 @@
+package com.acmerobotics.roadrunner.util
+
+import java.util.concurrent.Executor
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Executor used for background work when none is given (e.g., streamed trajectory generation). It's a fixed pool of
+ * daemon threads (one per processor) created on first use. Unlike `ForkJoinPool.commonPool()`, it's available on every
+ * Android API level the library supports. Code that owns its lifecycle (e.g., an OpMode) should pass its own executor
+ * and shut it down when it's done.
+ */
+object BackgroundExecutor : Executor {
+    private val threadCount = AtomicInteger()
+
+    private val pool: ExecutorService by lazy {
+        Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), ThreadFactory { runnable ->
+            Thread(runnable, "road-runner-background-${threadCount.incrementAndGet()}").apply { isDaemon = true }
+        })
+    }
+
+    override fun execute(command: Runnable) {
+        pool.execute(command)
+    }
+}
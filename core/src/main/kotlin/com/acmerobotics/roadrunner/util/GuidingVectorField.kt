@@ -2,6 +2,8 @@ package com.acmerobotics.roadrunner.util
 
 import com.acmerobotics.roadrunner.geometry.Vector2d
 import com.acmerobotics.roadrunner.path.Path
+import com.acmerobotics.roadrunner.path.PathProjector
+import java.util.concurrent.Executor
 import kotlin.math.sign
 
 /**
@@ -13,11 +15,13 @@ import kotlin.math.sign
  * @param path path to follow (interpolator is ignored)
  * @param kN path normal weight (see eq. (9))
  * @param errorMapFunc custom error mapping (see eq. (4))
+ * @param projector projector for global projections onto [path]
  */
-class GuidingVectorField(
-    private val path: Path,
+class GuidingVectorField @JvmOverloads constructor(
+    val path: Path,
     private val kN: Double,
-    private val errorMapFunc: (Double) -> Double = { it }
+    private val errorMapFunc: (Double) -> Double = { it },
+    private val projector: PathProjector = path.projector
 ) {
 
     /**
@@ -35,12 +39,57 @@ class GuidingVectorField(
         val error: Double
     )
 
+    /**
+     * Optional precomputed grid answering [get] and [getExtended] (without a guess) for points inside it (unless the
+     * surrounding nodes project onto different parts of the path; see [GuidingVectorFieldGrid.getExtendedNear]).
+     */
+    var grid: GuidingVectorFieldGrid? = null
+        private set
+
+    /**
+     * Precomputes the vector field on a grid (see [GuidingVectorFieldGrid]) that answers subsequent [get] and
+     * [getExtended] queries inside its bounds.
+     */
+    @Suppress("LongParameterList")
+    @JvmOverloads
+    fun precompute(
+        minX: Double = -72.0,
+        minY: Double = -72.0,
+        maxX: Double = 72.0,
+        maxY: Double = 72.0,
+        cellSize: Double = 1.0,
+        executor: Executor = BackgroundExecutor
+    ): GuidingVectorFieldGrid {
+        val grid = GuidingVectorFieldGrid(this, minX, minY, maxX, maxY, cellSize, executor)
+        this.grid = grid
+        return grid
+    }
+
+    internal fun getProjected(x: Double, y: Double): GVFResult {
+        val point = Vector2d(x, y)
+        return getExtended(point, projector.project(point))
+    }
+
+    /**
+     * Returns the normalized value of the vector field at the given point along with useful intermediate computations.
+     * The point is projected onto the path globally with [projector] unless [grid] answers it.
+     */
+    fun getExtended(x: Double, y: Double) = grid?.getExtendedNear(x, y) ?: getProjected(x, y)
+
     /**
      * Returns the normalized value of the vector field at the given point along with useful intermediate computations.
+     * The point is projected onto the path locally with [Path.fastProject] starting at [projectGuess].
      */
-    fun getExtended(x: Double, y: Double, projectGuess: Double = path.length() / 2.0): GVFResult {
+    fun getExtended(x: Double, y: Double, projectGuess: Double): GVFResult {
         val point = Vector2d(x, y)
-        val displacement = path.fastProject(Vector2d(x, y), projectGuess)
+        return getExtended(point, path.fastProject(point, projectGuess))
+    }
+
+    /**
+     * Returns the normalized value of the vector field at [point] along with useful intermediate computations given
+     * the [displacement] of its (already computed) projection onto the path.
+     */
+    fun getExtended(point: Vector2d, displacement: Double): GVFResult {
         val pathPoint = path[displacement].vec()
         val tangent = path.deriv(displacement).vec()
         val pathToPoint = point - pathPoint
@@ -0,0 +1,191 @@
+package com.acmerobotics.roadrunner.util
+
+import com.acmerobotics.roadrunner.geometry.Vector2d
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executor
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.math.abs
+import kotlin.math.ceil
+import kotlin.math.floor
+import kotlin.math.max
+import kotlin.math.min
+import kotlin.math.sqrt
+
+/**
+ * Precomputed [GuidingVectorField] sampled on a regular grid of nodes covering a rectangle (by default the 144 in
+ * field centered on the origin). Queries inside the rectangle bilinearly interpolate the four surrounding nodes, so
+ * they take constant time regardless of the path. The nodes are computed with global projections a row at a time by
+ * the constructing thread and by helper tasks on the executor, which take rows from a shared counter; the constructor
+ * only waits for rows other threads have started, so it completes even if no helper task ever runs (e.g., when called
+ * from tasks occupying every thread of the executor). Cells straddling points equidistant from two parts of the path
+ * (e.g., between the branches of a hairpin) would interpolate between projections onto different branches;
+ * [getExtendedNear] detects these cells by the spread of their node displacements and returns null so the caller can
+ * project locally instead.
+ *
+ * @param gvf guiding vector field
+ * @param minX minimum x coordinate
+ * @param minY minimum y coordinate
+ * @param maxX maximum x coordinate
+ * @param maxY maximum y coordinate
+ * @param cellSize spacing between grid nodes
+ * @param executor executor running the helper tasks (see [BackgroundExecutor])
+ */
+@Suppress("LongParameterList")
+class GuidingVectorFieldGrid @JvmOverloads constructor(
+    gvf: GuidingVectorField,
+    val minX: Double = -72.0,
+    val minY: Double = -72.0,
+    val maxX: Double = 72.0,
+    val maxY: Double = 72.0,
+    val cellSize: Double = 1.0,
+    executor: Executor = BackgroundExecutor
+) {
+    private val columns: Int
+    private val rows: Int
+
+    // node (i, j) (column i, row j) is stored at index j * columns + i
+    private val vectorX: DoubleArray
+    private val vectorY: DoubleArray
+    private val pathX: DoubleArray
+    private val pathY: DoubleArray
+    private val displacement: DoubleArray
+    private val error: DoubleArray
+
+    init {
+        require(maxX > minX && maxY > minY) { "The grid bounds must be non-empty" }
+        require(cellSize > 0.0) { "The grid cell size must be positive" }
+
+        columns = ceil((maxX - minX) / cellSize).toInt() + 1
+        rows = ceil((maxY - minY) / cellSize).toInt() + 1
+        vectorX = DoubleArray(columns * rows)
+        vectorY = DoubleArray(columns * rows)
+        pathX = DoubleArray(columns * rows)
+        pathY = DoubleArray(columns * rows)
+        displacement = DoubleArray(columns * rows)
+        error = DoubleArray(columns * rows)
+
+        val nextRow = AtomicInteger()
+        val remainingRows = CountDownLatch(rows)
+        var failure: Throwable? = null
+        val computeRows = Runnable {
+            var j = nextRow.getAndIncrement()
+            while (j < rows) {
+                try {
+                    val y = minY + j * cellSize
+                    for (i in 0 until columns) {
+                        val result = gvf.getProjected(minX + i * cellSize, y)
+                        val index = j * columns + i
+                        vectorX[index] = result.vector.x
+                        vectorY[index] = result.vector.y
+                        pathX[index] = result.pathPoint.x
+                        pathY[index] = result.pathPoint.y
+                        displacement[index] = result.displacement
+                        error[index] = result.error
+                    }
+                } catch (t: Throwable) {
+                    failure = t
+                } finally {
+                    remainingRows.countDown()
+                }
+                j = nextRow.getAndIncrement()
+            }
+        }
+        repeat(min(rows, Runtime.getRuntime().availableProcessors()) - 1) {
+            executor.execute(computeRows)
+        }
+        computeRows.run()
+        // every row has been claimed, so this only waits for rows in progress on other threads (the latch also
+        // publishes their array writes)
+        remainingRows.await()
+        failure?.let { throw it }
+    }
+
+    /**
+     * Returns the number of grid nodes.
+     */
+    fun size() = columns * rows
+
+    /**
+     * Returns true if the point is inside the grid.
+     */
+    fun contains(x: Double, y: Double) = x in minX..maxX && y in minY..maxY
+
+    private inline fun <T> interpolate(x: Double, y: Double, block: (Int, Double, Double) -> T): T {
+        require(contains(x, y)) { "($x, $y) is outside the grid" }
+        val u = (x - minX) / cellSize
+        val v = (y - minY) / cellSize
+        val i = min(floor(u).toInt(), columns - 2)
+        val j = min(floor(v).toInt(), rows - 2)
+        return block(j * columns + i, u - i, v - j)
+    }
+
+    // bilinear interpolation in the cell with lower left node index at fractional coordinates (fu, fv)
+    private fun DoubleArray.lerp(index: Int, fu: Double, fv: Double): Double {
+        val bottom = this[index] + fu * (this[index + 1] - this[index])
+        val top = this[index + columns] + fu * (this[index + columns + 1] - this[index + columns])
+        return bottom + fv * (top - bottom)
+    }
+
+    /**
+     * Maximum spread of the node displacements of a cell for [getExtendedNear] to use it.
+     */
+    val maxDisplacementSpread = 2 * cellSize
+
+    /**
+     * Returns the interpolated value of the vector field at the given point (see [getExtended]) if the point is inside
+     * the grid, the displacements of the four surrounding nodes are within [maxDisplacementSpread] of each other, and
+     * each of them is within [trustRadius] of [lastDisplacement]. Otherwise the nodes project onto different parts of
+     * the path (or a part away from the last projection) and null is returned.
+     */
+    @JvmOverloads
+    fun getExtendedNear(
+        x: Double,
+        y: Double,
+        lastDisplacement: Double = 0.0,
+        trustRadius: Double = Double.POSITIVE_INFINITY
+    ): GuidingVectorField.GVFResult? {
+        if (!contains(x, y)) {
+            return null
+        }
+        val consistent = interpolate(x, y) { index, _, _ ->
+            val d0 = displacement[index]
+            val d1 = displacement[index + 1]
+            val d2 = displacement[index + columns]
+            val d3 = displacement[index + columns + 1]
+            val spread = max(max(d0, d1), max(d2, d3)) - min(min(d0, d1), min(d2, d3))
+            val distance = max(
+                max(abs(d0 - lastDisplacement), abs(d1 - lastDisplacement)),
+                max(abs(d2 - lastDisplacement), abs(d3 - lastDisplacement))
+            )
+            spread <= maxDisplacementSpread && distance <= trustRadius
+        }
+        return if (consistent) getExtended(x, y) else null
+    }
+
+    /**
+     * Returns the interpolated value of the vector field at the given point along with interpolated intermediate
+     * values (see [GuidingVectorField.getExtended]). The values are blended across branches in cells where the nodes
+     * project onto different parts of the path; use [getExtendedNear] to reject those.
+     */
+    fun getExtended(x: Double, y: Double) = interpolate(x, y) { index, fu, fv ->
+        val vx = vectorX.lerp(index, fu, fv)
+        val vy = vectorY.lerp(index, fu, fv)
+        val norm = sqrt(vx * vx + vy * vy)
+        GuidingVectorField.GVFResult(
+            Vector2d(vx / norm, vy / norm),
+            Vector2d(pathX.lerp(index, fu, fv), pathY.lerp(index, fu, fv)),
+            displacement.lerp(index, fu, fv),
+            error.lerp(index, fu, fv)
+        )
+    }
+
+    /**
+     * Returns the interpolated value of the vector field at the given point.
+     */
+    operator fun get(x: Double, y: Double) = interpolate(x, y) { index, fu, fv ->
+        val vx = vectorX.lerp(index, fu, fv)
+        val vy = vectorY.lerp(index, fu, fv)
+        val norm = sqrt(vx * vx + vy * vy)
+        Vector2d(vx / norm, vy / norm)
+    }
+}
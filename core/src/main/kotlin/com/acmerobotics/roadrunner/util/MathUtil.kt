@@ -1,6 +1,9 @@
 package com.acmerobotics.roadrunner.util
 
+import kotlin.math.PI
 import kotlin.math.abs
+import kotlin.math.acos
+import kotlin.math.cos
 import kotlin.math.sqrt
 
 /**
@@ -23,6 +26,39 @@ object MathUtil {
             else -> emptyList()
         }
     }
+
+    /**
+     * Returns the real solutions to the cubic ax^3 + bx^2 + cx + d (or the quadratic if [a] is zero).
+     */
+    @JvmStatic
+    fun solveCubic(a: Double, b: Double, c: Double, d: Double): List<Double> {
+        if (a == 0.0) {
+            return if (b == 0.0) {
+                if (c == 0.0) emptyList() else listOf(-d / c)
+            } else {
+                solveQuadratic(b, c, d)
+            }
+        }
+
+        // depressed cubic t^3 + pt + q with x = t - b / 3a
+        val b1 = b / a
+        val c1 = c / a
+        val d1 = d / a
+        val offset = -b1 / 3
+        val p = c1 - b1 * b1 / 3
+        val q = 2 * b1 * b1 * b1 / 27 - b1 * c1 / 3 + d1
+        val disc = q * q / 4 + p * p * p / 27
+        return when {
+            p == 0.0 -> listOf(Math.cbrt(-q) + offset)
+            disc > 0.0 -> listOf(Math.cbrt(-q / 2 + sqrt(disc)) + Math.cbrt(-q / 2 - sqrt(disc)) + offset)
+            else -> {
+                // three real roots (trigonometric method)
+                val r = 2 * sqrt(-p / 3)
+                val phi = acos((3 * q / (p * r)).coerceIn(-1.0, 1.0)) / 3
+                List(3) { r * cos(phi - 2 * PI * it / 3) + offset }
+            }
+        }
+    }
 }
 
 const val EPSILON = 1e-6
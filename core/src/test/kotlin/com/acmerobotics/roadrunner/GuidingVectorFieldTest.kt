@@ -0,0 +1,104 @@
+package com.acmerobotics.roadrunner
+
+import com.acmerobotics.roadrunner.geometry.Pose2d
+import com.acmerobotics.roadrunner.geometry.Vector2d
+import com.acmerobotics.roadrunner.followers.GVFFollower
+import com.acmerobotics.roadrunner.path.PathBuilder
+import com.acmerobotics.roadrunner.profile.SimpleMotionConstraints
+import com.acmerobotics.roadrunner.util.DoubleProgression
+import com.acmerobotics.roadrunner.util.GuidingVectorField
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertSame
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import kotlin.math.PI
+import kotlin.random.Random
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class GuidingVectorFieldTest {
+    @Test
+    fun testGridMatchesProjection() {
+        val path = PathBuilder(Pose2d(-48.0, -48.0))
+            .splineTo(Vector2d(0.0, 0.0), 0.0)
+            .splineTo(Vector2d(48.0, 24.0), 0.0)
+            .build()
+        val exact = GuidingVectorField(path, 0.1)
+        val gvf = GuidingVectorField(path, 0.1)
+        val grid = gvf.precompute(cellSize = 0.5)
+        assertSame(grid, gvf.grid)
+        assertEquals(289 * 289, grid.size())
+
+        // the interpolation is only accurate away from points equidistant from different parts of the path
+        val random = Random(0)
+        repeat(1000) {
+            val pose = path[random.nextDouble(5.0, path.length() - 5.0)]
+            val point = pose.vec() + Vector2d.polar(random.nextDouble(-12.0, 12.0), pose.heading + PI / 2)
+            val expected = exact.getExtended(point.x, point.y)
+            val actual = gvf.getExtended(point.x, point.y)
+            assert(actual.vector.distTo(expected.vector) < 0.02)
+            assertEquals(expected.error, actual.error, 0.02)
+            assertEquals(expected.displacement, actual.displacement, 0.25)
+        }
+
+        // points outside the grid are still projected
+        assertEquals(exact[100.0, 0.0], gvf[100.0, 0.0])
+    }
+
+    @Test
+    fun testGridFromSaturatedExecutor() {
+        val path = PathBuilder(Pose2d()).splineTo(Vector2d(48.0, 24.0), 0.0).build()
+        val expected = GuidingVectorField(path, 0.1).precompute(cellSize = 4.0)
+
+        // every pool thread builds a grid whose helper tasks queue behind the other builds
+        val threads = 2
+        val executor = Executors.newFixedThreadPool(threads)
+        val grids = List(threads) {
+            executor.submit(Callable { GuidingVectorField(path, 0.1).precompute(cellSize = 4.0, executor = executor) })
+        }.map { it.get(30, TimeUnit.SECONDS) }
+        executor.shutdown()
+        for (grid in grids) {
+            assertEquals(expected[10.0, 5.0], grid[10.0, 5.0])
+        }
+    }
+
+    @Test
+    fun testGridHairpin() {
+        // the branches are 3 in apart, so cells between them have nodes projecting onto both
+        val path = PathBuilder(Pose2d(0.0, 0.0, 0.0))
+            .lineTo(Vector2d(30.0, 0.0))
+            .splineTo(Vector2d(30.0, 3.0), PI)
+            .lineTo(Vector2d(0.0, 3.0))
+            .build()
+        val exact = GuidingVectorField(path, 0.1)
+        val gvf = GuidingVectorField(path, 0.1)
+        val grid = gvf.precompute(cellSize = 1.0)
+
+        assertNull(grid.getExtendedNear(20.0, 1.5, 20.0, 6.0))
+        for (x in DoubleProgression.fromClosedInterval(2.0, 26.0, 25)) {
+            for (y in listOf(-1.0, 0.5, 1.2, 1.8, 2.5, 4.0)) {
+                val expected = exact.getExtended(x, y)
+                val actual = gvf.getExtended(x, y)
+                assertEquals(expected.displacement, actual.displacement, 0.25)
+                assert(actual.vector.distTo(expected.vector) < 0.02)
+            }
+        }
+
+        // a follower driving along the lower branch next to the midline keeps projecting onto it
+        val follower = GVFFollower(
+            SimpleMotionConstraints(30.0, 30.0), Pose2d(0.5, 0.5, PI / 36), 0.1, 1.0, gridCellSize = 1.0
+        )
+        val precomputed = follower.precompute(path)
+        assertEquals(grid.size(), precomputed.grid!!.size())
+        follower.followPath(precomputed)
+        assertSame(path, follower.path)
+        for (x in DoubleProgression.fromClosedInterval(0.0, 26.0, 27)) {
+            follower.update(Pose2d(x, 1.4, 0.0))
+            assertEquals(0.0, follower.lastError.x, 0.25)
+            assertEquals(-1.4, follower.lastError.y, 0.25)
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.acmerobotics.roadrunner
 
+import com.acmerobotics.roadrunner.geometry.MutablePose2d
 import com.acmerobotics.roadrunner.geometry.Pose2d
+import com.acmerobotics.roadrunner.kinematics.Kinematics
 import com.acmerobotics.roadrunner.kinematics.MecanumKinematics
 import com.acmerobotics.roadrunner.kinematics.SwerveKinematics
 import com.acmerobotics.roadrunner.kinematics.TankKinematics
@@ -8,6 +10,7 @@ import org.junit.jupiter.api.Assertions.assertTrue
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
 import kotlin.math.PI
+import kotlin.random.Random
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 class KinematicsTest {
@@ -35,4 +38,36 @@ class KinematicsTest {
         val predictedVelocity = SwerveKinematics.wheelToRobotVelocities(wheelVelocities, moduleOrientations, 10.0, 5.0)
         assertTrue(predictedVelocity epsilonEquals actualVelocity)
     }
+
+    @Test
+    fun testInPlaceKinematicsMatch() {
+        val random = Random(0)
+        fun randomPose() = Pose2d(random.nextDouble(-50.0, 50.0), random.nextDouble(-50.0, 50.0),
+            random.nextDouble(-2 * PI, 2 * PI))
+
+        val out = MutablePose2d()
+        repeat(100) {
+            val pose = randomPose()
+            val vel = randomPose()
+            val accel = randomPose()
+            val mutablePose = MutablePose2d(pose)
+            val mutableVel = MutablePose2d(vel)
+            val mutableAccel = MutablePose2d(accel)
+
+            assertTrue(Kinematics.fieldToRobotVelocity(pose, vel) epsilonEquals
+                Kinematics.fieldToRobotVelocity(mutablePose, mutableVel, out).toPose())
+            assertTrue(Kinematics.fieldToRobotAcceleration(pose, vel, accel) epsilonEquals
+                Kinematics.fieldToRobotAcceleration(mutablePose, mutableVel, mutableAccel, out).toPose())
+            assertTrue(Kinematics.calculatePoseError(pose, vel) epsilonEquals
+                Kinematics.calculatePoseError(mutablePose, mutableVel, out).toPose())
+            val delta = vel / 20.0
+            assertTrue(Kinematics.relativeOdometryUpdate(pose, delta) epsilonEquals
+                Kinematics.relativeOdometryUpdate(mutablePose, MutablePose2d(delta), out).toPose())
+
+            // the output may alias an input
+            val expected = Kinematics.relativeOdometryUpdate(pose, Pose2d())
+            assertTrue(expected epsilonEquals
+                Kinematics.relativeOdometryUpdate(mutablePose, MutablePose2d(), mutablePose).toPose())
+        }
+    }
 }
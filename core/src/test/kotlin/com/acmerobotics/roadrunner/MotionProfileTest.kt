@@ -0,0 +1,167 @@
+package com.acmerobotics.roadrunner
+
+import com.acmerobotics.roadrunner.profile.MotionConstraints
+import com.acmerobotics.roadrunner.profile.MotionProfileCache
+import com.acmerobotics.roadrunner.profile.MotionProfileGenerator
+import com.acmerobotics.roadrunner.profile.MotionState
+import com.acmerobotics.roadrunner.profile.SimpleMotionConstraints
+import com.acmerobotics.roadrunner.util.DoubleProgression
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import kotlin.math.PI
+import kotlin.math.abs
+import kotlin.math.sin
+import kotlin.random.Random
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MotionProfileTest {
+    private val profile = MotionProfileGenerator.generateSimpleMotionProfile(
+        MotionState(0.0, 0.0, 0.0),
+        MotionState(60.0, 0.0, 0.0),
+        25.0,
+        40.0,
+        100.0
+    )
+
+    @Test
+    fun testSampleIntoMatchesGet() {
+        val out = DoubleArray(4)
+        val t = DoubleProgression.fromClosedInterval(-0.5, profile.duration() + 0.5, 1000)
+        for (time in t) {
+            val state = profile[time]
+            profile.sampleInto(time, out)
+            assertEquals(state.x, out[0], 1e-9)
+            assertEquals(state.v, out[1], 1e-9)
+            assertEquals(state.a, out[2], 1e-9)
+            assertEquals(state.j, out[3], 1e-9)
+        }
+    }
+
+    @Test
+    fun testBatchSampleMatchesGet() {
+        val forward = DoubleProgression.fromClosedInterval(0.0, profile.duration(), 1000)
+        for (t in listOf(forward, -(forward - profile.duration()))) {
+            val samples = profile.sample(t)
+            t.forEachIndexed { i, time ->
+                val state = profile[time]
+                assertEquals(state.x, samples[0][i], 1e-9)
+                assertEquals(state.v, samples[1][i], 1e-9)
+                assertEquals(state.a, samples[2][i], 1e-9)
+            }
+        }
+    }
+
+    @Test
+    fun testSegmentsRoundTrip() {
+        val reversed = profile.reversed()
+        assertEquals(profile.duration(), reversed.duration(), 1e-9)
+        assertEquals(profile.end().x, reversed.start().x, 1e-9)
+        assertEquals(profile.segments.size, reversed.segments.size)
+        assertEquals(-profile.end().x, profile.flipped().end().x, 1e-9)
+    }
+
+    @Test
+    fun testShortJerkLimitedPeakVelocity() {
+        // none of these reach max vel so the peak velocity has to be solved for
+        for (distance in DoubleProgression.fromClosedInterval(0.01, 10.0, 200)) {
+            val shortProfile = MotionProfileGenerator.generateSimpleMotionProfile(
+                MotionState(0.0, 0.0, 0.0),
+                MotionState(distance, 0.0, 0.0),
+                25.0,
+                40.0,
+                100.0
+            )
+            assertEquals(distance, shortProfile.end().x, 1e-4)
+            assertEquals(0.0, shortProfile.end().v, 1e-4)
+            for (segment in shortProfile.segments) {
+                assertTrue(abs(segment.start.j) <= 100.0 + 1e-6)
+                assertTrue(segment.start.v <= 25.0 + 1e-6)
+            }
+        }
+    }
+
+    @Test
+    fun testJerkLimitedDynamicProfile() {
+        val constraints = object : MotionConstraints() {
+            override fun get(s: Double) = SimpleMotionConstraints(30.0 + 20.0 * sin(s / 10.0), 40.0, 100.0)
+        }
+        for ((start, goal) in listOf(0.0 to 120.0, 120.0 to 0.0)) {
+            val jerkProfile = MotionProfileGenerator.generateJerkLimitedMotionProfile(
+                MotionState(start, 0.0, 0.0),
+                MotionState(goal, 0.0, 0.0),
+                constraints
+            )
+            assertEquals(goal, jerkProfile.end().x, 1e-6)
+            assertEquals(0.0, jerkProfile.end().v, 1e-6)
+
+            val segments = jerkProfile.segments
+            for ((i, segment) in segments.withIndex()) {
+                val limits = constraints[abs(segment.start.x)]
+                assertTrue(abs(segment.start.v) <= limits.maxVel + 1e-6)
+                assertTrue(abs(segment.start.a) <= limits.maxAccel + 1e-6)
+                if (i > 0) {
+                    val dt = 0.5 * (segments[i - 1].dt + segment.dt)
+                    assertTrue(abs(segment.start.a - segments[i - 1].start.a) <= limits.maxJerk * dt + 1e-6)
+                }
+            }
+        }
+    }
+
+    @Test
+    fun testTimeAtInvertsProfile() {
+        val dynamicProfile = MotionProfileGenerator.generateMotionProfile(
+            MotionState(0.0, 0.0, 0.0),
+            MotionState(120.0, 0.0, 0.0),
+            object : MotionConstraints() {
+                override fun get(s: Double) = SimpleMotionConstraints(30.0 + 20.0 * sin(s / 10.0), 40.0)
+            }
+        )
+        // cubic (jerk-limited) and quadratic segments
+        for (testProfile in listOf(profile, dynamicProfile)) {
+            val end = testProfile.end().x
+            val s = DoubleProgression.fromClosedInterval(0.0, end, 1000).toList().toDoubleArray()
+            val times = testProfile.timesAt(s)
+            for (i in s.indices) {
+                assertEquals(s[i], testProfile[times[i]].x, 1e-9)
+                assertEquals(times[i], testProfile.timeAt(s[i]), 1e-12)
+            }
+
+            // unsorted positions fall back to a search for each
+            val shuffled = s.toList().shuffled(Random(0)).toDoubleArray()
+            val shuffledTimes = testProfile.timesAt(shuffled)
+            for (i in shuffled.indices) {
+                assertEquals(testProfile.timeAt(shuffled[i]), shuffledTimes[i], 1e-12)
+            }
+
+            assertEquals(0.0, testProfile.timeAt(-1.0))
+            assertEquals(testProfile.duration(), testProfile.timeAt(end + 1.0))
+        }
+    }
+
+    @Test
+    fun testProfileCache() {
+        val cache = MotionProfileCache(2)
+        for (heading in listOf(0.0, 1.0, -2.5)) {
+            val start = MotionState(heading, 0.0, 0.0)
+            val goal = MotionState(heading + PI / 2, 0.0, 0.0)
+            val cached = cache.generateSimpleMotionProfile(start, goal, PI, PI, 4 * PI)
+            val generated = MotionProfileGenerator.generateSimpleMotionProfile(start, goal, PI, PI, 4 * PI)
+            assertEquals(generated.duration(), cached.duration(), 1e-9)
+            for (t in DoubleProgression.fromClosedInterval(0.0, generated.duration(), 100)) {
+                assertEquals(generated[t].x, cached[t].x, 1e-9)
+                assertEquals(generated[t].v, cached[t].v, 1e-9)
+            }
+        }
+        assertEquals(1L, cache.misses)
+        assertEquals(2L, cache.hits)
+
+        // the least recently used profile is evicted
+        cache.generateSimpleMotionProfile(MotionState(0.0, 0.0), MotionState(-PI / 2, 0.0), PI, PI, 4 * PI)
+        cache.generateSimpleMotionProfile(MotionState(0.0, 0.0), MotionState(PI, 0.0), PI, PI, 4 * PI)
+        cache.generateSimpleMotionProfile(MotionState(0.0, 0.0), MotionState(PI / 2, 0.0), PI, PI, 4 * PI)
+        assertEquals(4L, cache.misses)
+        assertEquals(2, cache.size())
+    }
+}
@@ -1,13 +1,21 @@
 package com.acmerobotics.roadrunner
 
 import com.acmerobotics.roadrunner.TestUtil.assertDerivEquals
+import com.acmerobotics.roadrunner.geometry.Pose2d
+import com.acmerobotics.roadrunner.geometry.Vector2d
 import com.acmerobotics.roadrunner.path.Path
+import com.acmerobotics.roadrunner.path.PathBuilder
 import com.acmerobotics.roadrunner.path.PathSegment
 import com.acmerobotics.roadrunner.path.QuinticSpline
 import com.acmerobotics.roadrunner.util.DoubleProgression
 import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertSame
+import org.junit.jupiter.api.Assertions.assertTrue
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
+import kotlin.math.PI
+import kotlin.random.Random
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 class PathTest {
@@ -63,4 +71,89 @@ class PathTest {
             assertEquals(a, b, 1e-6)
         }
     }
+
+    @Test
+    fun testSegmentLookup() {
+        val knots = listOf(
+            QuinticSpline.Knot(0.0, 0.0, 20.0, 40.0),
+            QuinticSpline.Knot(45.0, 35.0, 60.0, 10.0),
+            QuinticSpline.Knot(55.0, 70.0, -20.0, 30.0),
+            QuinticSpline.Knot(20.0, 80.0, -40.0, -10.0),
+            QuinticSpline.Knot(0.0, 40.0, 0.0, -40.0)
+        )
+        val segments = knots.zipWithNext { start, end -> PathSegment(QuinticSpline(start, end)) }
+        val path = Path(segments)
+        assertEquals(segments.sumByDouble { it.length() }, path.length(), 1e-9)
+
+        // forward, backward, and random lookups all match a linear walk over the segments
+        val forward = DoubleProgression.fromClosedInterval(-1.0, path.length() + 1.0, 500).toList()
+        val random = Random(0)
+        for (s in forward + forward.reversed() + List(500) { random.nextDouble(-1.0, path.length() + 1.0) }) {
+            var remainingDisplacement = s.coerceIn(0.0, path.length())
+            var expected = segments.last() to segments.last().length()
+            for (segment in segments) {
+                if (remainingDisplacement <= segment.length()) {
+                    expected = segment to remainingDisplacement
+                    break
+                }
+                remainingDisplacement -= segment.length()
+            }
+            val (segment, displacement) = path.segment(s)
+            assertSame(expected.first, segment)
+            assertEquals(expected.second, displacement, 1e-9)
+        }
+    }
+
+    @Test
+    fun testProjector() {
+        // the path doubles back on itself so most query points are close to several branches
+        val path = PathBuilder(Pose2d())
+            .splineTo(Vector2d(40.0, 20.0), PI / 2)
+            .splineTo(Vector2d(0.0, 40.0), PI)
+            .splineTo(Vector2d(40.0, 60.0), 0.0)
+            .build()
+        val projector = path.projector
+
+        val s = DoubleProgression.fromClosedInterval(0.0, path.length(), 20000)
+        val points = s.map { path[it].vec() }
+        val random = Random(0)
+        repeat(200) {
+            val queryPoint = Vector2d(random.nextDouble(-40.0, 80.0), random.nextDouble(-40.0, 100.0))
+            val expected = points.map { it distTo queryPoint }.min()!!
+            val actual = path[projector.project(queryPoint)].vec() distTo queryPoint
+            assertEquals(expected, actual, 1e-3)
+            // coarser projectors are cached per resolution and stay accurate
+            assertEquals(expected, path[path.project(queryPoint, 0.5)].vec() distTo queryPoint, 1e-3)
+        }
+    }
+
+    @Test
+    fun testProjectNear() {
+        // the second branch passes within 10 in of the first
+        val path = PathBuilder(Pose2d())
+            .splineTo(Vector2d(40.0, 20.0), PI / 2)
+            .splineTo(Vector2d(0.0, 40.0), PI)
+            .splineTo(Vector2d(40.0, 60.0), 0.0)
+            .build()
+        val projector = path.projector
+
+        // track points offset from the path; the warm start must stay on the current branch
+        var lastDisplacement = 0.0
+        for (s in DoubleProgression.fromClosedInterval(0.0, path.length(), 200)) {
+            val pose = path[s]
+            val queryPoint = pose.vec() + Vector2d.polar(3.0, pose.heading + PI / 2)
+            val projection = projector.projectNear(queryPoint, lastDisplacement, 6.0, 8)
+            assertFalse(projection.fallback)
+            assertTrue(projection.iterations <= 8)
+            assertEquals(s, projection.displacement, 1e-3)
+            assertEquals(0.0, projection.residual, 1e-5)
+            lastDisplacement = projection.displacement
+        }
+
+        // a guess too far away falls back to the global projection
+        val queryPoint = Vector2d(20.0, 10.0)
+        val projection = projector.projectNear(queryPoint, path.length(), 6.0)
+        assertTrue(projection.fallback)
+        assertEquals(projector.project(queryPoint), projection.displacement, 1e-9)
+    }
 }
@@ -1,11 +1,20 @@
 package com.acmerobotics.roadrunner
 
 import com.acmerobotics.roadrunner.TestUtil.assertDerivEquals
+import com.acmerobotics.roadrunner.path.QuinticPolynomial
 import com.acmerobotics.roadrunner.path.QuinticSpline
 import com.acmerobotics.roadrunner.util.DoubleProgression
+import org.apache.commons.math3.linear.LUDecomposition
+import org.apache.commons.math3.linear.MatrixUtils
 import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertTrue
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+import kotlin.math.sqrt
+import kotlin.random.Random
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 class QuinticSplineTest {
@@ -96,4 +105,160 @@ class QuinticSplineTest {
         assertEquals(splineSegment.secondDeriv(splineSegment.length()).y,
             splineSegment2.secondDeriv(splineSegment.length()).y, 0.001)
     }
+
+    @Test
+    fun testQuadratureParameterization() {
+        // the second spline starts and ends at rest (zero derivative)
+        val knots = listOf(
+            QuinticSpline.Knot(0.0, 0.0, 20.0, 40.0) to QuinticSpline.Knot(45.0, 35.0, 60.0, 10.0),
+            QuinticSpline.Knot(0.0, 0.0) to QuinticSpline.Knot(30.0, -20.0)
+        )
+        for ((start, end) in knots) {
+            val spline = QuinticSpline(start, end, arcLengthTolerance = 1e-6)
+
+            // reference arc length from composite Simpson integration
+            fun arcLength(t: Double): Double {
+                val n = 2000
+                val h = t / n
+                var sum = 0.0
+                for (i in 0..n) {
+                    val weight = if (i == 0 || i == n) 1.0 else if (i % 2 == 1) 4.0 else 2.0
+                    val dx = spline.x.deriv(i * h)
+                    val dy = spline.y.deriv(i * h)
+                    sum += weight * sqrt(dx * dx + dy * dy)
+                }
+                return sum * h / 3
+            }
+
+            assertEquals(arcLength(1.0), spline.length(), 1e-6)
+            assertEquals(QuinticSpline(start, end).length(), spline.length(), 1e-2)
+
+            val s = DoubleProgression.fromClosedInterval(0.0, spline.length(), 100)
+            val t = spline.reparam(s)
+            for (i in 0 until s.size()) {
+                assertEquals(s[i], arcLength(t[i]), 1e-5)
+                assertEquals(spline.reparam(s[i]), t[i], 1e-12)
+            }
+        }
+    }
+
+    @Test
+    fun testClosedFormCoefficients() {
+        // the original coefficient solve
+        val coeffMatrix = MatrixUtils.createRealMatrix(arrayOf(
+            doubleArrayOf(0.0, 0.0, 0.0, 0.0, 0.0, 1.0),
+            doubleArrayOf(0.0, 0.0, 0.0, 0.0, 1.0, 0.0),
+            doubleArrayOf(0.0, 0.0, 0.0, 2.0, 0.0, 0.0),
+            doubleArrayOf(1.0, 1.0, 1.0, 1.0, 1.0, 1.0),
+            doubleArrayOf(5.0, 4.0, 3.0, 2.0, 1.0, 0.0),
+            doubleArrayOf(20.0, 12.0, 6.0, 2.0, 0.0, 0.0)
+        ))
+        val solver = LUDecomposition(coeffMatrix).solver
+
+        val random = Random(0)
+        repeat(100) {
+            val target = DoubleArray(6) { random.nextDouble(-100.0, 100.0) }
+            val expected = solver.solve(MatrixUtils.createColumnRealMatrix(target))
+            val poly = QuinticPolynomial(target[0], target[1], target[2], target[3], target[4], target[5])
+            val actual = doubleArrayOf(poly.a, poly.b, poly.c, poly.d, poly.e, poly.f)
+            for (i in actual.indices) {
+                assertEquals(expected.getEntry(i, 0), actual[i], 1e-9)
+            }
+        }
+    }
+
+    @Test
+    fun testFromKnots() {
+        val knots = listOf(
+            QuinticSpline.Knot(0.0, 0.0, 20.0, 40.0),
+            QuinticSpline.Knot(45.0, 35.0, 60.0, 10.0, 1.0, -2.0),
+            QuinticSpline.Knot(60.0, -10.0, 0.0, -50.0)
+        )
+        val data = knots.flatMap { listOf(it.x, it.y, it.dx, it.dy, it.d2x, it.d2y) }.toDoubleArray()
+
+        val chained = QuinticSpline.fromKnots(data)
+        val pairs = QuinticSpline.fromKnots(data.copyOfRange(0, 12), data.copyOfRange(6, 18))
+        assertEquals(2, chained.size)
+        assertEquals(2, pairs.size)
+        for (i in chained.indices) {
+            val expected = QuinticSpline(knots[i], knots[i + 1])
+            for (spline in listOf(chained[i], pairs[i])) {
+                assertEquals(expected.length(), spline.length(), 1e-9)
+                assert(expected[0.5 * expected.length()] epsilonEquals spline[0.5 * expected.length()])
+            }
+        }
+    }
+
+    @Test
+    fun testLazyParameterization() {
+        val start = QuinticSpline.Knot(0.0, 0.0, 20.0, 40.0)
+        val end = QuinticSpline.Knot(45.0, 35.0, 60.0, 10.0)
+        val expected = QuinticSpline(start, end)
+
+        for (tolerance in listOf(0.0, 1e-6)) {
+            val spline = QuinticSpline(start, end, arcLengthTolerance = tolerance)
+            assert(spline.start() epsilonEquals start.pos())
+            assert(spline.end() epsilonEquals end.pos())
+            assert(spline.endDeriv() epsilonEquals expected.endDeriv())
+            assert(spline.endSecondDeriv() epsilonEquals expected.endSecondDeriv())
+            assertFalse(spline.isParameterized())
+
+            // concurrent first queries share a single parameterization
+            val executor = Executors.newFixedThreadPool(4)
+            val lengths = (0 until 8).map { executor.submit(Callable { spline.length() }) }.map { it.get() }
+            executor.shutdown()
+            assertTrue(spline.isParameterized())
+            assertEquals(1, lengths.distinct().size)
+            assertEquals(expected.length(), lengths.first(), 1e-3)
+        }
+    }
+
+    @Test
+    fun testChebyshevParameterization() {
+        val start = QuinticSpline.Knot(0.0, 0.0, 20.0, 40.0)
+        val end = QuinticSpline.Knot(45.0, 35.0, 60.0, 10.0)
+        val recursive = QuinticSpline(start, end)
+        val reference = QuinticSpline(start, end, arcLengthTolerance = 1e-10)
+
+        for (tolerance in listOf(1e-3, 1e-6, 1e-9)) {
+            val spline = QuinticSpline(start, end, chebyshevTolerance = tolerance)
+            assertTrue(spline.chebyshevError() <= tolerance)
+            assertEquals(reference.length(), spline.length(), 1e-9)
+            assertEquals(recursive.length(), spline.length(), 1e-3)
+
+            for (s in DoubleProgression.fromClosedInterval(0.0, spline.length(), 1000)) {
+                val t = spline.reparam(s)
+                val expectedT = reference.reparam(s)
+                // the error in t scaled to arc length
+                assertEquals(0.0, (t - expectedT) / reference.paramDeriv(expectedT), 2 * tolerance)
+            }
+
+            // the recursive approximation is only accurate to its segment length
+            for (s in DoubleProgression.fromClosedInterval(0.0, spline.length(), 100)) {
+                assertEquals(0.0, recursive[s] distTo spline[s], 1e-2)
+            }
+        }
+        assertTrue(recursive.chebyshevError().isNaN())
+
+        // the interpolant can't follow t(s) next to stationary end points, so the spline falls back to quadrature
+        val stationaryStart = QuinticSpline.Knot(0.0, 0.0)
+        val stationaryEnd = QuinticSpline.Knot(30.0, 10.0)
+        val stationary = QuinticSpline(stationaryStart, stationaryEnd, chebyshevTolerance = 1e-6)
+        val stationaryReference = QuinticSpline(stationaryStart, stationaryEnd, arcLengthTolerance = 1e-10)
+        assertTrue(stationary.chebyshevError().isNaN())
+        assertEquals(stationaryReference.length(), stationary.length(), 1e-9)
+        for (s in DoubleProgression.fromClosedInterval(0.0, stationary.length(), 100)) {
+            assertEquals(0.0, stationaryReference[s] distTo stationary[s], 1e-5)
+        }
+
+        // pieces are only split where t(s) is hard to fit (here towards the slow end)
+        val slowKnot = QuinticSpline.Knot(45.0, 35.0, 10.0, 5.0)
+        val slowEnd = QuinticSpline(start, slowKnot, chebyshevTolerance = 1e-6)
+        val slowEndReference = QuinticSpline(start, slowKnot, arcLengthTolerance = 1e-10)
+        assertTrue(slowEnd.chebyshevError() <= 1e-6)
+        assertTrue(slowEnd.chebyshev!!.size() < 1 shl slowEnd.chebyshev!!.depth())
+        for (s in DoubleProgression.fromClosedInterval(0.0, slowEnd.length(), 1000)) {
+            assertEquals(0.0, slowEndReference[s] distTo slowEnd[s], 2e-6)
+        }
+    }
 }
@@ -0,0 +1,160 @@
+package com.acmerobotics.roadrunner
+
+import com.acmerobotics.roadrunner.geometry.Pose2d
+import com.acmerobotics.roadrunner.geometry.Vector2d
+import com.acmerobotics.roadrunner.path.Path
+import com.acmerobotics.roadrunner.path.PathSegment
+import com.acmerobotics.roadrunner.path.QuinticSpline
+import com.acmerobotics.roadrunner.path.heading.WiggleInterpolator
+import com.acmerobotics.roadrunner.trajectory.MarkerCallback
+import com.acmerobotics.roadrunner.trajectory.Trajectory
+import com.acmerobotics.roadrunner.trajectory.TrajectoryBuilder
+import com.acmerobotics.roadrunner.trajectory.TrajectoryGenerator
+import com.acmerobotics.roadrunner.trajectory.config.TrajectoryBinaryManager
+import com.acmerobotics.roadrunner.trajectory.config.TrajectoryCompiler
+import com.acmerobotics.roadrunner.trajectory.config.TrajectoryConfig
+import com.acmerobotics.roadrunner.trajectory.config.TrajectoryConfig.HeadingInterpolationType
+import com.acmerobotics.roadrunner.trajectory.config.TrajectoryConfig.Waypoint
+import com.acmerobotics.roadrunner.trajectory.config.TrajectoryConfigManager
+import com.acmerobotics.roadrunner.trajectory.config.TrajectoryGroupConfig
+import com.acmerobotics.roadrunner.trajectory.constraints.DriveConstraints
+import com.acmerobotics.roadrunner.util.DoubleProgression
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNotNull
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertThrows
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import java.io.File
+import java.nio.ByteBuffer
+import kotlin.math.PI
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TrajectoryBinaryTest {
+    private fun assertSameTrajectory(expected: Trajectory, actual: Trajectory) {
+        assertEquals(expected.duration(), actual.duration())
+        assertEquals(expected.path.segments.size, actual.path.segments.size)
+        assertEquals(expected.path.length(), actual.path.length())
+        for (t in DoubleProgression.fromClosedInterval(0.0, expected.duration(), 500)) {
+            val expectedState = expected.profile[t]
+            val actualState = actual.profile[t]
+            assertEquals(expectedState.x, actualState.x)
+            assertEquals(expectedState.v, actualState.v)
+            assertEquals(expectedState.a, actualState.a)
+            assertEquals(expected[t], actual[t])
+            assertEquals(expected.velocity(t), actual.velocity(t))
+            assertEquals(expected.acceleration(t), actual.acceleration(t))
+        }
+    }
+
+    @Test
+    fun testConfigRoundTrip() {
+        val groupConfig = TrajectoryGroupConfig(
+            30.0, 30.0, PI, PI, 18.0, 18.0, TrajectoryGroupConfig.DriveType.MECANUM, 15.0, null, 1.0
+        )
+        val dir = createTempDir()
+        try {
+            TrajectoryConfigManager.saveGroupConfig(groupConfig, dir)
+            for (type in HeadingInterpolationType.values()) {
+                // a line followed by a spline (only a spline when the heading would turn discontinuously)
+                val spline = Waypoint(Vector2d(48.0, 24.0), PI / 2, PI / 2, type)
+                val waypoints = when (type) {
+                    HeadingInterpolationType.TANGENT, HeadingInterpolationType.CONSTANT ->
+                        listOf(Waypoint(Vector2d(24.0, 0.0), 0.0, 0.0, type), spline)
+                    else -> listOf(spline)
+                }
+                val config = TrajectoryConfig(Pose2d(0.0, 0.0, 0.0), 0.0, waypoints, 0.25)
+                val yamlFile = File(dir, "$type.yaml")
+                TrajectoryConfigManager.saveConfig(config, yamlFile)
+                val trajectory = TrajectoryConfigManager.loadConfig(yamlFile)!!
+                    .toTrajectory(TrajectoryConfigManager.loadGroupConfig(dir)!!)!!
+
+                val binaryFile = File(dir, type.toString() + TrajectoryBinaryManager.FILE_EXTENSION)
+                TrajectoryBinaryManager.save(trajectory, binaryFile)
+                assertSameTrajectory(trajectory, TrajectoryBinaryManager.load(binaryFile))
+                assertSameTrajectory(trajectory, binaryFile.inputStream().use { TrajectoryBinaryManager.load(it) })
+            }
+        } finally {
+            dir.deleteRecursively()
+        }
+    }
+
+    @Test
+    fun testMarkersAndWiggle() {
+        val reached = mutableListOf<Int>()
+        val trajectory = TrajectoryBuilder(Pose2d(), constraints = DriveConstraints(30.0, 30.0, 0.0, PI, PI, 0.0))
+            .splineTo(Vector2d(30.0, 30.0), PI / 2)
+            .addTemporalMarker(1.0, MarkerCallback { reached.add(0) })
+            .addDisplacementMarker(MarkerCallback { reached.add(1) })
+            .build()
+        val bytes = TrajectoryBinaryManager.toByteArray(trajectory)
+
+        val callbacks = listOf(MarkerCallback { reached.add(2) }, MarkerCallback { reached.add(3) })
+        val loaded = TrajectoryBinaryManager.load(ByteBuffer.wrap(bytes), callbacks)
+        assertSameTrajectory(trajectory, loaded)
+        assertEquals(trajectory.markers.map { it.time }.sorted(), loaded.markers.map { it.time })
+        loaded.markers.forEach { it.callback.onMarkerReached() }
+        assertEquals(listOf(2, 3), reached)
+        for (partialCallbacks in listOf(emptyList(), callbacks.subList(0, 1))) {
+            assertThrows(IllegalArgumentException::class.java) {
+                TrajectoryBinaryManager.load(ByteBuffer.wrap(bytes), partialCallbacks)
+            }
+        }
+
+        val wiggle = Path(PathSegment(
+            QuinticSpline(QuinticSpline.Knot(0.0, 0.0, 60.0, 0.0), QuinticSpline.Knot(40.0, 20.0, 60.0, 0.0)),
+            WiggleInterpolator(PI / 8, 10.0)
+        ))
+        val wiggleTrajectory = TrajectoryGenerator.generateTrajectory(
+            wiggle, DriveConstraints(30.0, 30.0, 0.0, PI, PI, 0.0)
+        )
+        val wiggleBytes = TrajectoryBinaryManager.toByteArray(wiggleTrajectory)
+        assertSameTrajectory(wiggleTrajectory, TrajectoryBinaryManager.load(ByteBuffer.wrap(wiggleBytes)))
+
+        // a future format version is rejected instead of misread
+        wiggleBytes[7]++
+        assertThrows(IllegalArgumentException::class.java) {
+            TrajectoryBinaryManager.load(ByteBuffer.wrap(wiggleBytes))
+        }
+    }
+
+    @Test
+    fun testCompiler() {
+        val groupConfig = TrajectoryGroupConfig(
+            30.0, 30.0, PI, PI, 18.0, 18.0, TrajectoryGroupConfig.DriveType.MECANUM, 15.0, null, 1.0
+        )
+        val inputDir = createTempDir()
+        val outputDir = createTempDir()
+        try {
+            TrajectoryConfigManager.saveGroupConfig(groupConfig, inputDir)
+            val configs = (1..4).map { i ->
+                TrajectoryConfig(Pose2d(), 0.0, listOf(
+                    Waypoint(Vector2d(12.0 * i, 24.0), PI / 2, PI / 2, HeadingInterpolationType.TANGENT)
+                ), 0.25)
+            }
+            configs.forEachIndexed { i, config ->
+                TrajectoryConfigManager.saveConfig(config, File(inputDir, "path$i.yaml"))
+            }
+            File(inputDir, "invalid.yaml").writeText("startPose: [")
+            File(outputDir, "stale" + TrajectoryBinaryManager.FILE_EXTENSION).writeText("")
+
+            val results = TrajectoryCompiler.compile(inputDir, outputDir)
+            assertEquals(listOf("invalid", "path0", "path1", "path2", "path3"), results.map { it.name })
+            assertNull(results[0].output)
+            assertNotNull(results[0].error)
+            for ((config, result) in configs.zip(results.drop(1))) {
+                assertNull(result.error)
+                assertSameTrajectory(config.toTrajectory(groupConfig)!!, TrajectoryBinaryManager.load(result.output!!))
+            }
+            assertEquals(
+                results.mapNotNull { it.output?.name }.toSet(),
+                outputDir.list()!!.toSet()
+            )
+            assertTrue(results.all { it.time >= 0.0 })
+        } finally {
+            inputDir.deleteRecursively()
+            outputDir.deleteRecursively()
+        }
+    }
+}
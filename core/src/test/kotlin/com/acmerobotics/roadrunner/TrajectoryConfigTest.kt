@@ -0,0 +1,64 @@
+package com.acmerobotics.roadrunner
+
+import com.acmerobotics.roadrunner.geometry.Pose2d
+import com.acmerobotics.roadrunner.geometry.Vector2d
+import com.acmerobotics.roadrunner.trajectory.config.TrajectoryConfig
+import com.acmerobotics.roadrunner.trajectory.config.TrajectoryConfig.HeadingInterpolationType
+import com.acmerobotics.roadrunner.trajectory.config.TrajectoryConfig.Waypoint
+import com.acmerobotics.roadrunner.trajectory.config.TrajectoryConfigManager
+import com.acmerobotics.roadrunner.trajectory.config.TrajectoryGroupConfig
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertThrows
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import java.io.File
+import java.util.concurrent.ExecutionException
+import kotlin.math.PI
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TrajectoryConfigTest {
+    @Test
+    fun testLoadGroupParallel() {
+        val groupConfig = TrajectoryGroupConfig(
+            30.0, 30.0, PI, PI, 18.0, 18.0, TrajectoryGroupConfig.DriveType.MECANUM, 15.0, null, 1.0
+        )
+        val dir = createTempDir()
+        try {
+            assertNull(TrajectoryConfigManager.loadGroupParallel(dir))
+
+            TrajectoryConfigManager.saveGroupConfig(groupConfig, dir)
+            val configs = (1..6).map { i ->
+                TrajectoryConfig(Pose2d(), 0.0, listOf(
+                    Waypoint(Vector2d(24.0, 12.0 * i), 0.0, PI / 2, HeadingInterpolationType.TANGENT),
+                    Waypoint(Vector2d(48.0, 12.0 * i), 0.0, 0.0, HeadingInterpolationType.TANGENT)
+                ), 0.25)
+            }
+            configs.forEachIndexed { i, config ->
+                TrajectoryConfigManager.saveConfig(config, File(dir, "path$i.yaml"))
+            }
+
+            val futures = TrajectoryConfigManager.loadGroupParallel(dir)!!
+            assertEquals(configs.indices.map { "path$it" }, futures.keys.toList())
+            for ((config, future) in configs.zip(futures.values)) {
+                val generated = future.get()
+                val expected = config.toTrajectory(groupConfig)!!
+                assertEquals(expected.duration(), generated.trajectory.duration())
+                assertEquals(expected.end(), generated.trajectory.end())
+                assertTrue(generated.time > 0.0)
+
+                val loaded = TrajectoryConfigManager.load(File(dir, "${generated.name}.yaml"))!!
+                assertEquals(expected.duration(), loaded.duration())
+            }
+
+            // invalid configs fail their own future only
+            File(dir, "invalid.yaml").writeText("startPose: [")
+            val withInvalid = TrajectoryConfigManager.loadGroupParallel(dir)!!
+            assertThrows(ExecutionException::class.java) { withInvalid.getValue("invalid").get() }
+            assertEquals(configs.size, withInvalid.filterKeys { it != "invalid" }.values.count { it.get() != null })
+        } finally {
+            dir.deleteRecursively()
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.acmerobotics.roadrunner
+
+import com.acmerobotics.roadrunner.geometry.Pose2d
+import com.acmerobotics.roadrunner.geometry.Vector2d
+import com.acmerobotics.roadrunner.trajectory.TrajectoryBuilder
+import com.acmerobotics.roadrunner.trajectory.TrajectoryReplanner
+import com.acmerobotics.roadrunner.trajectory.constraints.DriveConstraints
+import com.acmerobotics.roadrunner.trajectory.constraints.MecanumConstraints
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import kotlin.math.PI
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TrajectoryReplannerTest {
+    private val constraints = MecanumConstraints(DriveConstraints(30.0, 30.0, 0.0, PI, PI, 0.0), 15.0)
+
+    private val trajectory = TrajectoryBuilder(Pose2d(), constraints = constraints)
+        .splineTo(Vector2d(48.0, 24.0), 0.0)
+        .build()
+
+    @Test
+    fun testReplanFromTrajectory() {
+        val replanner = TrajectoryReplanner(constraints, 1.0)
+        val goal = Pose2d(60.0, -12.0, PI / 2)
+        val t = 0.5 * trajectory.duration()
+
+        val replanned = replanner.replan(trajectory, t, goal, -PI / 2)
+        val report = replanner.lastReport!!
+
+        // the first replan has no cost estimate so it starts coarse and refines within the budget
+        assertEquals(2, report.attempts)
+        assertEquals(0.25, report.resolution)
+        assertFalse(report.overBudget)
+        assertTrue(report.time >= report.pathTime)
+
+        assert(replanned.start() epsilonEqualsHeading trajectory[t])
+        assert(replanned.end() epsilonEqualsHeading goal)
+        assertEquals(trajectory.profile[t].v, replanned.profile.start().v, 1e-6)
+        assertEquals(0.0, replanned.profile.end().v, 1e-6)
+
+        // later replans pick the resolution directly
+        replanner.replan(trajectory, t, goal, -PI / 2)
+        assertEquals(1, replanner.lastReport!!.attempts)
+    }
+
+    @Test
+    fun testReplanFallback() {
+        val replanner = TrajectoryReplanner(constraints, 0.0)
+        val replanned = replanner.replan(Pose2d(), 0.0, trajectory.profile[0.5], Vector2d(36.0, 36.0), PI / 2)
+        val report = replanner.lastReport!!
+
+        assertEquals(1, report.attempts)
+        assertEquals(2.0, report.resolution)
+        assertTrue(report.overBudget)
+        assert(replanned.end().vec() epsilonEquals Vector2d(36.0, 36.0))
+    }
+}
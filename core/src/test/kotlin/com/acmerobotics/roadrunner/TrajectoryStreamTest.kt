@@ -0,0 +1,120 @@
+package com.acmerobotics.roadrunner
+
+import com.acmerobotics.roadrunner.control.PIDCoefficients
+import com.acmerobotics.roadrunner.followers.HolonomicPIDVAFollower
+import com.acmerobotics.roadrunner.geometry.Pose2d
+import com.acmerobotics.roadrunner.geometry.Vector2d
+import com.acmerobotics.roadrunner.trajectory.TrajectoryBuilder
+import com.acmerobotics.roadrunner.trajectory.TrajectoryStream
+import com.acmerobotics.roadrunner.trajectory.constraints.DriveConstraints
+import com.acmerobotics.roadrunner.trajectory.constraints.MecanumConstraints
+import com.acmerobotics.roadrunner.util.DoubleProgression
+import com.acmerobotics.roadrunner.util.NanoClock
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import java.util.concurrent.Executor
+import kotlin.math.PI
+import kotlin.math.abs
+
+private val CONSTRAINTS = MecanumConstraints(DriveConstraints(30.0, 30.0, 0.0, PI, PI, 0.0), 15.0)
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TrajectoryStreamTest {
+    // runs the queued generation tasks (one per window) on demand
+    private class ManualExecutor : Executor {
+        val tasks = mutableListOf<Runnable>()
+
+        override fun execute(command: Runnable) {
+            tasks.add(command)
+        }
+
+        fun runNext() = tasks.removeAt(0).run()
+
+        fun runAll() {
+            while (tasks.isNotEmpty()) {
+                runNext()
+            }
+        }
+    }
+
+    private class ManualClock : NanoClock() {
+        var time = 0.0
+
+        override fun seconds() = time
+    }
+
+    private fun builder() = TrajectoryBuilder(Pose2d(), constraints = CONSTRAINTS)
+        .splineTo(Vector2d(40.0, 30.0), 0.0)
+        .splineTo(Vector2d(80.0, -20.0), PI / 2)
+        .splineTo(Vector2d(100.0, 40.0), PI)
+
+    @Test
+    fun testStreamMatchesTrajectory() {
+        val trajectory = builder().build()
+
+        val executor = ManualExecutor()
+        val stream = builder().buildStream(24.0, executor)
+        val snapshots = mutableListOf<TrajectoryStream.Snapshot>()
+        while (executor.tasks.isNotEmpty()) {
+            executor.runNext()
+            snapshots.add(stream.poll(0.0))
+        }
+        val streamed = stream.await()
+
+        assertTrue(snapshots.size > 3)
+        assertEquals(trajectory.duration(), streamed.duration(), 1e-6)
+        for (t in DoubleProgression.fromClosedInterval(0.0, trajectory.duration(), 1000)) {
+            assertEquals(trajectory.profile[t].x, streamed.profile[t].x, 1e-6)
+        }
+
+        // every snapshot is final up to its horizon and the horizons increase
+        var lastHorizon = 0.0
+        for (snapshot in snapshots) {
+            assertTrue(snapshot.horizon >= lastHorizon)
+            lastHorizon = snapshot.horizon
+            for (t in DoubleProgression.fromClosedInterval(0.0, snapshot.horizon, 100)) {
+                assertEquals(trajectory.profile[t].x, snapshot.trajectory.profile[t].x, 1e-6)
+            }
+            assertEquals(0.0, snapshot.trajectory.profile.end().v, 1e-6)
+        }
+    }
+
+    @Test
+    fun testFollowerWaitsForStream() {
+        val executor = ManualExecutor()
+        val stream = builder().buildStream(24.0, executor)
+        executor.runNext()
+
+        val clock = ManualClock()
+        val follower = HolonomicPIDVAFollower(
+            PIDCoefficients(), PIDCoefficients(), PIDCoefficients(), clock = clock)
+        follower.followTrajectory(stream)
+
+        // the generator stalls so the follower has to stop at the end of the first window
+        val dt = 0.01
+        var lastX = 0.0
+        var maxStep = 0.0
+        var stalledSteps = 0
+        while (follower.isFollowing()) {
+            follower.update(follower.trajectory[follower.elapsedTime()])
+            val x = follower.trajectory.profile[follower.elapsedTime()].x
+            maxStep = maxOf(maxStep, abs(x - lastX))
+            lastX = x
+            clock.time += dt
+            if (stalledSteps++ > 500) {
+                executor.runAll()
+            }
+        }
+
+        val profile = follower.trajectory.profile
+        assertEquals(follower.trajectory.path.length(), lastX, 1e-6)
+        // the followed profile includes the stop at the end of the first window
+        assertTrue(profile.duration() > builder().build().duration() + 0.5)
+        // the reference never jumps (max velocity is 30 in/s)
+        assertTrue(maxStep <= 30.0 * dt + 1e-6)
+        // the follower came to rest and waited for the rest of the trajectory
+        assertTrue(profile.duration() + 1.0 < clock.time)
+    }
+}
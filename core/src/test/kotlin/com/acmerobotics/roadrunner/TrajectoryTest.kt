@@ -1,17 +1,31 @@
 package com.acmerobotics.roadrunner
 
+import com.acmerobotics.roadrunner.control.PIDCoefficients
+import com.acmerobotics.roadrunner.followers.HolonomicPIDVAFollower
 import com.acmerobotics.roadrunner.geometry.Pose2d
 import com.acmerobotics.roadrunner.geometry.Vector2d
 import com.acmerobotics.roadrunner.path.Path
+import com.acmerobotics.roadrunner.path.PathBuilder
 import com.acmerobotics.roadrunner.path.PathSegment
 import com.acmerobotics.roadrunner.path.QuinticSpline
+import com.acmerobotics.roadrunner.trajectory.MarkerCallback
 import com.acmerobotics.roadrunner.trajectory.TrajectoryBuilder
 import com.acmerobotics.roadrunner.trajectory.TrajectoryGenerator
+import com.acmerobotics.roadrunner.trajectory.TrajectoryState
+import com.acmerobotics.roadrunner.trajectory.constraints.AdaptiveConstraintSampler
 import com.acmerobotics.roadrunner.trajectory.constraints.DriveConstraints
+import com.acmerobotics.roadrunner.trajectory.constraints.MecanumConstraints
+import com.acmerobotics.roadrunner.trajectory.constraints.SampleCountListener
+import com.acmerobotics.roadrunner.util.Angle
 import com.acmerobotics.roadrunner.util.DoubleProgression
+import com.acmerobotics.roadrunner.util.NanoClock
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
 import kotlin.math.PI
+import kotlin.math.abs
+import kotlin.math.ceil
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 class TrajectoryTest {
@@ -43,6 +57,23 @@ class TrajectoryTest {
         TestUtil.assertDerivEquals(velY, accelY, t.step, 0.05, 0.1)
     }
 
+    @Test
+    fun testEvaluateMatchesSeparateCalls() {
+        val trajectory = TrajectoryBuilder(Pose2d(), constraints = DriveConstraints(30.0, 30.0, 0.0, PI, PI, 0.0))
+            .splineToSplineHeading(Pose2d(30.0, 20.0, PI / 4), 0.0)
+            .splineToSplineHeading(Pose2d(50.0, 40.0, PI / 2), PI / 2)
+            .splineToSplineHeading(Pose2d(70.0, 60.0, PI), 0.0)
+            .build()
+
+        val state = TrajectoryState()
+        for (t in DoubleProgression.fromClosedInterval(-0.5, trajectory.duration() + 0.5, 1000)) {
+            trajectory.evaluate(t, state)
+            assert(trajectory[t] epsilonEquals state.pose.toPose())
+            assert(trajectory.velocity(t) epsilonEquals state.velocity.toPose())
+            assert(trajectory.acceleration(t) epsilonEquals state.acceleration.toPose())
+        }
+    }
+
     @Test
     fun testShortTrajectory() {
         val path = Path(listOf(PathSegment(QuinticSpline(
@@ -67,4 +98,109 @@ class TrajectoryTest {
             assert(traj.end() epsilonEqualsHeading endPose)
         }
     }
+
+    @Test
+    fun testAdaptiveConstraintSampling() {
+        val constraints = MecanumConstraints(DriveConstraints(30.0, 30.0, 0.0, PI, PI, 0.0), 15.0)
+        val sampleCounts = mutableListOf<Int>()
+        val sampler = AdaptiveConstraintSampler(listener = SampleCountListener { sampleCounts.add(it) })
+
+        val line = PathBuilder(Pose2d()).lineTo(Vector2d(60.0, 0.0)).build()
+        val lineTrajectory = TrajectoryGenerator.generateTrajectory(line, constraints, sampler)
+        // constant constraints only need the initial samples
+        assertEquals(listOf(ceil(line.length() / sampler.maxResolution).toInt() + 1), sampleCounts)
+        assertEquals(
+            TrajectoryGenerator.generateTrajectory(line, constraints).duration(),
+            lineTrajectory.duration(),
+            1e-3
+        )
+
+        val curve = PathBuilder(Pose2d())
+            .splineTo(Vector2d(40.0, 30.0), 0.0)
+            .splineTo(Vector2d(80.0, -20.0), PI / 2)
+            .splineTo(Vector2d(100.0, 40.0), PI)
+            .build()
+        val reference = TrajectoryGenerator.generateTrajectory(curve, constraints, resolution = 0.01)
+        val uniform = TrajectoryGenerator.generateTrajectory(curve, constraints)
+        sampleCounts.clear()
+        val adaptive = TrajectoryGenerator.generateTrajectory(curve, constraints, sampler)
+        // samples concentrate in the tight turns, beating the uniform profile with fewer samples
+        assertEquals(1, sampleCounts.size)
+        assertTrue(sampleCounts.single() < curve.length() / 0.25)
+        assertTrue(adaptive.duration() - reference.duration() <= uniform.duration() - reference.duration())
+        assert(adaptive.end() epsilonEqualsHeading curve.end())
+
+        val built = TrajectoryBuilder(Pose2d(), constraints = constraints, sampler = sampler)
+            .splineTo(Vector2d(40.0, 30.0), 0.0)
+            .splineTo(Vector2d(80.0, -20.0), PI / 2)
+            .build()
+        assert(built.end() epsilonEqualsHeading Pose2d(80.0, -20.0, PI / 2))
+        // the builder reports the samples of its own generation
+        assertEquals(2, sampleCounts.size)
+        assertTrue(sampleCounts.last() in 2 until sampleCounts.first())
+    }
+
+    @Test
+    fun testBakedTrajectory() {
+        val markerTimes = mutableListOf<Double>()
+        val clock = object : NanoClock() {
+            var time = 0.0
+
+            override fun seconds() = time
+        }
+        val trajectory = TrajectoryBuilder(Pose2d(0.0, 0.0, 3 * PI / 2), constraints = DriveConstraints(
+            30.0, 30.0, 0.0, PI, PI, 0.0
+        ))
+            .splineToSplineHeading(Pose2d(30.0, 20.0, PI / 4), 0.0)
+            .splineToSplineHeading(Pose2d(50.0, 40.0, PI / 2), PI / 2)
+            .addTemporalMarker(1.0, MarkerCallback { markerTimes.add(clock.time) })
+            .addTemporalMarker(0.5, 0.0, MarkerCallback { markerTimes.add(clock.time) })
+            .build()
+
+        val baked = trajectory.bake()
+        assertTrue(baked.dt <= 0.005)
+        assertEquals(trajectory.duration(), (baked.size() - 1) * baked.dt, 1e-9)
+        assert(baked.end() epsilonEquals trajectory.end())
+
+        val state = TrajectoryState()
+        val bakedState = TrajectoryState()
+        for (t in DoubleProgression.fromClosedInterval(-0.5, trajectory.duration() + 0.5, 1000)) {
+            trajectory.evaluate(t, state)
+            baked.evaluate(t, bakedState)
+            assertEquals(state.pose.x, bakedState.pose.x, 5e-4)
+            assertEquals(state.pose.y, bakedState.pose.y, 5e-4)
+            assertEquals(0.0, Angle.normDelta(state.pose.heading - bakedState.pose.heading), 5e-4)
+            assertTrue(bakedState.pose.heading >= 0.0 && bakedState.pose.heading < 2 * PI)
+            // the velocity has kinks where the profile acceleration jumps (by up to 60 in/s^2 here)
+            assertEquals(state.velocity.x, bakedState.velocity.x, 0.1)
+            assertEquals(state.velocity.y, bakedState.velocity.y, 0.1)
+            assertEquals(state.velocity.heading, bakedState.velocity.heading, 0.1)
+            assert(baked[t] epsilonEquals bakedState.pose.toPose())
+        }
+        for (i in 0 until baked.size()) {
+            val t = i * baked.dt
+            trajectory.evaluate(t, state)
+            assert(baked.acceleration(t) epsilonEquals state.acceleration.toPose())
+        }
+
+        // the markers run at the first update on or after their sample
+        val follower = HolonomicPIDVAFollower(PIDCoefficients(), PIDCoefficients(), PIDCoefficients(), clock = clock)
+        follower.followTrajectory(baked)
+        assertEquals(baked, follower.bakedTrajectory)
+        while (follower.isFollowing()) {
+            follower.update(baked[follower.elapsedTime()])
+            clock.time += 0.01
+        }
+        val expectedTimes = baked.markerIndices.map { it * baked.dt }
+        assertEquals(listOf(trajectory.duration() / 2, 1.0).sorted(), baked.markers.map { it.time })
+        assertEquals(2, markerTimes.size)
+        for (i in markerTimes.indices) {
+            assertTrue(markerTimes[i] >= expectedTimes[i] && markerTimes[i] < expectedTimes[i] + 0.01 + 1e-9)
+        }
+        assertTrue(abs(follower.lastError.x) < 1e-6 && abs(follower.lastError.y) < 1e-6)
+
+        // following the source trajectory again drops the baked reference
+        follower.followTrajectory(trajectory)
+        assertEquals(null, follower.bakedTrajectory)
+    }
 }